@@ -0,0 +1,244 @@
+package io.chucknorris.api.joke;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TimeZone;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.AutowiredAnnotationBeanPostProcessor;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.SpringHandlerInstantiator;
+
+/**
+ * In-process joke dataset for the benchmarks, so they run without Postgres.
+ *
+ * <p>The jokes in {@code jokes.json} are repeated until the requested dataset size is reached;
+ * copies get a numeric id suffix. {@link #jokeRepository()} answers the queries used on the read
+ * path from this dataset and throws for everything else.
+ */
+public final class JokeFixture {
+
+  public static final String BASE_URL = "api.chucknorris.io";
+
+  private final List<Joke> jokes;
+  private final Map<String, Joke> jokesById;
+
+  private JokeFixture(List<Joke> jokes) {
+    this.jokes = Collections.unmodifiableList(jokes);
+    this.jokesById = new HashMap<>();
+    for (Joke joke : jokes) {
+      jokesById.put(joke.getId(), joke);
+    }
+  }
+
+  /**
+   * Loads the fixture and repeats it until it holds {@code size} jokes.
+   */
+  public static JokeFixture load(int size) {
+    ObjectMapper objectMapper = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    Joke[] seed;
+    try (InputStream inputStream = JokeFixture.class.getResourceAsStream("/jokes.json")) {
+      seed = objectMapper.readValue(inputStream, Joke[].class);
+    } catch (IOException exception) {
+      throw new UncheckedIOException(exception);
+    }
+
+    List<Joke> jokes = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      Joke joke = seed[i % seed.length];
+      int copy = i / seed.length;
+      jokes.add(joke.toBuilder()
+          .id(copy == 0 ? joke.getId() : joke.getId() + copy)
+          .createdAt("2019-06-02 08:47:39.408742")
+          .updatedAt("2019-06-02 08:47:39.408742")
+          .build());
+    }
+
+    return new JokeFixture(jokes);
+  }
+
+  public List<Joke> getJokes() {
+    return jokes;
+  }
+
+  /**
+   * Returns the joke at the given position, wrapping around at the end of the dataset.
+   */
+  public Joke jokeAt(int index) {
+    return jokes.get(Math.floorMod(index, jokes.size()));
+  }
+
+  /**
+   * Returns {@code [joke_id, first category]} rows as loaded by {@link RandomJokeEngine}.
+   */
+  public List<Object[]> idsAndCategories() {
+    List<Object[]> rows = new ArrayList<>(jokes.size());
+    for (Joke joke : jokes) {
+      if (joke.getCategories() == null || joke.getCategories().length == 0) {
+        rows.add(new Object[]{joke.getId(), null});
+        continue;
+      }
+      for (String category : joke.getCategories()) {
+        rows.add(new Object[]{joke.getId(), category});
+      }
+    }
+    return rows;
+  }
+
+  /**
+   * Returns all first categories ordered by name.
+   */
+  public String[] categories() {
+    TreeSet<String> categories = new TreeSet<>();
+    for (Joke joke : jokes) {
+      String category = firstCategory(joke);
+      if (category != null) {
+        categories.add(category);
+      }
+    }
+    return categories.toArray(new String[0]);
+  }
+
+  /**
+   * Returns an {@link ObjectMapper} configured like the application's: serializers are created
+   * by Spring, so {@link JokeSerializer} gets its "application.base_url", and the "spring.jackson"
+   * settings of application.properties are applied.
+   */
+  public static ObjectMapper objectMapper() {
+    StandardEnvironment environment = new StandardEnvironment();
+    environment.getPropertySources().addFirst(new MapPropertySource(
+        "benchmark",
+        Collections.singletonMap("application.base_url", BASE_URL)
+    ));
+
+    DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+    beanFactory.addEmbeddedValueResolver(environment::resolvePlaceholders);
+    AutowiredAnnotationBeanPostProcessor autowiredAnnotationBeanPostProcessor =
+        new AutowiredAnnotationBeanPostProcessor();
+    autowiredAnnotationBeanPostProcessor.setBeanFactory(beanFactory);
+    beanFactory.addBeanPostProcessor(autowiredAnnotationBeanPostProcessor);
+
+    return Jackson2ObjectMapperBuilder.json()
+        .handlerInstantiator(new SpringHandlerInstantiator(beanFactory))
+        .dateFormat(new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'"))
+        .timeZone(TimeZone.getTimeZone("UTC"))
+        .propertyNamingStrategy(PropertyNamingStrategy.SNAKE_CASE)
+        .build();
+  }
+
+  /**
+   * Returns a {@link JokeRepository} backed by the fixture.
+   */
+  public JokeRepository jokeRepository() {
+    return (JokeRepository) Proxy.newProxyInstance(
+        JokeRepository.class.getClassLoader(),
+        new Class<?>[]{JokeRepository.class},
+        (proxy, method, args) -> {
+          switch (method.getName()) {
+            case "findAll":
+              if (args == null || args.length == 0) {
+                return new ArrayList<>(jokes);
+              }
+              break;
+            case "findAllCategories":
+              return categories();
+            case "findAllIdsAndCategories":
+              return idsAndCategories();
+            case "findById":
+              return Optional.ofNullable(jokesById.get((String) args[0]));
+            case "getRandomJoke":
+              return randomJoke(jokes);
+            case "getRandomJokeByCategory":
+              // The query matches the first category of a joke only.
+              return randomJoke(byFirstCategory((String) args[0]));
+            case "getRandomJokeByCategories":
+              return randomJoke(byAnyCategory(((String) args[0]).split(",")));
+            case "searchByQuery":
+              String query = ((String) args[0]).toLowerCase(Locale.ROOT);
+              return jokes.stream()
+                  .filter(joke -> joke.getValue().toLowerCase(Locale.ROOT).contains(query))
+                  .sorted(Comparator.comparing(Joke::getId))
+                  .toArray(Joke[]::new);
+            case "hashCode":
+              return System.identityHashCode(proxy);
+            case "equals":
+              return proxy == args[0];
+            case "toString":
+              return "JokeFixture.jokeRepository";
+            default:
+              break;
+          }
+          throw new UnsupportedOperationException(
+              "JokeRepository#" + method.getName() + " is not part of the fixture."
+          );
+        }
+    );
+  }
+
+  /**
+   * Assigns a value to a field that is normally injected by Spring.
+   */
+  public static void inject(Object target, String fieldName, Object value) {
+    Class<?> type = target.getClass();
+    while (type != null) {
+      try {
+        Field field = type.getDeclaredField(fieldName);
+        field.setAccessible(true);
+        field.set(target, value);
+        return;
+      } catch (NoSuchFieldException exception) {
+        type = type.getSuperclass();
+      } catch (IllegalAccessException exception) {
+        throw new IllegalStateException(exception);
+      }
+    }
+    throw new IllegalArgumentException(
+        "No field \"" + fieldName + "\" in " + target.getClass().getName()
+    );
+  }
+
+  private List<Joke> byFirstCategory(String category) {
+    return jokes.stream()
+        .filter(joke -> category.equals(firstCategory(joke)))
+        .collect(Collectors.toList());
+  }
+
+  private List<Joke> byAnyCategory(String... categories) {
+    List<String> filter = Arrays.asList(categories);
+    return jokes.stream()
+        .filter(joke -> joke.getCategories() != null
+            && Arrays.stream(joke.getCategories()).anyMatch(filter::contains))
+        .collect(Collectors.toList());
+  }
+
+  private static Joke randomJoke(List<Joke> jokes) {
+    return jokes.isEmpty() ? null : jokes.get(ThreadLocalRandom.current().nextInt(jokes.size()));
+  }
+
+  private static String firstCategory(Joke joke) {
+    String[] categories = joke.getCategories();
+    return categories != null && categories.length > 0 ? categories[0] : null;
+  }
+}
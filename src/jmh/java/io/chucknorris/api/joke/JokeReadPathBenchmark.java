@@ -0,0 +1,180 @@
+package io.chucknorris.api.joke;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+
+/**
+ * Throughput of the joke read path: random selection, category validation, search and JSON
+ * serialization. Run with {@code ./gradlew jmh -PjmhInclude=JokeReadPathBenchmark}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class JokeReadPathBenchmark {
+
+  @Param({"1000", "20000"})
+  private int datasetSize;
+
+  private JokeFixture fixture;
+  private String[] categories;
+
+  private CategoryCatalog categoryCatalog;
+  private JokeCache jokeCache;
+  private JokeHttpMessageConverter jokeHttpMessageConverter;
+  private JokeJsonCache jokeJsonCache;
+  private JokeSearchIndex jokeSearchIndex;
+  private ObjectMapper objectMapper;
+  private PersonalizedJokeEngine personalizedJokeEngine;
+  private RandomJokeEngine randomJokeEngine;
+
+  private Joke joke;
+  private JokeSearchResult jokeSearchResult;
+
+  /**
+   * Builds all in-memory structures from the fixture.
+   */
+  @Setup
+  public void setUp() {
+    fixture = JokeFixture.load(datasetSize);
+    JokeRepository jokeRepository = fixture.jokeRepository();
+
+    categoryCatalog = new CategoryCatalog(jokeRepository);
+    categoryCatalog.refresh();
+    categories = categoryCatalog.getCategories();
+
+    jokeCache = new JokeCache(
+        jokeRepository, new SimpleMeterRegistry(), 10000, 3600000, 1000, 60000
+    );
+
+    jokeSearchIndex = new JokeSearchIndex(jokeRepository);
+    jokeSearchIndex.rebuild(fixture.getJokes());
+
+    personalizedJokeEngine = new PersonalizedJokeEngine(jokeRepository);
+    personalizedJokeEngine.rebuild(fixture.getJokes());
+
+    randomJokeEngine = new RandomJokeEngine(jokeRepository);
+    randomJokeEngine.rebuild(fixture.idsAndCategories());
+
+    objectMapper = JokeFixture.objectMapper();
+    jokeJsonCache = new JokeJsonCache(objectMapper);
+    jokeHttpMessageConverter = new JokeHttpMessageConverter(jokeJsonCache);
+
+    joke = fixture.jokeAt(0);
+    jokeSearchResult = new JokeSearchResult(jokeSearchIndex.search("kleenex"));
+  }
+
+  @Benchmark
+  public Joke randomJoke() {
+    return randomJokeEngine.randomJoke();
+  }
+
+  @Benchmark
+  public Joke randomJokeByCategory() {
+    return randomJokeEngine.randomJokeByCategory("dev");
+  }
+
+  @Benchmark
+  public Joke randomJokeByCategories() {
+    return randomJokeEngine.randomJokeByCategories(categories);
+  }
+
+  @Benchmark
+  public Joke randomPersonalizedJoke() {
+    return personalizedJokeEngine.randomPersonalizedJoke("Bob");
+  }
+
+  @Benchmark
+  public boolean categoryValidation() {
+    return categoryCatalog.contains("travel") && !categoryCatalog.contains("does-not-exist");
+  }
+
+  /**
+   * Looks up ids drawn from the whole dataset, so the larger datasets exceed the cache and
+   * include misses and evictions.
+   */
+  @Benchmark
+  public Joke findJokeById() {
+    return jokeCache.findById(
+        fixture.jokeAt(ThreadLocalRandom.current().nextInt(datasetSize)).getId()
+    ).orElse(null);
+  }
+
+  /**
+   * Looks up ids drawn from the first hundred jokes only, i.e. the cache-hit path.
+   */
+  @Benchmark
+  public Joke findHotJokeById() {
+    return jokeCache.findById(
+        fixture.jokeAt(ThreadLocalRandom.current().nextInt(100)).getId()
+    ).orElse(null);
+  }
+
+  @Benchmark
+  public Joke[] searchBroad() {
+    return jokeSearchIndex.search("chuck");
+  }
+
+  @Benchmark
+  public Joke[] searchNarrow() {
+    return jokeSearchIndex.search("kleenex");
+  }
+
+  @Benchmark
+  public JokeSearchResult searchPage() {
+    return jokeSearchIndex.search("chuck norris", null, 25);
+  }
+
+  @Benchmark
+  public byte[] serializeJokeWithJackson() throws IOException {
+    return objectMapper.writeValueAsBytes(joke);
+  }
+
+  @Benchmark
+  public byte[] serializeJokeFromCache() throws IOException {
+    return jokeJsonCache.toJson(joke);
+  }
+
+  @Benchmark
+  public byte[] serializeSearchResultWithJackson() throws IOException {
+    return objectMapper.writeValueAsBytes(jokeSearchResult);
+  }
+
+  @Benchmark
+  public int serializeSearchResultFromCache() throws IOException {
+    BufferedOutputMessage outputMessage = new BufferedOutputMessage();
+    jokeHttpMessageConverter.write(jokeSearchResult, MediaType.APPLICATION_JSON, outputMessage);
+    return outputMessage.body.size();
+  }
+
+  private static class BufferedOutputMessage implements HttpOutputMessage {
+
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream(4096);
+    private final HttpHeaders headers = new HttpHeaders();
+
+    @Override
+    public OutputStream getBody() {
+      return body;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+      return headers;
+    }
+  }
+}
@@ -0,0 +1,127 @@
+package io.chucknorris.api.slack;
+
+import io.chucknorris.api.joke.CategoryCatalog;
+import io.chucknorris.api.joke.JokeCache;
+import io.chucknorris.api.joke.JokeCorpus;
+import io.chucknorris.api.joke.JokeFixture;
+import io.chucknorris.api.joke.JokeRepository;
+import io.chucknorris.api.joke.JokeSearchIndex;
+import io.chucknorris.api.joke.JokeService;
+import io.chucknorris.api.joke.PersonalizedJokeEngine;
+import io.chucknorris.api.joke.RandomJokeEngine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Throughput of Slack slash command parsing and response composition, wired against the same
+ * in-memory engines as production. Run with
+ * {@code ./gradlew jmh -PjmhInclude=SlackCommandBenchmark}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class SlackCommandBenchmark {
+
+  @Param({"1000", "20000"})
+  private int datasetSize;
+
+  private SlackController slackController;
+
+  private Request randomJokeRequest;
+  private Request categoryRequest;
+  private Request jokeByIdRequest;
+  private Request personalizedJokeRequest;
+  private Request searchRequest;
+  private Request listCategoriesRequest;
+
+  /**
+   * Wires a SlackController against the fixture.
+   */
+  @Setup
+  public void setUp() {
+    JokeFixture fixture = JokeFixture.load(datasetSize);
+    JokeRepository jokeRepository = fixture.jokeRepository();
+
+    CategoryCatalog categoryCatalog = new CategoryCatalog(jokeRepository);
+    categoryCatalog.refresh();
+
+    JokeSearchIndex jokeSearchIndex = new JokeSearchIndex(jokeRepository);
+    PersonalizedJokeEngine personalizedJokeEngine = new PersonalizedJokeEngine(jokeRepository);
+    new JokeCorpus(jokeRepository, jokeSearchIndex, personalizedJokeEngine).refresh();
+
+    RandomJokeEngine randomJokeEngine = new RandomJokeEngine(jokeRepository);
+    randomJokeEngine.refresh();
+
+    SlackService slackService = new SlackService();
+    slackService.setWhitelistedCategories("career,dev,fashion,food,money,movie,travel");
+    JokeFixture.inject(slackService, "categoryCatalog", categoryCatalog);
+
+    SlackCommandExecutor slackCommandExecutor = new SlackCommandExecutor(
+        new SimpleMeterRegistry(), new RestTemplate(), 2000, 4, 100, 3, 200
+    );
+
+    slackController = new SlackController(
+        categoryCatalog,
+        null,
+        new JokeCache(jokeRepository, new SimpleMeterRegistry(), 10000, 3600000, 1000, 60000),
+        new JokeService(jokeSearchIndex, personalizedJokeEngine, randomJokeEngine),
+        slackCommandExecutor,
+        new SlackMetrics(new SimpleMeterRegistry(), new SlackTeamTagFilter(50)),
+        slackService
+    );
+    JokeFixture.inject(slackController, "baseUrl", JokeFixture.BASE_URL);
+
+    randomJokeRequest = request("");
+    categoryRequest = request("dev");
+    jokeByIdRequest = request(": " + fixture.jokeAt(0).getId());
+    personalizedJokeRequest = request("@ Bob");
+    searchRequest = request("? chuck --page 2");
+    listCategoriesRequest = request("-cat");
+  }
+
+  @Benchmark
+  public SlackCommandResponse randomJoke() {
+    return slackController.command(randomJokeRequest);
+  }
+
+  @Benchmark
+  public SlackCommandResponse randomJokeByCategory() {
+    return slackController.command(categoryRequest);
+  }
+
+  @Benchmark
+  public SlackCommandResponse jokeById() {
+    return slackController.command(jokeByIdRequest);
+  }
+
+  @Benchmark
+  public SlackCommandResponse randomPersonalizedJoke() {
+    return slackController.command(personalizedJokeRequest);
+  }
+
+  @Benchmark
+  public SlackCommandResponse search() {
+    return slackController.command(searchRequest);
+  }
+
+  @Benchmark
+  public SlackCommandResponse listCategories() {
+    return slackController.command(listCategoriesRequest);
+  }
+
+  private static Request request(String text) {
+    Request request = new Request();
+    request.setTeamDomain("ACME");
+    request.setText(text);
+    return request;
+  }
+}
@@ -0,0 +1,31 @@
+package io.chucknorris.api.configuration;
+
+import io.chucknorris.api.joke.JokeHttpMessageConverter;
+import io.chucknorris.api.joke.JokeJsonCache;
+import java.util.List;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@ConditionalOnProperty(
+    name = "application.joke_json_cache.enabled",
+    havingValue = "true",
+    matchIfMissing = true
+)
+@Configuration
+public class MessageConverterConfig implements WebMvcConfigurer {
+
+  private JokeJsonCache jokeJsonCache;
+
+  public MessageConverterConfig(JokeJsonCache jokeJsonCache) {
+    this.jokeJsonCache = jokeJsonCache;
+  }
+
+  /**
+   * Registers the {@link JokeHttpMessageConverter} in front of the Jackson converter.
+   */
+  public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+    converters.add(0, new JokeHttpMessageConverter(jokeJsonCache));
+  }
+}
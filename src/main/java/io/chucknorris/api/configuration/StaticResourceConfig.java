@@ -0,0 +1,48 @@
+package io.chucknorris.api.configuration;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.web.ResourceProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+
+/**
+ * Static resources requested by their content-hashed URL, e.g. "/css/styles-{md5}.css", are
+ * cached publicly for "application.static_resources.versioned_cache_max_age" seconds, since a
+ * changed file gets a new URL. Every other static path, such as "/robots.txt" or an image linked
+ * without its hash, keeps the shorter "spring.resources.cache.cachecontrol.max-age".
+ */
+@Configuration
+public class StaticResourceConfig implements WebMvcConfigurer {
+
+  private static final String VERSIONED_PATH_PATTERN = "/**/{filename:.+-"
+      + String.join("", Collections.nCopies(32, "[0-9a-f]"))
+      + "\\.[a-z0-9]+}";
+
+  private ResourceProperties resourceProperties;
+
+  @Value("${application.static_resources.versioned_cache_max_age:31536000}")
+  private long versionedCacheMaxAge;
+
+  public StaticResourceConfig(ResourceProperties resourceProperties) {
+    this.resourceProperties = resourceProperties;
+  }
+
+  /**
+   * Registers the handler for content-hashed static resource URLs, which takes precedence over
+   * the auto-configured "/**" handler.
+   */
+  public void addResourceHandlers(ResourceHandlerRegistry registry) {
+    registry.addResourceHandler(VERSIONED_PATH_PATTERN)
+        .addResourceLocations(resourceProperties.getStaticLocations())
+        .setCacheControl(CacheControl.maxAge(versionedCacheMaxAge, TimeUnit.SECONDS).cachePublic())
+        .resourceChain(true)
+        .addResolver(new EncodedResourceResolver())
+        .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"));
+  }
+}
@@ -0,0 +1,62 @@
+package io.chucknorris.api.feed;
+
+import com.google.common.util.concurrent.AtomicDouble;
+import io.chucknorris.lib.mailchimp.MailingListStatistic;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Gauges for the Daily Chuck mailing list statistics.
+ *
+ * <p>Each gauge is registered once and backed by a long-lived value that is updated in place, so
+ * Micrometer's weak reference to it stays valid. Gauges report NaN until the first update.
+ */
+@Component
+public class DailyChuckMetrics {
+
+  private static final String METRIC_PREFIX = "application_daily_chuck_";
+
+  private final AtomicDouble memberCount;
+  private final AtomicDouble unsubscribeCount;
+  private final AtomicDouble cleanedCount;
+  private final AtomicDouble campaignCount;
+  private final AtomicDouble avgSubRate;
+  private final AtomicDouble avgUnsubRate;
+  private final AtomicDouble clickRate;
+
+  /**
+   * Returns a new DailyChuckMetrics {@link DailyChuckMetrics} instance.
+   */
+  public DailyChuckMetrics(MeterRegistry meterRegistry) {
+    this.memberCount = register(meterRegistry, "member_count");
+    this.unsubscribeCount = register(meterRegistry, "unsubscribe_count");
+    this.cleanedCount = register(meterRegistry, "cleaned_count");
+    this.campaignCount = register(meterRegistry, "campaign_count");
+    this.avgSubRate = register(meterRegistry, "avg_sub_rate");
+    this.avgUnsubRate = register(meterRegistry, "avg_unsub_rate");
+    this.clickRate = register(meterRegistry, "click_rate");
+  }
+
+  /**
+   * Updates the gauges from the given mailing list statistic {@link MailingListStatistic}.
+   *
+   * @param mailingListStatistic The statistic as fetched from Mailchimp
+   */
+  public void update(MailingListStatistic mailingListStatistic) {
+    set(memberCount, mailingListStatistic.getMemberCount());
+    set(unsubscribeCount, mailingListStatistic.getUnsubscribeCount());
+    set(cleanedCount, mailingListStatistic.getCleanedCount());
+    set(campaignCount, mailingListStatistic.getCampaignCount());
+    set(avgSubRate, mailingListStatistic.getAvgSubRate());
+    set(avgUnsubRate, mailingListStatistic.getAvgUnsubRate());
+    set(clickRate, mailingListStatistic.getClickRate());
+  }
+
+  private static AtomicDouble register(MeterRegistry meterRegistry, String name) {
+    return meterRegistry.gauge(METRIC_PREFIX + name, new AtomicDouble(Double.NaN));
+  }
+
+  private static void set(AtomicDouble gauge, Number value) {
+    gauge.set(value != null ? value.doubleValue() : Double.NaN);
+  }
+}
@@ -0,0 +1,127 @@
+package io.chucknorris.api.feed;
+
+import io.chucknorris.lib.mailchimp.MailchimpService;
+import io.chucknorris.lib.mailchimp.MailingListStatistic;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Polls the statistics of the Daily Chuck mailing list from Mailchimp in the background.
+ *
+ * <p>The last successfully fetched {@link MailingListStatistic} is kept as a snapshot, so the feed
+ * endpoints never wait for Mailchimp. A failed poll keeps the previous snapshot. Each successful
+ * poll updates the {@link DailyChuckMetrics}; poll latency and the age of the snapshot are exposed
+ * on the {@link MeterRegistry}.
+ */
+@Component
+public class MailingListStatisticPoller {
+
+  private static final Logger logger = LoggerFactory.getLogger(MailingListStatisticPoller.class);
+
+  private final DailyChuckMetrics dailyChuckMetrics;
+  private final MailchimpService mailchimpService;
+  private final String listId;
+  private final LongSupplier clock;
+
+  private final Timer successTimer;
+  private final Timer failureTimer;
+
+  private final AtomicReference<MailingListStatistic> snapshot = new AtomicReference<>();
+  private final AtomicLong lastSuccessAt = new AtomicLong(-1);
+
+  /**
+   * Returns a new MailingListStatisticPoller {@link MailingListStatisticPoller} instance.
+   */
+  public MailingListStatisticPoller(
+      DailyChuckMetrics dailyChuckMetrics,
+      MailchimpService mailchimpService,
+      MeterRegistry meterRegistry,
+      @Value("${mailchimp.dailychuck.list_id}") String listId
+  ) {
+    this(dailyChuckMetrics, mailchimpService, meterRegistry, listId, System::currentTimeMillis);
+  }
+
+  MailingListStatisticPoller(
+      DailyChuckMetrics dailyChuckMetrics,
+      MailchimpService mailchimpService,
+      MeterRegistry meterRegistry,
+      String listId,
+      LongSupplier clock
+  ) {
+    this.dailyChuckMetrics = dailyChuckMetrics;
+    this.mailchimpService = mailchimpService;
+    this.listId = listId;
+    this.clock = clock;
+
+    this.successTimer = meterRegistry.timer(
+        "application_mailing_list_poll_latency", "result", "success"
+    );
+    this.failureTimer = meterRegistry.timer(
+        "application_mailing_list_poll_latency", "result", "failure"
+    );
+
+    meterRegistry.gauge(
+        "application_mailing_list_statistic_age_seconds",
+        this,
+        MailingListStatisticPoller::getSnapshotAgeSeconds
+    );
+  }
+
+  /**
+   * Returns the last successfully fetched statistic, or null if no poll has succeeded yet.
+   *
+   * @return mailingListStatistic
+   */
+  public MailingListStatistic getMailingListStatistic() {
+    return snapshot.get();
+  }
+
+  /**
+   * Fetches the mailing list statistic from Mailchimp and replaces the snapshot.
+   */
+  @Scheduled(fixedDelayString = "${mailchimp.dailychuck.refresh_interval:60000}")
+  public void refresh() {
+    long startedAt = System.nanoTime();
+
+    try {
+      MailingListStatistic mailingListStatistic = mailchimpService.fetchListStats(listId);
+      successTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+
+      if (mailingListStatistic != null) {
+        snapshot.set(mailingListStatistic);
+        lastSuccessAt.set(clock.getAsLong());
+        dailyChuckMetrics.update(mailingListStatistic);
+      }
+    } catch (RuntimeException exception) {
+      failureTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+
+      logger.error(
+          "[mailing_list_poll_failed] "
+              + "list_id: \"" + listId + "\" "
+              + "message: \"" + exception.getMessage() + "\"",
+          exception
+      );
+    }
+  }
+
+  /**
+   * Returns the seconds since the last successful poll, or NaN if no poll has succeeded yet.
+   */
+  double getSnapshotAgeSeconds() {
+    long successAt = lastSuccessAt.get();
+    if (successAt < 0) {
+      return Double.NaN;
+    }
+
+    return (clock.getAsLong() - successAt) / 1000.0;
+  }
+}
@@ -1,62 +1,116 @@
 package io.chucknorris.api.feed.dailychuck;
 
-import java.util.Calendar;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 
+/**
+ * The Daily Chuck archive.
+ *
+ * <p>Issues are kept in publication order and indexed by day and by joke id, so same-day and
+ * already-issued checks are constant time. The JSON representation is unchanged: an
+ * "issueNumber" and an "issues" array.
+ */
 @Data
 public class DailyChuck {
 
+  private static final long MILLIS_PER_DAY = 24 * 60 * 60 * 1000L;
+
+  private static final TimeZone TIME_ZONE = TimeZone.getDefault();
+
   private Long issueNumber;
-  private DailyChuckIssue[] issues;
+
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  private final List<DailyChuckIssue> issues = new ArrayList<>();
+
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  @ToString.Exclude
+  private final transient Map<Long, DailyChuckIssue> issuesByDay = new HashMap<>();
+
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  @ToString.Exclude
+  private final transient Map<String, DailyChuckIssue> issuesByJokeId = new HashMap<>();
 
   /**
-   * Adds a DailyChuckIssue {@link DailyChuckIssue} to the DailyChuck instance and increases the
-   * issue number {@link DailyChuck#issueNumber} by one.
+   * Returns a copy of all issues in publication order.
    */
-  public void addIssue(DailyChuckIssue dailyChuckIssue) {
-    DailyChuckIssue[] dailyChuckIssues = new DailyChuckIssue[issues.length + 1];
+  public DailyChuckIssue[] getIssues() {
+    return issues.toArray(new DailyChuckIssue[0]);
+  }
 
-    for (int i = 0; i < issues.length; i++) {
-      dailyChuckIssues[i] = issues[i];
-    }
+  /**
+   * Replaces all issues.
+   */
+  public void setIssues(DailyChuckIssue[] dailyChuckIssues) {
+    issues.clear();
+    issuesByDay.clear();
+    issuesByJokeId.clear();
 
-    dailyChuckIssues[issues.length] = dailyChuckIssue;
+    if (dailyChuckIssues != null) {
+      for (DailyChuckIssue dailyChuckIssue : dailyChuckIssues) {
+        append(dailyChuckIssue);
+      }
+    }
+  }
 
-    issues = dailyChuckIssues;
+  /**
+   * Adds a DailyChuckIssue {@link DailyChuckIssue} to the DailyChuck instance and increases the
+   * issue number {@link DailyChuck#issueNumber} by one.
+   */
+  public void addIssue(DailyChuckIssue dailyChuckIssue) {
+    append(dailyChuckIssue);
     issueNumber += 1;
   }
 
+  /**
+   * Checks if a joke has already been issued.
+   */
+  public boolean containsJokeId(String jokeId) {
+    return issuesByJokeId.containsKey(jokeId);
+  }
+
   /**
    * Finds an issue {@link DailyChuckIssue} by joke id.
    */
   public DailyChuckIssue findIssueByJokeId(String jokeId) {
-    for (DailyChuckIssue issue : issues) {
-      if (issue.getJokeId().equals(jokeId)) {
-        return issue;
-      }
-    }
-    return null;
+    return issuesByJokeId.get(jokeId);
   }
 
   /**
    * Finds an issue {@link DailyChuckIssue} by a given date.
    */
   public DailyChuckIssue findIssueByDate(Date date) {
-    Calendar cal1 = Calendar.getInstance();
-    cal1.setTime(date);
-
-    for (DailyChuckIssue issue : issues) {
-      Calendar cal2 = Calendar.getInstance();
-      cal2.setTime(issue.getDate());
+    return issuesByDay.get(epochDay(date));
+  }
 
-      boolean isSameDay = cal1.get(Calendar.DAY_OF_YEAR) == cal2.get(Calendar.DAY_OF_YEAR)
-          && cal1.get(Calendar.YEAR) == cal2.get(Calendar.YEAR);
+  private void append(DailyChuckIssue dailyChuckIssue) {
+    issues.add(dailyChuckIssue);
 
-      if (isSameDay) {
-        return issue;
-      }
+    // The first issue wins if the archive contains several issues for a day or a joke.
+    if (dailyChuckIssue.getDate() != null) {
+      issuesByDay.putIfAbsent(epochDay(dailyChuckIssue.getDate()), dailyChuckIssue);
+    }
+    if (dailyChuckIssue.getJokeId() != null) {
+      issuesByJokeId.putIfAbsent(dailyChuckIssue.getJokeId(), dailyChuckIssue);
     }
-    return null;
+  }
+
+  /**
+   * Returns the number of days since the epoch in the default time zone.
+   */
+  private static long epochDay(Date date) {
+    long millis = date.getTime();
+    return Math.floorDiv(millis + TIME_ZONE.getOffset(millis), MILLIS_PER_DAY);
   }
 }
@@ -0,0 +1,220 @@
+package io.chucknorris.api.feed.dailychuck;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.util.concurrent.AtomicDouble;
+import io.chucknorris.lib.DateUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.util.Date;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.support.CronSequenceGenerator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Publishes the Daily Chuck issue of the day on a schedule and keeps the feed pre-rendered.
+ *
+ * <p>At the time configured in "dailychuck.publish_cron" the issue of the day is composed and
+ * persisted, and the JSON and RSS bodies of the feed are rendered once. Feed requests are served
+ * from these bodies. If a request arrives for a day that has not been published yet, e.g. right
+ * after startup or after a failed run, the issue is published and rendered on that request
+ * instead. While one thread renders the feed of a new day, other requests keep getting the
+ * previous rendition. Each rendition carries the ETags of its bodies and the date of its newest
+ * issue, so unchanged feeds can be answered with "304 Not Modified". The last and next run are
+ * exposed on the {@link MeterRegistry} as epoch seconds.
+ */
+@Component
+public class DailyChuckPublisher {
+
+  private static final Logger logger = LoggerFactory.getLogger(DailyChuckPublisher.class);
+
+  private final DailyChuckService dailyChuckService;
+  private final DateUtil dateUtil;
+  private final ObjectMapper objectMapper;
+  private final CronSequenceGenerator cronSequenceGenerator;
+
+  private final AtomicDouble lastRun;
+  private final AtomicDouble nextRun;
+
+  private final ReentrantLock publishLock = new ReentrantLock();
+
+  private volatile Rendition rendition;
+
+  /**
+   * Returns a new DailyChuckPublisher {@link DailyChuckPublisher} instance.
+   */
+  public DailyChuckPublisher(
+      DailyChuckService dailyChuckService,
+      DateUtil dateUtil,
+      MeterRegistry meterRegistry,
+      ObjectMapper objectMapper,
+      @Value("${dailychuck.publish_cron:0 0 0 * * *}") String publishCron
+  ) {
+    this.dailyChuckService = dailyChuckService;
+    this.dateUtil = dateUtil;
+    this.objectMapper = objectMapper;
+    this.cronSequenceGenerator = new CronSequenceGenerator(publishCron);
+
+    this.lastRun = meterRegistry.gauge(
+        "application_daily_chuck_publisher_last_run_seconds",
+        new AtomicDouble(Double.NaN)
+    );
+    this.nextRun = meterRegistry.gauge(
+        "application_daily_chuck_publisher_next_run_seconds",
+        new AtomicDouble(toSeconds(cronSequenceGenerator.next(new Date())))
+    );
+  }
+
+  /**
+   * Publishes the issue of the day and renders the feed.
+   */
+  @Scheduled(cron = "${dailychuck.publish_cron:0 0 0 * * *}")
+  public void run() {
+    Date startedAt = new Date();
+
+    try {
+      Rendition published = publish(dateUtil.now());
+
+      logger.info(
+          "[daily_chuck_published] "
+              + "issue_number: \"" + published.getDailyChuck().getIssueNumber() + "\""
+      );
+    } catch (IOException | RuntimeException exception) {
+      logger.error("[daily_chuck_publish_failed] " + exception.getMessage(), exception);
+    } finally {
+      lastRun.set(toSeconds(startedAt));
+      nextRun.set(toSeconds(cronSequenceGenerator.next(startedAt)));
+    }
+  }
+
+  /**
+   * Returns the rendered feed including today's issue, publishing it first if necessary. If
+   * another thread is already publishing it, the previous rendition is returned instead.
+   *
+   * @return rendition
+   * @throws IOException Thrown if {@link DailyChuck} can't be read or persisted.
+   */
+  public Rendition getRendition() throws IOException {
+    Date now = dateUtil.now();
+
+    Rendition current = rendition;
+    if (current != null && current.includes(now)) {
+      return current;
+    }
+
+    if (current == null) {
+      return publish(now);
+    }
+
+    if (!publishLock.tryLock()) {
+      return current;
+    }
+    try {
+      return render(now);
+    } finally {
+      publishLock.unlock();
+    }
+  }
+
+  private Rendition publish(Date date) throws IOException {
+    publishLock.lock();
+    try {
+      return render(date);
+    } finally {
+      publishLock.unlock();
+    }
+  }
+
+  private Rendition render(Date date) throws IOException {
+    Rendition current = rendition;
+    if (current != null && current.includes(date)) {
+      return current;
+    }
+
+    DailyChuck dailyChuck = dailyChuckService.getOrPublishDailyChuck(date);
+    byte[] json = objectMapper.writeValueAsBytes(dailyChuck);
+    byte[] rss = dailyChuckService.toRss(dailyChuck).toByteArray();
+
+    rendition = new Rendition(dailyChuck, json, rss);
+
+    return rendition;
+  }
+
+  private static double toSeconds(Date date) {
+    return date.getTime() / 1000.0;
+  }
+
+  /**
+   * The Daily Chuck document and its rendered JSON and RSS bodies, with their validators.
+   */
+  public static final class Rendition {
+
+    private final DailyChuck dailyChuck;
+    private final byte[] json;
+    private final byte[] rss;
+    private final String jsonETag;
+    private final String rssETag;
+    private final long lastModified;
+
+    /**
+     * Returns a new Rendition {@link Rendition} instance.
+     */
+    public Rendition(DailyChuck dailyChuck, byte[] json, byte[] rss) {
+      this.dailyChuck = dailyChuck;
+      this.json = json;
+      this.rss = rss;
+      this.jsonETag = eTag(json);
+      this.rssETag = eTag(rss);
+      this.lastModified = lastModified(dailyChuck);
+    }
+
+    private static String eTag(byte[] body) {
+      return "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+    }
+
+    private static long lastModified(DailyChuck dailyChuck) {
+      long lastModified = -1;
+      for (DailyChuckIssue dailyChuckIssue : dailyChuck.getIssues()) {
+        if (dailyChuckIssue.getDate() != null) {
+          lastModified = Math.max(lastModified, dailyChuckIssue.getDate().getTime());
+        }
+      }
+      return lastModified;
+    }
+
+    private boolean includes(Date date) {
+      return dailyChuck.findIssueByDate(date) instanceof DailyChuckIssue;
+    }
+
+    public DailyChuck getDailyChuck() {
+      return dailyChuck;
+    }
+
+    public byte[] getJson() {
+      return json;
+    }
+
+    public byte[] getRss() {
+      return rss;
+    }
+
+    public String getJsonETag() {
+      return jsonETag;
+    }
+
+    public String getRssETag() {
+      return rssETag;
+    }
+
+    /**
+     * Returns the date of the newest issue in milliseconds since the epoch, or -1 if unknown.
+     */
+    public long getLastModified() {
+      return lastModified;
+    }
+  }
+}
@@ -3,11 +3,17 @@ package io.chucknorris.api.feed.dailychuck;
 import com.rometools.rome.feed.rss.Channel;
 import com.rometools.rome.feed.rss.Content;
 import com.rometools.rome.feed.rss.Item;
+import com.rometools.rome.io.FeedException;
+import com.rometools.rome.io.WireFeedOutput;
 import io.chucknorris.api.joke.Joke;
 import io.chucknorris.api.joke.JokeRepository;
 import io.chucknorris.lib.exception.EntityNotFoundException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import javax.servlet.http.HttpServletRequest;
@@ -19,14 +25,41 @@ public class DailyChuckRss extends AbstractRssFeedView {
   private String baseUrl;
   private DailyChuck dailyChuck;
   private JokeRepository jokeRepository;
+  private int itemCount;
 
   /**
-   * Instantiates a new DailyChuckRss {@link DailyChuckRss}.
+   * Instantiates a new DailyChuckRss {@link DailyChuckRss} with the latest {@code itemCount}
+   * issues as feed items.
    */
-  public DailyChuckRss(String baseUrl, DailyChuck dailyChuck, JokeRepository jokeRepository) {
+  public DailyChuckRss(
+      String baseUrl,
+      DailyChuck dailyChuck,
+      JokeRepository jokeRepository,
+      int itemCount
+  ) {
     this.baseUrl = baseUrl;
     this.dailyChuck = dailyChuck;
     this.jokeRepository = jokeRepository;
+    this.itemCount = Math.max(itemCount, 1);
+  }
+
+  /**
+   * Returns the feed rendered as UTF-8 encoded RSS XML, the same document the view writes to the
+   * response.
+   */
+  public byte[] toByteArray() {
+    Map<String, Object> model = Collections.emptyMap();
+
+    Channel channel = newFeed();
+    buildFeedMetadata(model, channel, null);
+    channel.setItems(buildFeedItems(model, null, null));
+    channel.setEncoding(StandardCharsets.UTF_8.name());
+
+    try {
+      return new WireFeedOutput().outputString(channel).getBytes(StandardCharsets.UTF_8);
+    } catch (FeedException exception) {
+      throw new IllegalStateException(exception);
+    }
   }
 
   @Override
@@ -44,25 +77,46 @@ public class DailyChuckRss extends AbstractRssFeedView {
   protected List<Item> buildFeedItems(Map<String, Object> model, HttpServletRequest request,
       HttpServletResponse response) {
     DailyChuckIssue[] dailyChuckIssues = dailyChuck.getIssues();
-    Arrays.sort(dailyChuck.getIssues(),
-        Comparator.comparing(DailyChuckIssue::getDate).reversed());
+    Arrays.sort(dailyChuckIssues, Comparator.comparing(DailyChuckIssue::getDate).reversed());
+
+    int count = Math.min(itemCount, dailyChuckIssues.length);
+    List<String> jokeIds = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      jokeIds.add(dailyChuckIssues[i].getJokeId());
+    }
+
+    Map<String, Joke> jokes = new HashMap<>();
+    for (Joke joke : jokeRepository.findAllById(jokeIds)) {
+      jokes.put(joke.getId(), joke);
+    }
 
     DailyChuckIssue currentIssue = dailyChuckIssues[0];
-    Joke joke = jokeRepository.findById(currentIssue.getJokeId()).orElseThrow(
-        () -> new EntityNotFoundException(
-            "Joke with id \"" + currentIssue.getJokeId() + "\" not found.")
-    );
+    if (!jokes.containsKey(currentIssue.getJokeId())) {
+      throw new EntityNotFoundException(
+          "Joke with id \"" + currentIssue.getJokeId() + "\" not found."
+      );
+    }
+
+    List<Item> entries = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      DailyChuckIssue issue = dailyChuckIssues[i];
+      Joke joke = jokes.get(issue.getJokeId());
+      if (joke == null) {
+        continue;
+      }
+
+      Item entry = new Item();
+      entry.setTitle(Long.toString(dailyChuck.getIssueNumber() - i));
+      entry.setLink("https://" + baseUrl + "/jokes/" + joke.getId());
+      entry.setPubDate(issue.getDate());
 
-    Long issueNumber = dailyChuck.getIssueNumber();
-    Item entry = new Item();
-    entry.setTitle(issueNumber.toString());
-    entry.setLink("https://" + baseUrl + "/jokes/" + joke.getId());
-    entry.setPubDate(currentIssue.getDate());
+      Content content = new Content();
+      content.setValue(joke.getValue());
+      entry.setContent(content);
 
-    Content content = new Content();
-    content.setValue(joke.getValue());
-    entry.setContent(content);
+      entries.add(entry);
+    }
 
-    return Arrays.asList(entry);
+    return entries;
   }
 }
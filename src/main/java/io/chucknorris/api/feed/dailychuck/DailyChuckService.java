@@ -1,119 +1,218 @@
 package io.chucknorris.api.feed.dailychuck;
 
-import com.amazonaws.services.s3.AmazonS3;
-import com.amazonaws.services.s3.model.GetObjectRequest;
-import com.amazonaws.services.s3.model.ObjectMetadata;
-import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.amazonaws.services.s3.model.AmazonS3Exception;
 import com.amazonaws.services.s3.model.PutObjectResult;
-import com.amazonaws.services.s3.model.S3Object;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import io.chucknorris.api.joke.Joke;
 import io.chucknorris.api.joke.JokeRepository;
-import java.io.ByteArrayInputStream;
+import io.chucknorris.api.joke.RandomJokeEngine;
+import io.chucknorris.lib.event.EventService;
+import io.chucknorris.lib.exception.EntityNotFoundException;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
+import java.io.InterruptedIOException;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.Date;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.MediaType;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
 @Service
 public class DailyChuckService {
 
-  private AmazonS3 amazonS3;
+  private static final Logger logger = LoggerFactory.getLogger(DailyChuckService.class);
+
+  private static final int MAX_PUBLISH_ATTEMPTS = 3;
+
+  private DailyChuckStore dailyChuckStore;
+  private EventService eventService;
   private JokeRepository jokeRepository;
+  private RandomJokeEngine randomJokeEngine;
 
-  @Value("${dailychuck.bucket_name}")
-  private String bucketName;
+  private final ConcurrentMap<LocalDate, CompletableFuture<DailyChuck>> publications =
+      new ConcurrentHashMap<>();
 
   @Value("${application.base_url}")
   private String baseUrl;
 
-  @Value("${dailychuck.key_name}")
-  private String keyName;
+  @Value("${dailychuck.rss.item_count:1}")
+  private int rssItemCount;
+
+  @Value("${dailychuck.publish.wait_timeout:10000}")
+  private long publishWaitTimeout = 10000;
 
   /**
    * Instantiates a new Daily chuck service.
    *
-   * @param amazonS3 the amazon s 3
+   * @param dailyChuckStore the daily chuck store
+   * @param eventService the event service
    * @param jokeRepository the joke repository
+   * @param randomJokeEngine the random joke engine
    */
-  public DailyChuckService(AmazonS3 amazonS3, JokeRepository jokeRepository) {
-    this.amazonS3 = amazonS3;
+  public DailyChuckService(
+      DailyChuckStore dailyChuckStore,
+      EventService eventService,
+      JokeRepository jokeRepository,
+      RandomJokeEngine randomJokeEngine
+  ) {
+    this.dailyChuckStore = dailyChuckStore;
+    this.eventService = eventService;
     this.jokeRepository = jokeRepository;
+    this.randomJokeEngine = randomJokeEngine;
   }
 
   /**
-   * Composes a daily chuck issue {@link DailyChuck}.
+   * Composes a daily chuck issue {@link DailyChuckIssue} with a joke that hasn't been issued yet.
    *
-   * @param excludedIssues Array of issues to be excluded
+   * @param dailyChuck The daily chuck whose issues are to be excluded
    * @return dailyChuckIssue
+   * @throws EntityNotFoundException Thrown if every joke has already been issued.
    */
-  public DailyChuckIssue composeDailyChuckIssue(DailyChuckIssue[] excludedIssues) {
-    Joke joke = jokeRepository.getRandomJoke();
-
-    Boolean isIncluded = false;
-    for (DailyChuckIssue dailyChuckIssue : excludedIssues) {
-      if (dailyChuckIssue.getJokeId().equals(joke.getId())) {
-        isIncluded = true;
-        break;
-      }
+  public DailyChuckIssue composeDailyChuckIssue(DailyChuck dailyChuck) {
+    String jokeId = randomJokeEngine.randomJokeIdExcluding(dailyChuck::containsJokeId);
+    if (jokeId == null) {
+      throw new EntityNotFoundException("Every joke has already been issued.");
     }
 
-    if (!isIncluded) {
-      DailyChuckIssue dailyChuckIssue = new DailyChuckIssue();
-      dailyChuckIssue.setDate(new Date());
-      dailyChuckIssue.setJokeId(joke.getId());
+    DailyChuckIssue dailyChuckIssue = new DailyChuckIssue();
+    dailyChuckIssue.setDate(new Date());
+    dailyChuckIssue.setJokeId(jokeId);
 
-      return dailyChuckIssue;
-    } else {
-      return composeDailyChuckIssue(excludedIssues);
-    }
+    return dailyChuckIssue;
   }
 
   /**
-   * Gets the current daily chuck issue {@link DailyChuck}.
+   * Gets the current daily chuck issue {@link DailyChuck} from the {@link DailyChuckStore}.
    *
    * @return dailyChuck
    * @throws IOException Thrown by {@link ObjectMapper#readValue}
    */
   public DailyChuck getDailyChuck() throws IOException {
-    GetObjectRequest getObjectRequest = new GetObjectRequest(bucketName, keyName);
-    S3Object object = amazonS3.getObject(getObjectRequest);
-
-    ObjectMapper mapper = new ObjectMapper();
-    DailyChuck dailyChuck = mapper.readValue(object.getObjectContent(), DailyChuck.class);
-
-    return dailyChuck;
+    return dailyChuckStore.get();
   }
 
   /**
    * Persists daily chuck {@link DailyChuck} and returns the S3 result {@link PutObjectResult}.
    *
    * @return putObjectResult
-   * @throws IOException Thrown by {@link ObjectMapper#writeValueAsString}
+   * @throws IOException Thrown by {@link ObjectMapper#writeValueAsBytes}
    */
   public PutObjectResult persist(DailyChuck dailyChuck) throws IOException {
-    ObjectMapper mapper = new ObjectMapper();
+    return dailyChuckStore.put(dailyChuck);
+  }
+
+  /**
+   * Returns the current daily chuck {@link DailyChuck} including an issue for the given date,
+   * composing, persisting and publishing that issue first if it doesn't exist yet.
+   *
+   * <p>Concurrent callers for the same day wait for a single leader instead of composing issues
+   * of their own. The leader only writes the document if it hasn't changed in S3 since it was
+   * read, so only one instance publishes the day's issue. Callers that have waited longer than
+   * "dailychuck.publish.wait_timeout" milliseconds for the leader get the stored document as is.
+   *
+   * @param date The date of the issue
+   * @return dailyChuck
+   * @throws IOException Thrown if {@link DailyChuck} can't be read or persisted.
+   */
+  public DailyChuck getOrPublishDailyChuck(Date date) throws IOException {
+    DailyChuck dailyChuck = dailyChuckStore.get();
+    if (dailyChuck.findIssueByDate(date) instanceof DailyChuckIssue) {
+      return dailyChuck;
+    }
+
+    LocalDate day = date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+    CompletableFuture<DailyChuck> publication = new CompletableFuture<>();
+    CompletableFuture<DailyChuck> leader = publications.putIfAbsent(day, publication);
+    if (leader != null) {
+      await(leader, publishWaitTimeout);
+      return dailyChuckStore.get();
+    }
+
+    try {
+      dailyChuck = publish(date);
+      publication.complete(dailyChuck);
+      return dailyChuck;
+    } catch (IOException | RuntimeException exception) {
+      publication.completeExceptionally(exception);
+      throw exception;
+    } finally {
+      publications.remove(day, publication);
+    }
+  }
+
+  private DailyChuck publish(Date date) throws IOException {
+    for (int attempt = 1; ; attempt++) {
+      DailyChuckStore.Revision revision = dailyChuckStore.getRevision();
+      DailyChuck dailyChuck = revision.getDailyChuck();
+      if (dailyChuck.findIssueByDate(date) instanceof DailyChuckIssue) {
+        return dailyChuck;
+      }
+
+      DailyChuckIssue dailyChuckIssue = composeDailyChuckIssue(dailyChuck);
+      dailyChuckIssue.setDate(date);
+      dailyChuck.addIssue(dailyChuckIssue);
+
+      try {
+        dailyChuckStore.put(dailyChuck, revision.getETag());
+      } catch (AmazonS3Exception exception) {
+        if (!isConflict(exception) || attempt >= MAX_PUBLISH_ATTEMPTS) {
+          throw exception;
+        }
+
+        logger.info(
+            "[daily_chuck_publish_conflict] "
+                + "etag: \"" + revision.getETag() + "\" "
+                + "attempt: \"" + attempt + "\""
+        );
+
+        dailyChuckStore.revalidate();
+        continue;
+      }
 
-    String fileContentString = mapper.writeValueAsString(dailyChuck);
-    byte[] fileContentBytes = fileContentString.getBytes(StandardCharsets.UTF_8);
+      eventService.publishEvent(new DailyChuckPublishedEvent(dailyChuckIssue));
 
-    ObjectMetadata metadata = new ObjectMetadata();
-    metadata.setContentType(MediaType.APPLICATION_JSON_VALUE);
-    metadata.setContentLength(fileContentBytes.length);
+      return dailyChuck;
+    }
+  }
 
-    PutObjectRequest request = new PutObjectRequest(
-        bucketName,
-        keyName,
-        new ByteArrayInputStream(fileContentBytes),
-        metadata
-    );
+  private static boolean isConflict(AmazonS3Exception exception) {
+    return exception.getStatusCode() == HttpStatus.PRECONDITION_FAILED.value()
+        || exception.getStatusCode() == HttpStatus.CONFLICT.value();
+  }
 
-    return amazonS3.putObject(request);
+  private static void await(CompletableFuture<DailyChuck> publication, long timeout)
+      throws IOException {
+    try {
+      publication.get(timeout, TimeUnit.MILLISECONDS);
+    } catch (TimeoutException exception) {
+      logger.warn("[daily_chuck_publish_wait_timeout] timeout: \"" + timeout + "\"");
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for the Daily Chuck issue.");
+    } catch (ExecutionException exception) {
+      Throwable cause = exception.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      }
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new IOException(cause);
+    }
   }
 
+  /**
+   * Returns the RSS view {@link DailyChuckRss} of daily chuck {@link DailyChuck} with the latest
+   * issues configured in "dailychuck.rss.item_count".
+   */
   public DailyChuckRss toRss(DailyChuck dailyChuck) {
-    return new DailyChuckRss(baseUrl, dailyChuck, jokeRepository);
+    return new DailyChuckRss(baseUrl, dailyChuck, jokeRepository, rssItemCount);
   }
 }
@@ -0,0 +1,209 @@
+package io.chucknorris.api.feed.dailychuck;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AmazonS3Exception;
+import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.amazonaws.services.s3.model.PutObjectResult;
+import com.amazonaws.services.s3.model.S3Object;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Collections;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the parsed Daily Chuck document in memory, so the feed endpoints don't fetch it from S3
+ * on every request.
+ *
+ * <p>The document is loaded on first access and revalidated in the background with a conditional
+ * GET on its ETag, so an unchanged document is neither transferred nor parsed again. Writes go to
+ * S3 first and replace the cached copy once S3 has accepted them, optionally only if the object
+ * in S3 still has the ETag the caller read. Callers always get their own copy of the document, so
+ * mutating it doesn't affect the cache.
+ */
+@Component
+public class DailyChuckStore {
+
+  private static final Logger logger = LoggerFactory.getLogger(DailyChuckStore.class);
+
+  private static final ObjectMapper objectMapper = new ObjectMapper();
+
+  private AmazonS3 amazonS3;
+
+  @Value("${dailychuck.bucket_name}")
+  private String bucketName;
+
+  @Value("${dailychuck.key_name}")
+  private String keyName;
+
+  private volatile Entry entry;
+
+  public DailyChuckStore(AmazonS3 amazonS3) {
+    this.amazonS3 = amazonS3;
+  }
+
+  /**
+   * Returns a copy of the current Daily Chuck {@link DailyChuck}, loading it from S3 first if
+   * necessary.
+   *
+   * @return dailyChuck
+   * @throws IOException Thrown by {@link ObjectMapper#readValue}
+   */
+  public DailyChuck get() throws IOException {
+    return load().getDailyChuck();
+  }
+
+  /**
+   * Returns a copy of the current Daily Chuck {@link DailyChuck} together with the S3 ETag it was
+   * read with, loading it from S3 first if necessary.
+   *
+   * @return revision
+   * @throws IOException Thrown by {@link ObjectMapper#readValue}
+   */
+  public Revision getRevision() throws IOException {
+    return load();
+  }
+
+  private Revision load() throws IOException {
+    Entry current = entry;
+    if (current == null) {
+      synchronized (this) {
+        if (entry == null) {
+          revalidate();
+        }
+        current = entry;
+      }
+    }
+
+    return new Revision(copy(current.dailyChuck), current.eTag);
+  }
+
+  /**
+   * Reloads the document from S3 unless its ETag is unchanged.
+   *
+   * @throws IOException Thrown by {@link ObjectMapper#readValue}
+   */
+  @Scheduled(fixedDelayString = "${dailychuck.refresh_interval:60000}")
+  public synchronized void revalidate() throws IOException {
+    Entry current = entry;
+
+    GetObjectRequest getObjectRequest = new GetObjectRequest(bucketName, keyName);
+    if (current != null && current.eTag != null) {
+      getObjectRequest.setNonmatchingETagConstraints(Collections.singletonList(current.eTag));
+    }
+
+    // Returns null if the ETag constraint isn't met, i.e. the document hasn't changed.
+    S3Object object = amazonS3.getObject(getObjectRequest);
+    if (object == null) {
+      return;
+    }
+
+    try (S3Object closeable = object) {
+      DailyChuck dailyChuck = objectMapper.readValue(
+          closeable.getObjectContent(),
+          DailyChuck.class
+      );
+      entry = new Entry(dailyChuck, closeable.getObjectMetadata().getETag());
+
+      logger.info(
+          "[daily_chuck_loaded] "
+              + "etag: \"" + entry.eTag + "\" "
+              + "issue_number: \"" + dailyChuck.getIssueNumber() + "\""
+      );
+    }
+  }
+
+  /**
+   * Persists daily chuck {@link DailyChuck} to S3, replaces the cached document and returns the
+   * S3 result {@link PutObjectResult}.
+   *
+   * @return putObjectResult
+   * @throws IOException Thrown by {@link ObjectMapper#writeValueAsBytes}
+   */
+  public PutObjectResult put(DailyChuck dailyChuck) throws IOException {
+    return put(dailyChuck, null);
+  }
+
+  /**
+   * Persists daily chuck {@link DailyChuck} to S3 if the object there still has the given ETag,
+   * replaces the cached document and returns the S3 result {@link PutObjectResult}. If the object
+   * has changed in the meantime, S3 rejects the write with an {@link AmazonS3Exception} and status
+   * 412 or 409.
+   *
+   * @param expectedETag The ETag the document was read with, or null to write unconditionally
+   * @return putObjectResult
+   * @throws IOException Thrown by {@link ObjectMapper#writeValueAsBytes}
+   */
+  public synchronized PutObjectResult put(DailyChuck dailyChuck, String expectedETag)
+      throws IOException {
+    byte[] fileContentBytes = objectMapper.writeValueAsBytes(dailyChuck);
+
+    ObjectMetadata metadata = new ObjectMetadata();
+    metadata.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    metadata.setContentLength(fileContentBytes.length);
+
+    PutObjectRequest request = new PutObjectRequest(
+        bucketName,
+        keyName,
+        new ByteArrayInputStream(fileContentBytes),
+        metadata
+    );
+    if (expectedETag != null) {
+      request.putCustomRequestHeader(HttpHeaders.IF_MATCH, expectedETag);
+    }
+
+    PutObjectResult putObjectResult = amazonS3.putObject(request);
+    entry = new Entry(copy(dailyChuck), putObjectResult.getETag());
+
+    return putObjectResult;
+  }
+
+  private static DailyChuck copy(DailyChuck dailyChuck) {
+    DailyChuck copy = new DailyChuck();
+    copy.setIssueNumber(dailyChuck.getIssueNumber());
+    copy.setIssues(dailyChuck.getIssues());
+
+    return copy;
+  }
+
+  /**
+   * A copy of the Daily Chuck document and the S3 ETag it was read with.
+   */
+  public static final class Revision {
+
+    private final DailyChuck dailyChuck;
+    private final String eTag;
+
+    Revision(DailyChuck dailyChuck, String eTag) {
+      this.dailyChuck = dailyChuck;
+      this.eTag = eTag;
+    }
+
+    public DailyChuck getDailyChuck() {
+      return dailyChuck;
+    }
+
+    public String getETag() {
+      return eTag;
+    }
+  }
+
+  private static final class Entry {
+
+    private final DailyChuck dailyChuck;
+    private final String eTag;
+
+    private Entry(DailyChuck dailyChuck, String eTag) {
+      this.dailyChuck = dailyChuck;
+      this.eTag = eTag;
+    }
+  }
+}
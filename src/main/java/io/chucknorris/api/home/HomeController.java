@@ -1,6 +1,6 @@
 package io.chucknorris.api.home;
 
-import io.chucknorris.api.joke.JokeRepository;
+import io.chucknorris.api.joke.RandomJokeEngine;
 import io.chucknorris.api.slack.SlackService;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
@@ -12,14 +12,14 @@ import org.springframework.web.servlet.ModelAndView;
 @Controller
 public class HomeController {
 
-  private JokeRepository jokeRepository;
+  private RandomJokeEngine randomJokeEngine;
   private SlackService slackService;
 
   /**
    * Instantiates a new HomeController {@link HomeController}.
    */
-  public HomeController(JokeRepository jokeRepository, SlackService slackService) {
-    this.jokeRepository = jokeRepository;
+  public HomeController(RandomJokeEngine randomJokeEngine, SlackService slackService) {
+    this.randomJokeEngine = randomJokeEngine;
     this.slackService = slackService;
   }
 
@@ -33,7 +33,7 @@ public class HomeController {
       produces = MediaType.TEXT_HTML_VALUE
   ) ModelAndView view() {
     ModelAndView modelAndView = new ModelAndView("home");
-    modelAndView.addObject("joke", jokeRepository.getRandomJoke());
+    modelAndView.addObject("joke", randomJokeEngine.randomJoke());
     modelAndView.addObject("slack_authorize_url", slackService.composeAuthorizeUri());
 
     return modelAndView;
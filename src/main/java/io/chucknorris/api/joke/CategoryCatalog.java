@@ -0,0 +1,149 @@
+package io.chucknorris.api.joke;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Holds the joke categories as an immutable, versioned snapshot, so that input validation and
+ * the category endpoints don't run {@link JokeRepository#findAllCategories()} on every request.
+ * The snapshot is refreshed in the background; its version is only bumped if the categories have
+ * actually changed.
+ */
+@Component
+public class CategoryCatalog {
+
+  private static final Logger logger = LoggerFactory.getLogger(CategoryCatalog.class);
+
+  private static final ObjectMapper objectMapper = new ObjectMapper();
+
+  private JokeRepository jokeRepository;
+
+  private volatile Snapshot snapshot;
+
+  public CategoryCatalog(JokeRepository jokeRepository) {
+    this.jokeRepository = jokeRepository;
+  }
+
+  /**
+   * Reloads the categories from the database.
+   */
+  @Scheduled(fixedDelayString = "${application.joke_category.refresh_interval:60000}")
+  public synchronized void refresh() {
+    String[] categories = jokeRepository.findAllCategories();
+
+    Snapshot current = snapshot;
+    if (current != null && Arrays.equals(current.categories, categories)) {
+      return;
+    }
+
+    snapshot = new Snapshot(current != null ? current.version + 1 : 1, categories);
+
+    logger.info(
+        "[category_catalog_refreshed] "
+            + "version: \"" + snapshot.version + "\" "
+            + "category_count: \"" + categories.length + "\""
+    );
+  }
+
+  /**
+   * Returns the current snapshot {@link Snapshot}, loading it first if necessary.
+   */
+  public Snapshot getSnapshot() {
+    Snapshot current = snapshot;
+    if (current == null) {
+      synchronized (this) {
+        if (snapshot == null) {
+          refresh();
+        }
+        current = snapshot;
+      }
+    }
+
+    return current;
+  }
+
+  /**
+   * Returns an array of all categories, ordered by name.
+   */
+  public String[] getCategories() {
+    return getSnapshot().getCategories();
+  }
+
+  /**
+   * Checks if a given category exists.
+   */
+  public boolean contains(final String category) {
+    return getSnapshot().categorySet.contains(category);
+  }
+
+  public static final class Snapshot {
+
+    private final long version;
+    private final String[] categories;
+    private final Set<String> categorySet;
+    private final String json;
+    private final String jsonETag;
+    private final String text;
+    private final String textETag;
+
+    Snapshot(long version, String[] categories) {
+      this.version = version;
+      this.categories = categories.clone();
+
+      this.categorySet = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(categories)));
+
+      try {
+        this.json = objectMapper.writeValueAsString(categories);
+      } catch (JsonProcessingException exception) {
+        throw new IllegalStateException(exception);
+      }
+
+      StringBuilder stringBuilder = new StringBuilder();
+      for (String category : categories) {
+        stringBuilder.append(category).append('\n');
+      }
+      this.text = stringBuilder.toString();
+
+      this.jsonETag = eTag(json);
+      this.textETag = eTag(text);
+    }
+
+    private static String eTag(String body) {
+      return "\"" + DigestUtils.md5DigestAsHex(body.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    public long getVersion() {
+      return version;
+    }
+
+    public String[] getCategories() {
+      return categories.clone();
+    }
+
+    public String getJson() {
+      return json;
+    }
+
+    public String getJsonETag() {
+      return jsonETag;
+    }
+
+    public String getText() {
+      return text;
+    }
+
+    public String getTextETag() {
+      return textETag;
+    }
+  }
+}
@@ -1,5 +1,6 @@
 package io.chucknorris.api.joke;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.vladmihalcea.hibernate.type.json.JsonBinaryType;
 import io.swagger.annotations.ApiModelProperty;
@@ -63,6 +64,10 @@ public class Joke implements Serializable {
   @Column(name = "joke_id", updatable = false, nullable = false)
   private String id;
 
+  @JsonIgnore
+  @Transient
+  private boolean personalized;
+
   @ApiModelProperty(
       example = "2019-06-02 08:47:39.408742",
       name = "updated_at",
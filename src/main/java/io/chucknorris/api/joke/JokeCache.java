@@ -0,0 +1,326 @@
+package io.chucknorris.api.joke;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded read-through cache in front of {@link JokeRepository#findById}.
+ *
+ * <p>Entries live in concurrent maps, so hits don't take a lock. Concurrent misses for the same
+ * id wait for a single database lookup. Entries are evicted once they are older than their time
+ * to live, or once the cache grows beyond its maximum size, in which case the least recently used
+ * of a small sample of entries, taken from a random region of the map, goes first. Unknown ids are
+ * cached as well, with a shorter time to live and in a separate, smaller map, so repeated lookups
+ * of a dead permalink don't reach the database and scanning random ids can't evict cached jokes.
+ * Hits, misses, lookups that waited for another thread's load ("coalesced") and evictions are
+ * counted on the {@link MeterRegistry}.
+ */
+@Component
+public class JokeCache {
+
+  private static final int EVICTION_SAMPLE_SIZE = 8;
+
+  private final JokeRepository jokeRepository;
+  private final int maximumSize;
+  private final long expireAfterWrite;
+  private final int negativeMaximumSize;
+  private final long negativeExpireAfterWrite;
+  private final LongSupplier clock;
+
+  private final Counter hitCounter;
+  private final Counter missCounter;
+  private final Counter coalescedCounter;
+  private final Counter sizeEvictionCounter;
+  private final Counter expiredEvictionCounter;
+
+  private final ConcurrentMap<String, CompletableFuture<Entry>> entries =
+      new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, Entry> negativeEntries = new ConcurrentHashMap<>();
+
+  /**
+   * Returns a new JokeCache {@link JokeCache} instance.
+   */
+  public JokeCache(
+      JokeRepository jokeRepository,
+      MeterRegistry meterRegistry,
+      @Value("${application.joke_cache.maximum_size:10000}") int maximumSize,
+      @Value("${application.joke_cache.expire_after_write:3600000}") long expireAfterWrite,
+      @Value("${application.joke_cache.negative_maximum_size:1000}") int negativeMaximumSize,
+      @Value("${application.joke_cache.negative_expire_after_write:60000}")
+          long negativeExpireAfterWrite
+  ) {
+    this(
+        jokeRepository,
+        meterRegistry,
+        maximumSize,
+        expireAfterWrite,
+        negativeMaximumSize,
+        negativeExpireAfterWrite,
+        System::currentTimeMillis
+    );
+  }
+
+  JokeCache(
+      JokeRepository jokeRepository,
+      MeterRegistry meterRegistry,
+      int maximumSize,
+      long expireAfterWrite,
+      int negativeMaximumSize,
+      long negativeExpireAfterWrite,
+      LongSupplier clock
+  ) {
+    this.jokeRepository = jokeRepository;
+    this.maximumSize = maximumSize;
+    this.expireAfterWrite = expireAfterWrite;
+    this.negativeMaximumSize = negativeMaximumSize;
+    this.negativeExpireAfterWrite = negativeExpireAfterWrite;
+    this.clock = clock;
+
+    this.hitCounter = meterRegistry.counter("application_joke_cache", "result", "hit");
+    this.missCounter = meterRegistry.counter("application_joke_cache", "result", "miss");
+    this.coalescedCounter = meterRegistry.counter(
+        "application_joke_cache", "result", "coalesced"
+    );
+    this.sizeEvictionCounter = meterRegistry.counter(
+        "application_joke_cache_eviction", "cause", "size"
+    );
+    this.expiredEvictionCounter = meterRegistry.counter(
+        "application_joke_cache_eviction", "cause", "expired"
+    );
+  }
+
+  /**
+   * Returns the joke with the given id, loading it from the database on a cache miss.
+   *
+   * @param id The joke id
+   * @return joke
+   */
+  public Optional<Joke> findById(final String id) {
+    long now = clock.getAsLong();
+
+    Entry negativeEntry = negativeEntries.get(id);
+    if (negativeEntry != null) {
+      if (negativeEntry.expiresAt > now) {
+        hitCounter.increment();
+        return Optional.empty();
+      }
+
+      if (negativeEntries.remove(id, negativeEntry)) {
+        expiredEvictionCounter.increment();
+      }
+    }
+
+    CompletableFuture<Entry> cached = entries.get(id);
+    if (cached != null) {
+      if (!cached.isDone()) {
+        coalescedCounter.increment();
+        return lookup(cached, now);
+      }
+
+      if (await(cached).expiresAt > now) {
+        hitCounter.increment();
+        return lookup(cached, now);
+      }
+
+      if (entries.remove(id, cached)) {
+        expiredEvictionCounter.increment();
+      }
+    }
+
+    CompletableFuture<Entry> loading = new CompletableFuture<>();
+    CompletableFuture<Entry> leader = entries.putIfAbsent(id, loading);
+    if (leader != null) {
+      coalescedCounter.increment();
+      return lookup(leader, now);
+    }
+
+    missCounter.increment();
+    Optional<Joke> joke;
+    try {
+      joke = jokeRepository.findById(id);
+    } catch (RuntimeException exception) {
+      entries.remove(id, loading);
+      loading.completeExceptionally(exception);
+      throw exception;
+    }
+
+    if (joke.isPresent()) {
+      loading.complete(new Entry(joke.get(), now + expireAfterWrite, now));
+      evictLeastRecentlyUsed(entries, maximumSize, id, JokeCache::lastAccessOf);
+    } else {
+      Entry entry = new Entry(null, now + negativeExpireAfterWrite, now);
+      negativeEntries.put(id, entry);
+      evictLeastRecentlyUsed(negativeEntries, negativeMaximumSize, id, value -> value.lastAccess);
+
+      entries.remove(id, loading);
+      loading.complete(entry);
+    }
+
+    return joke;
+  }
+
+  /**
+   * Removes all expired entries.
+   */
+  @Scheduled(fixedDelayString = "${application.joke_cache.expire_interval:60000}")
+  public void evictExpired() {
+    long now = clock.getAsLong();
+
+    Iterator<CompletableFuture<Entry>> iterator = entries.values().iterator();
+    while (iterator.hasNext()) {
+      CompletableFuture<Entry> cached = iterator.next();
+      if (cached.isDone() && !cached.isCompletedExceptionally() && cached.join().expiresAt <= now) {
+        iterator.remove();
+        expiredEvictionCounter.increment();
+      }
+    }
+
+    Iterator<Entry> negativeIterator = negativeEntries.values().iterator();
+    while (negativeIterator.hasNext()) {
+      if (negativeIterator.next().expiresAt <= now) {
+        negativeIterator.remove();
+        expiredEvictionCounter.increment();
+      }
+    }
+  }
+
+  /**
+   * Returns the number of cached entries, including cached unknown ids.
+   */
+  public int size() {
+    return entries.size() + negativeEntries.size();
+  }
+
+  private static Optional<Joke> lookup(CompletableFuture<Entry> cached, long now) {
+    Entry entry = await(cached);
+    entry.lastAccess = now;
+
+    return Optional.ofNullable(entry.joke);
+  }
+
+  private static Entry await(CompletableFuture<Entry> cached) {
+    try {
+      return cached.join();
+    } catch (CompletionException exception) {
+      if (exception.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) exception.getCause();
+      }
+      throw exception;
+    }
+  }
+
+  private static long lastAccessOf(CompletableFuture<Entry> cached) {
+    return cached.isDone() && !cached.isCompletedExceptionally()
+        ? cached.join().lastAccess
+        : Long.MAX_VALUE;
+  }
+
+  /**
+   * Removes entries until the given map holds at most the given number of entries. Each round
+   * removes the least recently used of a few sampled entries, other than the one just added and
+   * entries still being loaded. The sample is taken from a random region of the map, so eviction
+   * doesn't keep hitting the entries of the first hash buckets.
+   */
+  private <V> void evictLeastRecentlyUsed(
+      ConcurrentMap<String, V> map,
+      int maximumSize,
+      String added,
+      ToLongFunction<V> lastAccess
+  ) {
+    while (map.size() > maximumSize) {
+      Map.Entry<String, V> victim = leastRecentlyUsed(
+          randomRegion(map.entrySet().spliterator(), map.size()), added, lastAccess
+      );
+      if (victim == null) {
+        victim = leastRecentlyUsed(map.entrySet().spliterator(), added, lastAccess);
+      }
+
+      if (victim == null) {
+        return;
+      }
+
+      if (map.remove(victim.getKey(), victim.getValue())) {
+        sizeEvictionCounter.increment();
+      }
+    }
+  }
+
+  /**
+   * Returns the least recently used of the first few entries of the given spliterator, other than
+   * the one just added, or null if there is none.
+   */
+  private static <V> Map.Entry<String, V> leastRecentlyUsed(
+      Spliterator<Map.Entry<String, V>> spliterator,
+      String added,
+      ToLongFunction<V> lastAccess
+  ) {
+    List<Map.Entry<String, V>> sample = new ArrayList<>(EVICTION_SAMPLE_SIZE);
+    while (sample.size() < EVICTION_SAMPLE_SIZE && spliterator.tryAdvance(sample::add)) {
+      // Collects the sample.
+    }
+
+    Map.Entry<String, V> victim = null;
+    long oldest = Long.MAX_VALUE;
+    for (Map.Entry<String, V> candidate : sample) {
+      if (candidate.getKey().equals(added)) {
+        continue;
+      }
+
+      long access = lastAccess.applyAsLong(candidate.getValue());
+      if (access < oldest) {
+        oldest = access;
+        victim = candidate;
+      }
+    }
+
+    return victim;
+  }
+
+  /**
+   * Narrows the given spliterator down to a random region of roughly the sample size by splitting
+   * it in halves and keeping either half at random.
+   */
+  private static <T> Spliterator<T> randomRegion(Spliterator<T> spliterator, int size) {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    for (int remaining = size; remaining > EVICTION_SAMPLE_SIZE; remaining /= 2) {
+      Spliterator<T> prefix = spliterator.trySplit();
+      if (prefix == null) {
+        break;
+      }
+      if (random.nextBoolean()) {
+        spliterator = prefix;
+      }
+    }
+
+    return spliterator;
+  }
+
+  private static final class Entry {
+
+    private final Joke joke;
+    private final long expiresAt;
+    private volatile long lastAccess;
+
+    private Entry(Joke joke, long expiresAt, long lastAccess) {
+      this.joke = joke;
+      this.expiresAt = expiresAt;
+      this.lastAccess = lastAccess;
+    }
+  }
+}
@@ -1,13 +1,23 @@
 package io.chucknorris.api.joke;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import io.chucknorris.lib.exception.EntityNotFoundException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import javax.servlet.http.HttpServletResponse;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.Size;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -15,53 +25,85 @@ import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RequestMapping(value = "/jokes")
 @RestController
 @Validated
 public class JokeController {
 
-  private JokeRepository jokeRepository;
+  private static final int DEFAULT_SEARCH_LIMIT = 25;
+  private static final int MAX_SEARCH_LIMIT = 1000;
+
+  private CategoryCatalog categoryCatalog;
+  private JokeCache jokeCache;
+  private JokeJsonCache jokeJsonCache;
+  private JokeNavigationIndex jokeNavigationIndex;
+  private JokeSearchIndex jokeSearchIndex;
+  private PersonalizedJokeEngine personalizedJokeEngine;
+  private RandomJokeEngine randomJokeEngine;
+
+  @Value("${application.joke.cache_max_age:86400}")
+  private long cacheMaxAge;
 
   /**
    * Returns a new JokeController {@link JokeController} instance.
    */
-  public JokeController(JokeRepository jokeRepository) {
-    this.jokeRepository = jokeRepository;
+  public JokeController(
+      CategoryCatalog categoryCatalog,
+      JokeCache jokeCache,
+      JokeJsonCache jokeJsonCache,
+      JokeNavigationIndex jokeNavigationIndex,
+      JokeSearchIndex jokeSearchIndex,
+      PersonalizedJokeEngine personalizedJokeEngine,
+      RandomJokeEngine randomJokeEngine
+  ) {
+    this.categoryCatalog = categoryCatalog;
+    this.jokeCache = jokeCache;
+    this.jokeJsonCache = jokeJsonCache;
+    this.jokeNavigationIndex = jokeNavigationIndex;
+    this.jokeSearchIndex = jokeSearchIndex;
+    this.personalizedJokeEngine = personalizedJokeEngine;
+    this.randomJokeEngine = randomJokeEngine;
   }
 
-  @RequestMapping(
+  /**
+   * Returns all joke categories as pre-rendered JSON array with a strong ETag.
+   */
+  public @ResponseBody @RequestMapping(
       value = "/categories",
       method = RequestMethod.GET,
       headers = HttpHeaders.ACCEPT + "=" + MediaType.APPLICATION_JSON_VALUE,
       produces = MediaType.APPLICATION_JSON_VALUE
-  )
-  public @ResponseBody
-  String[] getCategories() {
-    return jokeRepository.findAllCategories();
+  ) ResponseEntity<String> getCategories() {
+    CategoryCatalog.Snapshot snapshot = categoryCatalog.getSnapshot();
+
+    return ResponseEntity.ok()
+        .eTag(snapshot.getJsonETag())
+        .body(snapshot.getJson());
   }
 
   /**
-   * Returns all joke categories delimited by a new line.
+   * Returns all joke categories delimited by a new line with a strong ETag.
    */
   public @ResponseBody @RequestMapping(
       value = "/categories",
       method = RequestMethod.GET,
       headers = HttpHeaders.ACCEPT + "=" + MediaType.TEXT_PLAIN_VALUE,
       produces = MediaType.TEXT_PLAIN_VALUE
-  ) String getCategoryValues() {
-    StringBuilder stringBuilder = new StringBuilder();
-
-    for (String category : jokeRepository.findAllCategories()) {
-      stringBuilder.append(category + '\n');
-    }
+  ) ResponseEntity<String> getCategoryValues() {
+    CategoryCatalog.Snapshot snapshot = categoryCatalog.getSnapshot();
 
-    return stringBuilder.toString();
+    return ResponseEntity.ok()
+        .eTag(snapshot.getTextETag())
+        .body(snapshot.getText());
   }
 
   /**
-   * Returns a Joke {@link Joke} by id.
+   * Returns a Joke {@link Joke} by id, with a strong ETag of its JSON encoding and the time it was
+   * last updated. Returns "304 Not Modified" if the client's copy is still current.
    *
    * @param id The joke id
    * @return joke
@@ -71,14 +113,17 @@ public class JokeController {
       method = RequestMethod.GET,
       headers = HttpHeaders.ACCEPT + "=" + MediaType.APPLICATION_JSON_VALUE,
       produces = MediaType.APPLICATION_JSON_VALUE
-  ) Joke getJoke(@PathVariable String id) {
-    return jokeRepository.findById(id).orElseThrow(
+  ) ResponseEntity<Joke> getJoke(@PathVariable String id) throws JsonProcessingException {
+    Joke joke = jokeCache.findById(id).orElseThrow(
         () -> new EntityNotFoundException("Joke with id \"" + id + "\" not found.")
     );
+
+    return permalink(joke, eTag(jokeJsonCache.toJson(joke))).body(joke);
   }
 
   /**
-   * Returns a joke value by id.
+   * Returns a joke value by id, with a strong ETag of the value and the time the joke was last
+   * updated. Returns "304 Not Modified" if the client's copy is still current.
    *
    * @param id The joke id
    * @return string
@@ -88,31 +133,45 @@ public class JokeController {
       method = RequestMethod.GET,
       headers = HttpHeaders.ACCEPT + "=" + MediaType.TEXT_PLAIN_VALUE,
       produces = MediaType.TEXT_PLAIN_VALUE
-  ) String getJokeValue(@PathVariable String id, HttpServletResponse response) {
+  ) ResponseEntity<String> getJokeValue(@PathVariable String id) {
+    Joke joke;
     try {
-      return jokeRepository.findById(id).orElseThrow(
+      joke = jokeCache.findById(id).orElseThrow(
           () -> new EntityNotFoundException("Joke with id \"" + id + "\" not found.")
-      ).getValue();
+      );
     } catch (EntityNotFoundException e) {
-      response.setStatus(HttpStatus.NOT_FOUND.value());
-      return "";
+      return ResponseEntity.status(HttpStatus.NOT_FOUND).body("");
     }
+
+    return permalink(joke, eTag(joke.getValue().getBytes(StandardCharsets.UTF_8)))
+        .body(joke.getValue());
   }
 
   /**
-   * Returns the model for the joke view.
+   * Returns the model for the joke view, or null if the client's copy is still current and
+   * "304 Not Modified" has been sent. The page links to the previous and next joke, so its weak
+   * ETag covers the joke and both links, and no Last-Modified date is sent.
    */
   public @RequestMapping(
       value = "/{id}",
       method = RequestMethod.GET,
       headers = HttpHeaders.ACCEPT + "=" + MediaType.TEXT_HTML_VALUE,
       produces = MediaType.TEXT_HTML_VALUE
-  ) ModelAndView getJokeView(@PathVariable String id) {
-    Joke joke = jokeRepository.findById(id).orElseThrow(
+  ) ModelAndView getJokeView(
+      @PathVariable String id,
+      WebRequest webRequest,
+      HttpServletResponse response
+  ) throws JsonProcessingException {
+    Joke joke = jokeCache.findById(id).orElseThrow(
         () -> new EntityNotFoundException("Joke with id \"" + id + "\" not found.")
     );
 
-    String[] ids = jokeRepository.getJokeWindow(id).split(",");
+    String[] ids = jokeNavigationIndex.getJokeWindow(id);
+
+    response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl().getHeaderValue());
+    if (webRequest.checkNotModified("W/" + eTag(viewDigest(joke, ids)))) {
+      return null;
+    }
 
     ModelAndView model = new ModelAndView("joke");
     model.addObject("joke", joke);
@@ -138,11 +197,11 @@ public class JokeController {
       @RequestParam(value = "name", required = false) String name
   ) {
     if (categoryString == null && name == null) {
-      return jokeRepository.getRandomJoke();
+      return randomJokeEngine.randomJoke();
     }
 
     if (categoryString == null && name != null) {
-      Joke joke = jokeRepository.getRandomPersonalizedJoke(name);
+      Joke joke = personalizedJokeEngine.randomPersonalizedJoke(name);
       if (!(joke instanceof Joke)) {
         throw new EntityNotFoundException(
             "No personalized jokes for name \"" + name + "\" found.");
@@ -150,17 +209,19 @@ public class JokeController {
       return joke;
     }
 
-    String[] availableCategories = jokeRepository.findAllCategories();
     List<String> categories = Arrays.asList(categoryString.split(","));
     for (String category : categories) {
-      if (!Arrays.asList(availableCategories).contains(category)) {
+      if (!categoryCatalog.contains(category)) {
         throw new EntityNotFoundException(
             "No jokes for category \"" + category + "\" found.");
       }
     }
 
     if (name != null) {
-      Joke joke = jokeRepository.getRandomPersonalizedJokeByCategories(name, categoryString);
+      Joke joke = personalizedJokeEngine.randomPersonalizedJokeByCategories(
+          name,
+          categoryString.split(",")
+      );
       if (!(joke instanceof Joke)) {
         throw new EntityNotFoundException(
             "No personalized jokes for name \"" + name + "\" and category \""
@@ -171,8 +232,8 @@ public class JokeController {
     }
 
     return categories.size() <= 1
-        ? jokeRepository.getRandomJokeByCategory(categories.get(0))
-        : jokeRepository.getRandomJokeByCategories(categoryString);
+        ? randomJokeEngine.randomJokeByCategory(categories.get(0))
+        : randomJokeEngine.randomJokeByCategories(categoryString.split(","));
   }
 
   /**
@@ -191,11 +252,11 @@ public class JokeController {
       HttpServletResponse response
   ) {
     if (categoryString == null && name == null) {
-      return jokeRepository.getRandomJoke().getValue();
+      return randomJokeEngine.randomJoke().getValue();
     }
 
     if (categoryString == null && name != null) {
-      Joke joke = jokeRepository.getRandomPersonalizedJoke(name);
+      Joke joke = personalizedJokeEngine.randomPersonalizedJoke(name);
       if (!(joke instanceof Joke)) {
         response.setStatus(HttpStatus.NOT_FOUND.value());
         return "";
@@ -203,17 +264,19 @@ public class JokeController {
       return joke.getValue();
     }
 
-    String[] availableCategories = jokeRepository.findAllCategories();
     List<String> categories = Arrays.asList(categoryString.split(","));
     for (String category : categories) {
-      if (!Arrays.asList(availableCategories).contains(category)) {
+      if (!categoryCatalog.contains(category)) {
         response.setStatus(HttpStatus.NOT_FOUND.value());
         return "";
       }
     }
 
     if (name != null) {
-      Joke joke = jokeRepository.getRandomPersonalizedJokeByCategories(name, categoryString);
+      Joke joke = personalizedJokeEngine.randomPersonalizedJokeByCategories(
+          name,
+          categoryString.split(",")
+      );
       if (!(joke instanceof Joke)) {
         response.setStatus(HttpStatus.NOT_FOUND.value());
         return "";
@@ -222,8 +285,8 @@ public class JokeController {
     }
 
     return categories.size() <= 1
-        ? jokeRepository.getRandomJokeByCategory(categories.get(0)).getValue()
-        : jokeRepository.getRandomJokeByCategories(categoryString).getValue();
+        ? randomJokeEngine.randomJokeByCategory(categories.get(0)).getValue()
+        : randomJokeEngine.randomJokeByCategories(categoryString.split(",")).getValue();
   }
 
   /**
@@ -239,12 +302,61 @@ public class JokeController {
       produces = MediaType.APPLICATION_JSON_VALUE
   ) JokeSearchResult search(
       @RequestParam(value = "query")
-      @Size(min = 3, max = 120) final String query
+      @Size(min = 3, max = 120) final String query,
+      @RequestParam(value = "limit", required = false)
+      @Min(1) @Max(MAX_SEARCH_LIMIT) final Integer limit,
+      @RequestParam(value = "cursor", required = false) final String cursor
   ) {
-    Joke[] jokes = jokeRepository.searchByQuery(query);
+    if (limit != null || cursor != null) {
+      return jokeSearchIndex.search(
+          query,
+          cursor,
+          limit != null ? limit : DEFAULT_SEARCH_LIMIT
+      );
+    }
+
+    Joke[] jokes = jokeSearchIndex.search(query);
     return new JokeSearchResult(jokes);
   }
 
+  /**
+   * Streams a JokeSearchResult {@link JokeSearchResult} joke by joke, without rendering the whole
+   * response in memory first.
+   *
+   * @param query The search query
+   * @return jokeSearchResult
+   */
+  public @ResponseBody @RequestMapping(
+      value = "/search",
+      method = RequestMethod.GET,
+      headers = HttpHeaders.ACCEPT + "=" + MediaType.APPLICATION_JSON_VALUE,
+      params = "stream=true",
+      produces = MediaType.APPLICATION_JSON_VALUE
+  ) ResponseEntity<StreamingResponseBody> searchStream(
+      @RequestParam(value = "query")
+      @Size(min = 3, max = 120) final String query
+  ) {
+    Joke[] jokes = jokeSearchIndex.search(query);
+
+    StreamingResponseBody body = outputStream -> {
+      outputStream.write(
+          ("{\"total\":" + jokes.length + ",\"result\":[").getBytes(StandardCharsets.UTF_8)
+      );
+      for (int i = 0; i < jokes.length; i++) {
+        if (i > 0) {
+          outputStream.write(',');
+        }
+        outputStream.write(jokeJsonCache.toJson(jokes[i]));
+      }
+      outputStream.write(']');
+      outputStream.write('}');
+    };
+
+    return ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_JSON_UTF8)
+        .body(body);
+  }
+
   /**
    * Returns a search result delimited by a new line.
    */
@@ -257,7 +369,7 @@ public class JokeController {
       @RequestParam(value = "query")
       @Size(min = 3, max = 120) final String query
   ) {
-    Joke[] jokes = jokeRepository.searchByQuery(query);
+    Joke[] jokes = jokeSearchIndex.search(query);
     StringBuilder stringBuilder = new StringBuilder();
 
     for (Joke joke : jokes) {
@@ -266,4 +378,77 @@ public class JokeController {
 
     return stringBuilder.toString();
   }
+
+  /**
+   * Streams a search result line by line.
+   */
+  public @ResponseBody @RequestMapping(
+      value = "/search",
+      method = RequestMethod.GET,
+      headers = HttpHeaders.ACCEPT + "=" + MediaType.TEXT_PLAIN_VALUE,
+      params = "stream=true",
+      produces = MediaType.TEXT_PLAIN_VALUE
+  ) ResponseEntity<StreamingResponseBody> searchValuesStream(
+      @RequestParam(value = "query")
+      @Size(min = 3, max = 120) final String query
+  ) {
+    Joke[] jokes = jokeSearchIndex.search(query);
+
+    StreamingResponseBody body = outputStream -> {
+      for (Joke joke : jokes) {
+        outputStream.write(joke.getValue().getBytes(StandardCharsets.UTF_8));
+        outputStream.write('\n');
+      }
+    };
+
+    return ResponseEntity.ok()
+        .contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8))
+        .body(body);
+  }
+
+  private ResponseEntity.BodyBuilder permalink(Joke joke, String eTag) {
+    ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+        .cacheControl(cacheControl())
+        .eTag(eTag);
+
+    long lastModified = lastModified(joke);
+    if (lastModified >= 0) {
+      builder.lastModified(lastModified);
+    }
+
+    return builder;
+  }
+
+  private CacheControl cacheControl() {
+    return CacheControl.maxAge(cacheMaxAge, TimeUnit.SECONDS).cachePublic();
+  }
+
+  private byte[] viewDigest(Joke joke, String[] ids) throws JsonProcessingException {
+    byte[] json = jokeJsonCache.toJson(joke);
+    byte[] links = ("\n" + ids[1] + "\n" + ids[2]).getBytes(StandardCharsets.UTF_8);
+
+    byte[] digest = Arrays.copyOf(json, json.length + links.length);
+    System.arraycopy(links, 0, digest, json.length, links.length);
+
+    return digest;
+  }
+
+  private static String eTag(byte[] body) {
+    return "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+  }
+
+  /**
+   * Returns the time the joke was last updated in milliseconds since the epoch, or -1 if unknown.
+   */
+  private static long lastModified(Joke joke) {
+    if (joke.getUpdatedAt() == null) {
+      return -1;
+    }
+
+    try {
+      return Timestamp.valueOf(joke.getUpdatedAt()).getTime();
+    } catch (IllegalArgumentException exception) {
+      return -1;
+    }
+  }
 }
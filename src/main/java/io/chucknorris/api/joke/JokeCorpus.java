@@ -0,0 +1,42 @@
+package io.chucknorris.api.joke;
+
+import java.util.List;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Loads all jokes in the background and hands the same snapshot to {@link JokeSearchIndex} and
+ * {@link PersonalizedJokeEngine}, so the table is read once per refresh and searches and
+ * personalized jokes are always served from the same jokes.
+ */
+@Component
+public class JokeCorpus {
+
+  private JokeRepository jokeRepository;
+  private JokeSearchIndex jokeSearchIndex;
+  private PersonalizedJokeEngine personalizedJokeEngine;
+
+  /**
+   * Returns a new JokeCorpus {@link JokeCorpus} instance.
+   */
+  public JokeCorpus(
+      JokeRepository jokeRepository,
+      JokeSearchIndex jokeSearchIndex,
+      PersonalizedJokeEngine personalizedJokeEngine
+  ) {
+    this.jokeRepository = jokeRepository;
+    this.jokeSearchIndex = jokeSearchIndex;
+    this.personalizedJokeEngine = personalizedJokeEngine;
+  }
+
+  /**
+   * Reloads the jokes from the database and rebuilds both indexes from them.
+   */
+  @Scheduled(fixedDelayString = "${application.joke_corpus.refresh_interval:300000}")
+  public void refresh() {
+    List<Joke> jokes = jokeRepository.findAll();
+
+    jokeSearchIndex.rebuild(jokes);
+    personalizedJokeEngine.rebuild(jokes);
+  }
+}
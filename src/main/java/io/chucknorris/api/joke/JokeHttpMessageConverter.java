@@ -0,0 +1,94 @@
+package io.chucknorris.api.joke;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+/**
+ * Writes {@link Joke} and {@link JokeSearchResult} responses from the pre-serialized joke JSON
+ * held by {@link JokeJsonCache}, instead of running Jackson on every request. The output is
+ * byte-for-byte the same as the default Jackson converter's.
+ */
+public class JokeHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+  private static final byte[] NULL = "null".getBytes(StandardCharsets.UTF_8);
+
+  private final JokeJsonCache jokeJsonCache;
+
+  /**
+   * Returns a new JokeHttpMessageConverter {@link JokeHttpMessageConverter} instance.
+   */
+  public JokeHttpMessageConverter(JokeJsonCache jokeJsonCache) {
+    super(StandardCharsets.UTF_8, MediaType.APPLICATION_JSON, MediaType.APPLICATION_JSON_UTF8);
+    this.jokeJsonCache = jokeJsonCache;
+  }
+
+  @Override
+  protected boolean supports(Class<?> clazz) {
+    return Joke.class.isAssignableFrom(clazz) || JokeSearchResult.class.isAssignableFrom(clazz);
+  }
+
+  @Override
+  public boolean canRead(Class<?> clazz, MediaType mediaType) {
+    return false;
+  }
+
+  @Override
+  protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+    throw new HttpMessageNotReadableException(
+        "Reading " + clazz.getName() + " is not supported.", inputMessage
+    );
+  }
+
+  @Override
+  protected Long getContentLength(Object object, MediaType contentType) throws IOException {
+    return object instanceof Joke
+        ? Long.valueOf(jokeJsonCache.toJson((Joke) object).length)
+        : null;
+  }
+
+  @Override
+  protected void writeInternal(Object object, HttpOutputMessage outputMessage)
+      throws IOException {
+    OutputStream body = outputMessage.getBody();
+
+    if (object instanceof Joke) {
+      body.write(jokeJsonCache.toJson((Joke) object));
+      return;
+    }
+
+    JokeSearchResult jokeSearchResult = (JokeSearchResult) object;
+    body.write(
+        ("{\"total\":" + jokeSearchResult.getTotal() + ",\"result\":")
+            .getBytes(StandardCharsets.UTF_8)
+    );
+
+    Joke[] jokes = jokeSearchResult.getResult();
+    if (jokes == null) {
+      body.write(NULL);
+    } else {
+      body.write('[');
+      for (int i = 0; i < jokes.length; i++) {
+        if (i > 0) {
+          body.write(',');
+        }
+        body.write(jokes[i] != null ? jokeJsonCache.toJson(jokes[i]) : NULL);
+      }
+      body.write(']');
+    }
+
+    if (jokeSearchResult.getNextCursor() != null) {
+      body.write(",\"next_cursor\":\"".getBytes(StandardCharsets.UTF_8));
+      body.write(JsonStringEncoder.getInstance().quoteAsUTF8(jokeSearchResult.getNextCursor()));
+      body.write('"');
+    }
+
+    body.write('}');
+  }
+}
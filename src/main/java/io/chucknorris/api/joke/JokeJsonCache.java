@@ -0,0 +1,96 @@
+package io.chucknorris.api.joke;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the UTF-8 JSON encoding of jokes that have been written once, keyed by joke id.
+ *
+ * <p>A cached encoding is only reused while the joke it was computed from still has the same
+ * values, so updated jokes are serialized again and replace the cached entry. Personalized jokes
+ * share the id of their template and are always serialized without touching the cache. The cache
+ * holds at most "application.joke_json_cache.maximum_size" entries and evicts an arbitrary one
+ * when it is full.
+ */
+@Component
+public class JokeJsonCache {
+
+  private final ObjectMapper objectMapper;
+
+  @Value("${application.joke_json_cache.maximum_size:10000}")
+  private int maximumSize = 10000;
+
+  private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+  public JokeJsonCache(ObjectMapper objectMapper) {
+    this.objectMapper = objectMapper;
+  }
+
+  /**
+   * Returns the JSON encoding of the given joke. The returned array is shared and must not be
+   * modified.
+   */
+  public byte[] toJson(final Joke joke) throws JsonProcessingException {
+    if (joke.isPersonalized()) {
+      return objectMapper.writeValueAsBytes(joke);
+    }
+
+    Entry entry = entries.get(joke.getId());
+    if (entry != null && entry.isEncodingOf(joke)) {
+      return entry.json;
+    }
+
+    byte[] json = objectMapper.writeValueAsBytes(joke);
+    if (entry == null && entries.size() >= maximumSize) {
+      evictOne();
+    }
+    entries.put(joke.getId(), new Entry(joke, json));
+
+    return json;
+  }
+
+  private void evictOne() {
+    Iterator<String> ids = entries.keySet().iterator();
+    if (ids.hasNext()) {
+      entries.remove(ids.next());
+    }
+  }
+
+  /**
+   * Returns the number of cached encodings.
+   */
+  public int size() {
+    return entries.size();
+  }
+
+  private static final class Entry {
+
+    private final String[] categories;
+    private final String createdAt;
+    private final String updatedAt;
+    private final String value;
+    private final byte[] json;
+
+    private Entry(Joke joke, byte[] json) {
+      this.categories = joke.getCategories() != null ? joke.getCategories().clone() : null;
+      this.createdAt = joke.getCreatedAt();
+      this.updatedAt = joke.getUpdatedAt();
+      this.value = joke.getValue();
+      this.json = json;
+    }
+
+    private boolean isEncodingOf(Joke joke) {
+      return Objects.equals(updatedAt, joke.getUpdatedAt())
+          && Objects.equals(createdAt, joke.getCreatedAt())
+          && Objects.equals(value, joke.getValue())
+          && Arrays.equals(categories, joke.getCategories());
+    }
+  }
+}
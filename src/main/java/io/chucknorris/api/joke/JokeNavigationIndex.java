@@ -0,0 +1,149 @@
+package io.chucknorris.api.joke;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps all joke ids ordered by creation date in memory, so the previous and next joke of a joke
+ * page are an array lookup instead of a {@code ROW_NUMBER()} window over the whole table.
+ *
+ * <p>The ring is only touched when the table signature (row count, latest creation date and
+ * latest update date) changes. Newly created jokes are appended; anything else, e.g. a deleted or
+ * edited joke, triggers a full rebuild. Ids that are not (yet) known fall back to
+ * {@link JokeRepository#getJokeWindow}.
+ */
+@Component
+public class JokeNavigationIndex {
+
+  private static final Logger logger = LoggerFactory.getLogger(JokeNavigationIndex.class);
+
+  private JokeRepository jokeRepository;
+
+  private volatile Ring ring = Ring.EMPTY;
+
+  public JokeNavigationIndex(JokeRepository jokeRepository) {
+    this.jokeRepository = jokeRepository;
+  }
+
+  /**
+   * Brings the ring up to date with the database.
+   */
+  @Scheduled(fixedDelayString = "${application.joke_navigation.refresh_interval:60000}")
+  public synchronized void refresh() {
+    String signature = jokeRepository.getJokeTableSignature();
+    String[] parts = signature.split(",", 3);
+    int count = Integer.parseInt(parts[0]);
+    String latestCreatedAt = parts[1];
+
+    Ring current = ring;
+    if (signature.equals(current.signature)) {
+      return;
+    }
+
+    if (current != Ring.EMPTY && !current.latestCreatedAt.isEmpty() && count > current.ids.length) {
+      String[] createdIds = jokeRepository.findIdsCreatedAfter(current.latestCreatedAt);
+      if (current.ids.length + createdIds.length == count && current.isNew(createdIds)) {
+        ring = current.append(createdIds, signature, latestCreatedAt);
+
+        logger.info(
+            "[joke_navigation_index_appended] "
+                + "joke_count: \"" + count + "\" "
+                + "appended_count: \"" + createdIds.length + "\""
+        );
+        return;
+      }
+    }
+
+    ring = new Ring(
+        jokeRepository.findAllIdsOrderedByCreatedAt(),
+        signature,
+        latestCreatedAt
+    );
+
+    logger.info("[joke_navigation_index_rebuilt] joke_count: \"" + count + "\"");
+  }
+
+  /**
+   * Returns the ids of the given, the next and the previous joke, wrapping around at both ends
+   * of the ring.
+   *
+   * @param id The joke id
+   * @return [current, next, prev]
+   */
+  public String[] getJokeWindow(final String id) {
+    Ring current = ring;
+
+    Integer position = current.positions.get(id);
+    if (position == null) {
+      return jokeRepository.getJokeWindow(id).split(",");
+    }
+
+    int size = current.ids.length;
+    return new String[]{
+        id,
+        current.ids[(position + 1) % size],
+        current.ids[(position - 1 + size) % size]
+    };
+  }
+
+  private static class Ring {
+
+    private static final Ring EMPTY = new Ring(new String[0], null, null);
+
+    private final String[] ids;
+    private final Map<String, Integer> positions;
+    private final String signature;
+    private final String latestCreatedAt;
+
+    private Ring(String[] ids, String signature, String latestCreatedAt) {
+      this(ids, indexPositions(ids, new HashMap<>(), 0), signature, latestCreatedAt);
+    }
+
+    private Ring(
+        String[] ids,
+        Map<String, Integer> positions,
+        String signature,
+        String latestCreatedAt
+    ) {
+      this.ids = ids;
+      this.positions = positions;
+      this.signature = signature;
+      this.latestCreatedAt = latestCreatedAt;
+    }
+
+    private boolean isNew(String[] createdIds) {
+      for (String id : createdIds) {
+        if (positions.containsKey(id)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private Ring append(String[] createdIds, String signature, String latestCreatedAt) {
+      String[] appended = Arrays.copyOf(ids, ids.length + createdIds.length);
+      System.arraycopy(createdIds, 0, appended, ids.length, createdIds.length);
+
+      Map<String, Integer> appendedPositions = new HashMap<>(positions);
+      indexPositions(createdIds, appendedPositions, ids.length);
+
+      return new Ring(appended, appendedPositions, signature, latestCreatedAt);
+    }
+
+    private static Map<String, Integer> indexPositions(
+        String[] ids,
+        Map<String, Integer> positions,
+        int offset
+    ) {
+      for (int i = 0; i < ids.length; i++) {
+        positions.put(ids[i], offset + i);
+      }
+      return positions;
+    }
+  }
+}
@@ -1,6 +1,7 @@
 package io.chucknorris.api.joke;
 
 import com.vladmihalcea.hibernate.type.array.StringArrayType;
+import java.util.List;
 import org.hibernate.annotations.TypeDef;
 import org.hibernate.annotations.TypeDefs;
 import org.springframework.data.domain.Page;
@@ -45,6 +46,21 @@ public interface JokeRepository extends JpaRepository<Joke, String> {
   )
   String[] findAllCategories();
 
+  /**
+   * Returns every category of every joke as {@code [joke_id, category]} rows in category order,
+   * and a single row with a null category for jokes without categories. Used to build the
+   * in-memory indexes without hydrating full entities.
+   */
+  @Query(
+      value = "SELECT j.joke_id, c.category FROM joke AS j "
+          + "LEFT JOIN LATERAL jsonb_array_elements_text("
+          + "CASE WHEN jsonb_typeof(j.categories) = 'array' THEN j.categories ELSE '[]' END"
+          + ") WITH ORDINALITY AS c(category, position) ON true "
+          + "ORDER BY j.joke_id ASC, c.position ASC",
+      nativeQuery = true
+  )
+  List<Object[]> findAllIdsAndCategories();
+
   @Query(
       value = "WITH joke AS( SELECT joke_id, ROW_NUMBER() "
           + "OVER (ORDER BY joke.created_at ASC, joke.joke_id ASC) AS row_number FROM joke), "
@@ -68,6 +84,40 @@ public interface JokeRepository extends JpaRepository<Joke, String> {
   )
   String getJokeWindow(@Param("id") final String id);
 
+  /**
+   * Returns all joke ids in the order used for the prev/next navigation.
+   */
+  @Query(
+      value = "SELECT j.joke_id FROM joke AS j ORDER BY j.created_at ASC, j.joke_id ASC",
+      nativeQuery = true
+  )
+  String[] findAllIdsOrderedByCreatedAt();
+
+  /**
+   * Returns the ids of all jokes created after a given timestamp in navigation order. The
+   * timestamp is compared as a timestamp, so an index on created_at can be used.
+   */
+  @Query(
+      value = "SELECT j.joke_id FROM joke AS j "
+          + "WHERE j.created_at > CAST(:since AS timestamp) "
+          + "ORDER BY j.created_at ASC, j.joke_id ASC",
+      nativeQuery = true
+  )
+  String[] findIdsCreatedAfter(@Param("since") final String since);
+
+  /**
+   * Returns the number of jokes, the latest creation timestamp and the latest update timestamp
+   * delimited by commas.
+   */
+  @Query(
+      value = "SELECT count(*) "
+          + "|| ',' || coalesce(CAST(max(j.created_at) AS text), '') "
+          + "|| ',' || coalesce(CAST(max(j.updated_at) AS text), '') "
+          + "FROM joke AS j",
+      nativeQuery = true
+  )
+  String getJokeTableSignature();
+
   @Query(
       value = "SELECT "
           + "j.categories, j.created_at, j.joke_id, j.updated_at, j.value "
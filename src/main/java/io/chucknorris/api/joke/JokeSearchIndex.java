@@ -0,0 +1,400 @@
+package io.chucknorris.api.joke;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntFunction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory inverted index over all jokes, used instead of the {@code lower(value) LIKE '%q%'}
+ * table scans.
+ *
+ * <p>Every joke value is lower-cased and split into alphanumeric tokens; each distinct token
+ * keeps a sorted posting list of document numbers. A query is resolved by intersecting, per query
+ * token, the postings of all index terms containing that token and then verifying the remaining
+ * candidates with a plain substring check. The result is therefore identical to the
+ * {@code LIKE} query, including matches inside words. The terms containing a token are looked up
+ * in an n-gram index over the vocabulary (trigrams, and bigrams for two character tokens), so a
+ * search doesn't scan the whole vocabulary. The index is built from the snapshot loaded by
+ * {@link JokeCorpus}; until the first one has been built every call falls back to the repository.
+ */
+@Component
+public class JokeSearchIndex {
+
+  private static final Logger logger = LoggerFactory.getLogger(JokeSearchIndex.class);
+
+  private JokeRepository jokeRepository;
+
+  private volatile Index index = Index.EMPTY;
+
+  public JokeSearchIndex(JokeRepository jokeRepository) {
+    this.jokeRepository = jokeRepository;
+  }
+
+  /**
+   * Replaces the current index with one built from the given jokes.
+   */
+  void rebuild(List<Joke> source) {
+    Joke[] jokes = source.toArray(new Joke[0]);
+    Arrays.sort(jokes, Comparator.comparing(Joke::getId));
+
+    String[] values = new String[jokes.length];
+    Map<String, IntArrayBuilder> postingsByTerm = new HashMap<>();
+
+    for (int doc = 0; doc < jokes.length; doc++) {
+      values[doc] = normalize(jokes[doc].getValue());
+
+      for (String token : tokenize(values[doc])) {
+        postingsByTerm.computeIfAbsent(token, key -> new IntArrayBuilder()).add(doc);
+      }
+    }
+
+    String[] terms = postingsByTerm.keySet().toArray(new String[0]);
+    Arrays.sort(terms);
+
+    int[][] postings = new int[terms.length][];
+    Map<String, IntArrayBuilder> termsByGramBuilder = new HashMap<>();
+    for (int i = 0; i < terms.length; i++) {
+      postings[i] = postingsByTerm.get(terms[i]).toArray();
+
+      for (String gram : grams(terms[i])) {
+        termsByGramBuilder.computeIfAbsent(gram, key -> new IntArrayBuilder()).add(i);
+      }
+    }
+
+    Map<String, int[]> termsByGram = new HashMap<>();
+    for (Map.Entry<String, IntArrayBuilder> entry : termsByGramBuilder.entrySet()) {
+      termsByGram.put(entry.getKey(), entry.getValue().toArray());
+    }
+
+    index = new Index(jokes, values, terms, postings, termsByGram);
+
+    logger.info(
+        "[joke_search_index_refreshed] "
+            + "joke_count: \"" + jokes.length + "\" "
+            + "term_count: \"" + terms.length + "\""
+    );
+  }
+
+  /**
+   * Returns all jokes whose value contains the given query, ignoring case.
+   */
+  public Joke[] search(final String query) {
+    Index current = index;
+    if (current.isEmpty()) {
+      return jokeRepository.searchByQuery(query);
+    }
+
+    int[] matches = match(current, query);
+    return current.jokesAt(matches, 0, matches.length);
+  }
+
+  /**
+   * Returns up to {@code limit} jokes whose value contains the given query, ignoring case,
+   * ordered by id and starting after the given cursor. The cursor is the id of the last joke of
+   * the previous page, or {@code null} for the first page.
+   */
+  public JokeSearchResult search(final String query, final String cursor, final int limit) {
+    Index current = index;
+    if (current.isEmpty()) {
+      Joke[] jokes = jokeRepository.searchByQuery(query);
+      Arrays.sort(jokes, Comparator.comparing(Joke::getId));
+
+      int start = cursor != null ? firstIdAfter(cursor, jokes.length, i -> jokes[i].getId()) : 0;
+      int end = (int) Math.min((long) start + limit, jokes.length);
+
+      return new JokeSearchResult(
+          Arrays.copyOfRange(jokes, start, end),
+          jokes.length,
+          end < jokes.length && end > start ? jokes[end - 1].getId() : null
+      );
+    }
+
+    int[] matches = match(current, query);
+
+    int start = cursor != null
+        ? firstIdAfter(cursor, matches.length, i -> current.jokes[matches[i]].getId())
+        : 0;
+    int end = (int) Math.min((long) start + limit, matches.length);
+
+    return new JokeSearchResult(
+        current.jokesAt(matches, start, end),
+        matches.length,
+        end < matches.length && end > start ? current.jokes[matches[end - 1]].getId() : null
+    );
+  }
+
+  /**
+   * Returns the position of the first id greater than the given cursor in a sorted range of ids.
+   */
+  private static int firstIdAfter(String cursor, int length, IntFunction<String> idAt) {
+    int low = 0;
+    int high = length;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (idAt.apply(mid).compareTo(cursor) <= 0) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+
+    return low;
+  }
+
+  /**
+   * Returns a page of jokes whose value contains the given query, ignoring case, restricted to
+   * uncategorized jokes and jokes having at least one of the given categories.
+   */
+  public Page<Joke> search(
+      final String query,
+      final String[] categories,
+      final Pageable pageable
+  ) {
+    Index current = index;
+    if (current.isEmpty()) {
+      return jokeRepository.findByValueContainsAndFilter(
+          query,
+          String.join(",", categories),
+          pageable
+      );
+    }
+
+    Set<String> allowed = new HashSet<>(Arrays.asList(categories));
+    int[] matches = match(current, query);
+
+    List<Joke> content = new ArrayList<>(pageable.getPageSize());
+    long offset = pageable.getOffset();
+    int total = 0;
+    for (int doc : matches) {
+      Joke joke = current.jokes[doc];
+      if (!isAllowed(joke, allowed)) {
+        continue;
+      }
+      if (total >= offset && content.size() < pageable.getPageSize()) {
+        content.add(joke);
+      }
+      total++;
+    }
+
+    return new PageImpl<>(content, pageable, total);
+  }
+
+  private static boolean isAllowed(Joke joke, Set<String> allowed) {
+    String[] categories = joke.getCategories();
+    if (categories == null || categories.length == 0) {
+      return true;
+    }
+
+    for (String category : categories) {
+      if (allowed.contains(category)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static int[] match(Index index, String query) {
+    String needle = normalize(query);
+
+    // Longer tokens are more selective, single characters match nearly every term and are left
+    // to the verification pass.
+    List<String> tokens = new ArrayList<>(tokenize(needle));
+    tokens.sort((a, b) -> b.length() - a.length());
+
+    BitSet candidates = null;
+    BitSet tokenDocs = new BitSet(index.jokes.length);
+    for (String token : tokens) {
+      if (token.length() < 2) {
+        break;
+      }
+
+      tokenDocs.clear();
+      index.collectPostingsContaining(token, tokenDocs);
+      if (candidates == null) {
+        candidates = tokenDocs;
+        tokenDocs = new BitSet(index.jokes.length);
+      } else {
+        candidates.and(tokenDocs);
+      }
+
+      if (candidates.isEmpty()) {
+        return new int[0];
+      }
+    }
+
+    IntArrayBuilder matches = new IntArrayBuilder();
+    if (candidates == null) {
+      for (int doc = 0; doc < index.values.length; doc++) {
+        if (index.values[doc].contains(needle)) {
+          matches.add(doc);
+        }
+      }
+    } else {
+      for (int doc = candidates.nextSetBit(0); doc >= 0; doc = candidates.nextSetBit(doc + 1)) {
+        if (index.values[doc].contains(needle)) {
+          matches.add(doc);
+        }
+      }
+    }
+
+    return matches.toArray();
+  }
+
+  private static int[] intersect(int[] a, int[] b) {
+    int[] result = new int[Math.min(a.length, b.length)];
+    int i = 0;
+    int j = 0;
+    int k = 0;
+
+    while (i < a.length && j < b.length) {
+      if (a[i] < b[j]) {
+        i++;
+      } else if (a[i] > b[j]) {
+        j++;
+      } else {
+        result[k++] = a[i];
+        i++;
+        j++;
+      }
+    }
+
+    return Arrays.copyOf(result, k);
+  }
+
+  /**
+   * Returns the distinct bigrams and trigrams of a term.
+   */
+  private static Set<String> grams(String term) {
+    Set<String> grams = new HashSet<>();
+    for (int length = 2; length <= 3; length++) {
+      for (int start = 0; start + length <= term.length(); start++) {
+        grams.add(term.substring(start, start + length));
+      }
+    }
+
+    return grams;
+  }
+
+  private static String normalize(String value) {
+    return value != null ? value.toLowerCase(Locale.ROOT) : "";
+  }
+
+  /**
+   * Splits a lower-cased string into its distinct alphanumeric tokens.
+   */
+  private static Set<String> tokenize(String value) {
+    Set<String> tokens = new HashSet<>();
+
+    int start = -1;
+    for (int i = 0; i <= value.length(); i++) {
+      boolean isTokenChar = i < value.length() && Character.isLetterOrDigit(value.charAt(i));
+      if (isTokenChar && start < 0) {
+        start = i;
+      } else if (!isTokenChar && start >= 0) {
+        tokens.add(value.substring(start, i));
+        start = -1;
+      }
+    }
+
+    return tokens;
+  }
+
+  private static class Index {
+
+    private static final Index EMPTY = new Index(
+        new Joke[0], new String[0], new String[0], new int[0][], new HashMap<>()
+    );
+
+    private final Joke[] jokes;
+    private final String[] values;
+    private final String[] terms;
+    private final int[][] postings;
+    private final Map<String, int[]> termsByGram;
+
+    private Index(
+        Joke[] jokes,
+        String[] values,
+        String[] terms,
+        int[][] postings,
+        Map<String, int[]> termsByGram
+    ) {
+      this.jokes = jokes;
+      this.values = values;
+      this.terms = terms;
+      this.postings = postings;
+      this.termsByGram = termsByGram;
+    }
+
+    private boolean isEmpty() {
+      return jokes.length == 0;
+    }
+
+    private Joke[] jokesAt(int[] docs, int from, int to) {
+      Joke[] result = new Joke[to - from];
+      for (int i = from; i < to; i++) {
+        result[i - from] = jokes[docs[i]];
+      }
+      return result;
+    }
+
+    /**
+     * Adds the postings of all terms containing the given token of at least two characters to
+     * the given set of documents. Candidate terms are those having every n-gram of the token.
+     */
+    private void collectPostingsContaining(String token, BitSet docs) {
+      int gramLength = Math.min(token.length(), 3);
+
+      int[] candidates = null;
+      for (int start = 0; start + gramLength <= token.length(); start++) {
+        int[] withGram = termsByGram.get(token.substring(start, start + gramLength));
+        if (withGram == null) {
+          return;
+        }
+
+        candidates = candidates == null ? withGram : intersect(candidates, withGram);
+        if (candidates.length == 0) {
+          return;
+        }
+      }
+
+      for (int term : candidates) {
+        if (terms[term].contains(token)) {
+          for (int doc : postings[term]) {
+            docs.set(doc);
+          }
+        }
+      }
+    }
+  }
+
+  private static class IntArrayBuilder {
+
+    private int[] values = new int[8];
+    private int size;
+
+    private void add(int value) {
+      if (size == values.length) {
+        values = Arrays.copyOf(values, size * 2);
+      }
+      values[size++] = value;
+    }
+
+    private int[] toArray() {
+      return Arrays.copyOf(values, size);
+    }
+  }
+}
@@ -1,5 +1,6 @@
 package io.chucknorris.api.joke;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.io.Serializable;
 
@@ -11,11 +12,28 @@ public class JokeSearchResult implements Serializable {
   @JsonProperty("result")
   private Joke[] result;
 
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  @JsonProperty("next_cursor")
+  private String nextCursor;
+
   public JokeSearchResult(Joke[] jokes) {
     this.total = jokes.length;
     this.result = jokes;
   }
 
+  /**
+   * Returns a new JokeSearchResult {@link JokeSearchResult} for a single page of a search.
+   *
+   * @param jokes The jokes of the page
+   * @param total The total number of matching jokes
+   * @param nextCursor The cursor of the next page, null on the last page
+   */
+  public JokeSearchResult(Joke[] jokes, int total, String nextCursor) {
+    this.total = total;
+    this.result = jokes;
+    this.nextCursor = nextCursor;
+  }
+
   public int getTotal() {
     return total;
   }
@@ -31,4 +49,12 @@ public class JokeSearchResult implements Serializable {
   public void setResult(Joke[] result) {
     this.result = result;
   }
+
+  public String getNextCursor() {
+    return nextCursor;
+  }
+
+  public void setNextCursor(String nextCursor) {
+    this.nextCursor = nextCursor;
+  }
 }
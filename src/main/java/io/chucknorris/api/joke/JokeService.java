@@ -6,38 +6,48 @@ import org.springframework.stereotype.Service;
 
 @Service
 public class JokeService {
-  private JokeRepository jokeRepository;
+  private JokeSearchIndex jokeSearchIndex;
+  private PersonalizedJokeEngine personalizedJokeEngine;
+  private RandomJokeEngine randomJokeEngine;
 
-  public JokeService(JokeRepository jokeRepository) {
-    this.jokeRepository = jokeRepository;
+  /**
+   * Returns a new JokeService {@link JokeService} instance.
+   */
+  public JokeService(
+      JokeSearchIndex jokeSearchIndex,
+      PersonalizedJokeEngine personalizedJokeEngine,
+      RandomJokeEngine randomJokeEngine
+  ) {
+    this.jokeSearchIndex = jokeSearchIndex;
+    this.personalizedJokeEngine = personalizedJokeEngine;
+    this.randomJokeEngine = randomJokeEngine;
   }
 
   /**
    * Returns a random joke filtered by a given category.
    */
   public Joke randomJokeByCategory(final String category) {
-    return jokeRepository.getRandomJokeByCategory(category);
+    return randomJokeEngine.randomJokeByCategory(category);
   }
 
   /**
    * Returns a random joke filtered by a given array of categories.
    */
   public Joke randomJokeByCategories(final String[] categories) {
-    return jokeRepository.getRandomJokeByCategories(
-        String.join(",", categories)
-    );
+    return randomJokeEngine.randomJokeByCategories(categories);
   }
 
   /**
-   * Returns a random personalized joke filtered by a given array of categories.
+   * Returns a random personalized joke that is uncategorized or has any of the given categories,
+   * the same filter as {@link #searchWithCategoryFilter}.
    */
   public Joke randomPersonalizedJokeByCategories(
       final String substitute,
       final String[] categories
   ) {
-    return jokeRepository.getRandomPersonalizedJokeByCategories(
+    return personalizedJokeEngine.randomPersonalizedJokeByCategoriesOrUncategorized(
         substitute,
-        String.join(",", categories)
+        categories
     );
   }
 
@@ -49,10 +59,6 @@ public class JokeService {
       final String[] categories,
       final Pageable pageable
   ) {
-    return jokeRepository.findByValueContainsAndFilter(
-        query,
-        String.join(",", categories),
-        pageable
-    );
+    return jokeSearchIndex.search(query, categories, pageable);
   }
 }
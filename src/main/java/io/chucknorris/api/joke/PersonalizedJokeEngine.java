@@ -0,0 +1,301 @@
+package io.chucknorris.api.joke;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Renders random personalized jokes in memory instead of calling the
+ * {@code get_random_personalized_joke} database function.
+ *
+ * <p>Every joke mentioning "Chuck Norris" is parsed once into a template, i.e. the text fragments
+ * around each occurrence of the name. Personalizing a joke is then a pick from the eligible
+ * templates and a single concatenation. The templates are built from the same snapshot as
+ * {@link JokeSearchIndex}, loaded by {@link JokeCorpus}, and are indexed by every category of
+ * their joke. Until the first snapshot has been built every call falls back to the repository.
+ */
+@Component
+public class PersonalizedJokeEngine {
+
+  private static final String NAME = "Chuck Norris";
+
+  private static final int MAX_RANDOM_DRAWS = 16;
+
+  private static final Logger logger = LoggerFactory.getLogger(PersonalizedJokeEngine.class);
+
+  private JokeRepository jokeRepository;
+
+  private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+  public PersonalizedJokeEngine(JokeRepository jokeRepository) {
+    this.jokeRepository = jokeRepository;
+  }
+
+  /**
+   * Replaces the current snapshot with one built from the given jokes.
+   */
+  void rebuild(List<Joke> jokes) {
+    List<Template> templates = new ArrayList<>();
+    List<Template> uncategorized = new ArrayList<>();
+    Map<String, List<Template>> templatesByCategory = new HashMap<>();
+
+    for (Joke joke : jokes) {
+      Template template = Template.parse(joke);
+      if (template == null) {
+        continue;
+      }
+
+      templates.add(template);
+
+      if (template.categories.isEmpty()) {
+        uncategorized.add(template);
+      }
+      for (String category : template.categories) {
+        templatesByCategory.computeIfAbsent(category, key -> new ArrayList<>()).add(template);
+      }
+    }
+
+    Map<String, Template[]> categoryTemplates = new HashMap<>();
+    for (Map.Entry<String, List<Template>> entry : templatesByCategory.entrySet()) {
+      categoryTemplates.put(entry.getKey(), entry.getValue().toArray(new Template[0]));
+    }
+
+    snapshot = new Snapshot(
+        templates.toArray(new Template[0]),
+        uncategorized.toArray(new Template[0]),
+        Collections.unmodifiableMap(categoryTemplates)
+    );
+
+    logger.info(
+        "[personalized_joke_engine_refreshed] "
+            + "template_count: \"" + templates.size() + "\" "
+            + "category_count: \"" + categoryTemplates.size() + "\""
+    );
+  }
+
+  /**
+   * Returns a random joke {@link Joke} with "Chuck Norris" replaced by the given substitute or
+   * null if there is no joke to personalize.
+   */
+  public Joke randomPersonalizedJoke(final String substitute) {
+    Snapshot current = snapshot;
+    if (current.isEmpty()) {
+      return personalized(jokeRepository.getRandomPersonalizedJoke(substitute));
+    }
+
+    return current.templates[ThreadLocalRandom.current().nextInt(current.templates.length)]
+        .render(substitute);
+  }
+
+  /**
+   * Returns a random joke {@link Joke} of any of the given categories with "Chuck Norris" replaced
+   * by the given substitute or null if there is no joke to personalize.
+   */
+  public Joke randomPersonalizedJokeByCategories(
+      final String substitute,
+      final String[] categories
+  ) {
+    return randomPersonalizedJoke(substitute, categories, false);
+  }
+
+  /**
+   * Returns a random uncategorized joke {@link Joke} or one of any of the given categories with
+   * "Chuck Norris" replaced by the given substitute, or null if there is no joke to personalize.
+   * This follows the category filter of {@link JokeSearchIndex}, which the Slack commands use.
+   */
+  public Joke randomPersonalizedJokeByCategoriesOrUncategorized(
+      final String substitute,
+      final String[] categories
+  ) {
+    return randomPersonalizedJoke(substitute, categories, true);
+  }
+
+  /**
+   * Returns a random eligible joke, every eligible joke having the same chance of being picked.
+   *
+   * <p>A template is drawn from the concatenated template lists of the uncategorized jokes, if
+   * they are eligible, and of the given categories. It is only accepted under the first given
+   * category its joke has, so jokes in several of them are not favoured.
+   */
+  private Joke randomPersonalizedJoke(
+      final String substitute,
+      final String[] categories,
+      final boolean includeUncategorized
+  ) {
+    Snapshot current = snapshot;
+    if (current.isEmpty()) {
+      return personalized(jokeRepository.getRandomPersonalizedJokeByCategories(
+          substitute,
+          String.join(",", categories)
+      ));
+    }
+
+    List<String> requested = new ArrayList<>(new LinkedHashSet<>(Arrays.asList(categories)));
+    Template[] uncategorized = includeUncategorized ? current.uncategorized : new Template[0];
+
+    int total = uncategorized.length;
+    for (String category : requested) {
+      Template[] templates = current.templatesByCategory.get(category);
+      total += templates != null ? templates.length : 0;
+    }
+
+    if (total == 0) {
+      return null;
+    }
+
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    for (int draw = 0; draw < MAX_RANDOM_DRAWS; draw++) {
+      int index = random.nextInt(total);
+      if (index < uncategorized.length) {
+        return uncategorized[index].render(substitute);
+      }
+      index -= uncategorized.length;
+
+      for (int i = 0; i < requested.size(); i++) {
+        Template[] templates = current.templatesByCategory.get(requested.get(i));
+        if (templates == null) {
+          continue;
+        }
+        if (index >= templates.length) {
+          index -= templates.length;
+          continue;
+        }
+
+        if (templates[index].isFirstRequestedCategory(requested, i)) {
+          return templates[index].render(substitute);
+        }
+        break;
+      }
+    }
+
+    Template[] eligible = eligible(uncategorized, current, requested);
+    return eligible[random.nextInt(eligible.length)].render(substitute);
+  }
+
+  /**
+   * Returns the distinct given uncategorized templates and templates of any of the given
+   * categories.
+   */
+  private static Template[] eligible(
+      Template[] uncategorized,
+      Snapshot current,
+      List<String> requested
+  ) {
+    Set<Template> eligible = new LinkedHashSet<>(Arrays.asList(uncategorized));
+    for (String category : requested) {
+      Template[] templates = current.templatesByCategory.get(category);
+      if (templates != null) {
+        eligible.addAll(Arrays.asList(templates));
+      }
+    }
+    return eligible.toArray(new Template[0]);
+  }
+
+  private static Joke personalized(Joke joke) {
+    return joke != null ? joke.toBuilder().personalized(true).build() : null;
+  }
+
+  private static class Snapshot {
+
+    private static final Snapshot EMPTY = new Snapshot(
+        new Template[0], new Template[0], Collections.emptyMap()
+    );
+
+    private final Template[] templates;
+    private final Template[] uncategorized;
+    private final Map<String, Template[]> templatesByCategory;
+
+    private Snapshot(
+        Template[] templates,
+        Template[] uncategorized,
+        Map<String, Template[]> templatesByCategory
+    ) {
+      this.templates = templates;
+      this.uncategorized = uncategorized;
+      this.templatesByCategory = templatesByCategory;
+    }
+
+    private boolean isEmpty() {
+      return templates.length == 0;
+    }
+  }
+
+  private static class Template {
+
+    private final Joke joke;
+    private final Set<String> categories;
+    private final String[] fragments;
+    private final int fragmentLength;
+
+    private Template(Joke joke, String[] fragments) {
+      this.joke = joke;
+      this.categories = joke.getCategories() != null
+          ? new LinkedHashSet<>(Arrays.asList(joke.getCategories()))
+          : Collections.emptySet();
+      this.fragments = fragments;
+
+      int length = 0;
+      for (String fragment : fragments) {
+        length += fragment.length();
+      }
+      this.fragmentLength = length;
+    }
+
+    /**
+     * Splits the joke value around every occurrence of "Chuck Norris", returns null if the name
+     * doesn't occur at all.
+     */
+    private static Template parse(Joke joke) {
+      String value = joke.getValue();
+      if (value == null || !value.contains(NAME)) {
+        return null;
+      }
+
+      List<String> fragments = new ArrayList<>();
+      int start = 0;
+      int position;
+      while ((position = value.indexOf(NAME, start)) >= 0) {
+        fragments.add(value.substring(start, position));
+        start = position + NAME.length();
+      }
+      fragments.add(value.substring(start));
+
+      return new Template(joke, fragments.toArray(new String[0]));
+    }
+
+    /**
+     * Returns whether none of the requested categories before the given position is one of the
+     * categories of this template.
+     */
+    private boolean isFirstRequestedCategory(List<String> requested, int position) {
+      for (int i = 0; i < position; i++) {
+        if (categories.contains(requested.get(i))) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private Joke render(String substitute) {
+      StringBuilder stringBuilder = new StringBuilder(
+          fragmentLength + (fragments.length - 1) * substitute.length()
+      );
+
+      stringBuilder.append(fragments[0]);
+      for (int i = 1; i < fragments.length; i++) {
+        stringBuilder.append(substitute).append(fragments[i]);
+      }
+
+      return joke.toBuilder().personalized(true).value(stringBuilder.toString()).build();
+    }
+  }
+}
@@ -0,0 +1,300 @@
+package io.chucknorris.api.joke;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Picks random jokes from an in-memory snapshot of all joke ids instead of letting the database
+ * sort the whole table with {@code ORDER BY RANDOM()}. Only the picked joke is loaded by its
+ * primary key.
+ *
+ * <p>Jokes are indexed by their first category, which is the rule
+ * {@link JokeRepository#findAllCategories()} and {@link JokeRepository#getRandomJokeByCategory}
+ * use, and by all of their categories for {@link JokeRepository#getRandomJokeByCategories}, which
+ * matches any category. Until the first snapshot has been loaded every call falls back to the
+ * repository.
+ */
+@Component
+public class RandomJokeEngine {
+
+  private static final Logger logger = LoggerFactory.getLogger(RandomJokeEngine.class);
+
+  private static final int MAX_RANDOM_DRAWS = 16;
+
+  private JokeRepository jokeRepository;
+
+  private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+  public RandomJokeEngine(JokeRepository jokeRepository) {
+    this.jokeRepository = jokeRepository;
+  }
+
+  /**
+   * Reloads the joke ids from the database.
+   */
+  @Scheduled(fixedDelayString = "${application.random_joke.refresh_interval:300000}")
+  public void refresh() {
+    rebuild(jokeRepository.findAllIdsAndCategories());
+  }
+
+  /**
+   * Replaces the current snapshot with one built from {@code [joke_id, category]} rows, one row
+   * per category of a joke in category order, or a single row with a null category if the joke
+   * has none.
+   */
+  void rebuild(List<Object[]> rows) {
+    Map<String, List<String>> categoriesById = new LinkedHashMap<>();
+    for (Object[] row : rows) {
+      List<String> categories = categoriesById.computeIfAbsent(
+          (String) row[0], key -> new ArrayList<>()
+      );
+      String category = (String) row[1];
+      if (category != null && !categories.contains(category)) {
+        categories.add(category);
+      }
+    }
+
+    String[] ids = new String[categoriesById.size()];
+    Map<String, List<String>> idsByFirstCategory = new HashMap<>();
+    Map<String, List<String>> idsByCategory = new HashMap<>();
+    Map<String, String[]> jokeCategories = new HashMap<>();
+
+    int index = 0;
+    for (Map.Entry<String, List<String>> entry : categoriesById.entrySet()) {
+      String id = entry.getKey();
+      List<String> categories = entry.getValue();
+      ids[index++] = id;
+
+      if (categories.isEmpty()) {
+        continue;
+      }
+
+      idsByFirstCategory.computeIfAbsent(categories.get(0), key -> new ArrayList<>()).add(id);
+      for (String category : categories) {
+        idsByCategory.computeIfAbsent(category, key -> new ArrayList<>()).add(id);
+      }
+      if (categories.size() > 1) {
+        jokeCategories.put(id, categories.toArray(new String[0]));
+      }
+    }
+
+    snapshot = new Snapshot(
+        ids,
+        toArrays(idsByFirstCategory),
+        toArrays(idsByCategory),
+        Collections.unmodifiableMap(jokeCategories)
+    );
+
+    logger.info(
+        "[random_joke_engine_refreshed] "
+            + "joke_count: \"" + ids.length + "\" "
+            + "category_count: \"" + idsByCategory.size() + "\""
+    );
+  }
+
+  private static Map<String, String[]> toArrays(Map<String, List<String>> idsByCategory) {
+    Map<String, String[]> arrays = new HashMap<>();
+    for (Map.Entry<String, List<String>> entry : idsByCategory.entrySet()) {
+      arrays.put(entry.getKey(), entry.getValue().toArray(new String[0]));
+    }
+    return Collections.unmodifiableMap(arrays);
+  }
+
+  /**
+   * Returns a random joke id or null if there are no jokes at all.
+   */
+  public String randomJokeId() {
+    Snapshot current = snapshot;
+    if (current.isEmpty()) {
+      Joke joke = jokeRepository.getRandomJoke();
+      return joke != null ? joke.getId() : null;
+    }
+
+    return pick(current.ids);
+  }
+
+  /**
+   * Returns a random joke id that is not {@code excluded}, or null if every joke is. Every
+   * remaining joke has the same chance of being picked.
+   *
+   * <p>A few random draws are tried first, which nearly always succeeds while only a small share
+   * of the jokes is excluded. Otherwise the id is picked in a single pass over all remaining ids,
+   * so the cost is bounded however many jokes are excluded. The snapshot is loaded first if
+   * necessary.
+   */
+  public String randomJokeIdExcluding(final Predicate<String> excluded) {
+    Snapshot current = snapshot;
+    if (current.isEmpty()) {
+      refresh();
+      current = snapshot;
+    }
+
+    for (int draw = 0; draw < MAX_RANDOM_DRAWS && !current.isEmpty(); draw++) {
+      String id = pick(current.ids);
+      if (!excluded.test(id)) {
+        return id;
+      }
+    }
+
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    String picked = null;
+    int remaining = 0;
+    for (String id : current.ids) {
+      if (!excluded.test(id) && random.nextInt(++remaining) == 0) {
+        picked = id;
+      }
+    }
+
+    return picked;
+  }
+
+  /**
+   * Returns a random joke {@link Joke}.
+   */
+  public Joke randomJoke() {
+    Snapshot current = snapshot;
+    if (current.isEmpty()) {
+      return jokeRepository.getRandomJoke();
+    }
+
+    return findById(pick(current.ids)).orElseGet(() -> jokeRepository.getRandomJoke());
+  }
+
+  /**
+   * Returns a random joke {@link Joke} of a given category or null if the category is empty.
+   */
+  public Joke randomJokeByCategory(final String category) {
+    Snapshot current = snapshot;
+    if (current.isEmpty()) {
+      return jokeRepository.getRandomJokeByCategory(category);
+    }
+
+    String[] ids = current.idsByFirstCategory.get(category);
+    if (ids == null) {
+      return null;
+    }
+
+    return findById(pick(ids)).orElseGet(
+        () -> jokeRepository.getRandomJokeByCategory(category)
+    );
+  }
+
+  /**
+   * Returns a random joke {@link Joke} having any of the given categories or null if all of them
+   * are empty. Every joke has the same chance of being picked, regardless of the category size and
+   * of how many of the given categories it has.
+   *
+   * <p>An id is drawn from the concatenated id lists of the given categories and only accepted
+   * under the first given category the joke has, so jokes in several of them are not favoured.
+   */
+  public Joke randomJokeByCategories(final String[] categories) {
+    Snapshot current = snapshot;
+    if (current.isEmpty()) {
+      return jokeRepository.getRandomJokeByCategories(String.join(",", categories));
+    }
+
+    List<String> requested = new ArrayList<>(new LinkedHashSet<>(Arrays.asList(categories)));
+
+    int total = 0;
+    for (String category : requested) {
+      String[] ids = current.idsByCategory.get(category);
+      total += ids != null ? ids.length : 0;
+    }
+
+    if (total == 0) {
+      return null;
+    }
+
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    for (int draw = 0; draw < MAX_RANDOM_DRAWS; draw++) {
+      int index = random.nextInt(total);
+      for (int i = 0; i < requested.size(); i++) {
+        String[] ids = current.idsByCategory.get(requested.get(i));
+        if (ids == null) {
+          continue;
+        }
+        if (index >= ids.length) {
+          index -= ids.length;
+          continue;
+        }
+
+        String id = ids[index];
+        if (current.isFirstRequestedCategory(id, requested, i)) {
+          return findById(id).orElseGet(
+              () -> jokeRepository.getRandomJokeByCategories(String.join(",", categories))
+          );
+        }
+        break;
+      }
+    }
+
+    return jokeRepository.getRandomJokeByCategories(String.join(",", categories));
+  }
+
+  private Optional<Joke> findById(final String id) {
+    return jokeRepository.findById(id);
+  }
+
+  private static String pick(String[] ids) {
+    return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+  }
+
+  private static class Snapshot {
+
+    private static final Snapshot EMPTY = new Snapshot(
+        new String[0], Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap()
+    );
+
+    private final String[] ids;
+    private final Map<String, String[]> idsByFirstCategory;
+    private final Map<String, String[]> idsByCategory;
+    private final Map<String, String[]> categoriesOfMultiCategoryJokes;
+
+    private Snapshot(
+        String[] ids,
+        Map<String, String[]> idsByFirstCategory,
+        Map<String, String[]> idsByCategory,
+        Map<String, String[]> categoriesOfMultiCategoryJokes
+    ) {
+      this.ids = ids;
+      this.idsByFirstCategory = idsByFirstCategory;
+      this.idsByCategory = idsByCategory;
+      this.categoriesOfMultiCategoryJokes = categoriesOfMultiCategoryJokes;
+    }
+
+    private boolean isEmpty() {
+      return ids.length == 0;
+    }
+
+    /**
+     * Checks if the given category is the first of the requested categories the joke has.
+     */
+    private boolean isFirstRequestedCategory(String id, List<String> requested, int position) {
+      String[] categories = categoriesOfMultiCategoryJokes.get(id);
+      if (categories == null) {
+        return true;
+      }
+
+      for (String category : categories) {
+        int index = requested.indexOf(category);
+        if (index >= 0 && index < position) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+}
@@ -0,0 +1,43 @@
+package io.chucknorris.api.slack;
+
+import java.nio.charset.StandardCharsets;
+import org.springframework.web.util.UriUtils;
+
+/**
+ * An immutable joke permalink tagged with the UTM parameters of a Slack campaign.
+ *
+ * <p>The query string is encoded once per campaign, so a link only appends the host, the joke id
+ * and the team domain. Links are the same as those built with {@code UriComponentsBuilder}.
+ */
+final class PermalinkTemplate {
+
+  private static final String UTM_TERM = "?utm_source=slack&utm_medium=api&utm_term";
+
+  private final String campaign;
+
+  PermalinkTemplate(String campaign) {
+    this.campaign = "&utm_campaign=" + UriUtils.encodeQueryParam(
+        campaign,
+        StandardCharsets.UTF_8
+    );
+  }
+
+  /**
+   * Returns the permalink of a joke for the given team.
+   */
+  String expand(String baseUrl, String jokeId, String teamDomain) {
+    StringBuilder stringBuilder = new StringBuilder(128)
+        .append("https://")
+        .append(UriUtils.encodeHost(baseUrl, StandardCharsets.UTF_8))
+        .append(UriUtils.encodePath("/jokes/" + jokeId, StandardCharsets.UTF_8))
+        .append(UTM_TERM);
+
+    if (teamDomain != null) {
+      stringBuilder
+          .append('=')
+          .append(UriUtils.encodeQueryParam(teamDomain, StandardCharsets.UTF_8));
+    }
+
+    return stringBuilder.append(campaign).toString();
+  }
+}
@@ -32,7 +32,7 @@ public class Request implements Serializable {
   /**
    * A URL that you can use to respond to the command.
    */
-  @JsonProperty("enterprise_url")
+  @JsonProperty("response_url")
   private String responseUrl;
 
   @JsonProperty("team_domain")
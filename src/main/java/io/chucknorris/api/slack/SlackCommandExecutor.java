@@ -0,0 +1,298 @@
+package io.chucknorris.api.slack;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Runs slow Slack slash command handlers within Slack's three second deadline.
+ *
+ * <p>A handler runs on a bounded worker pool. If it has not finished within the latency budget
+ * configured in "slack.command.latency_budget", an ephemeral acknowledgement is returned right
+ * away and the worker POSTs the real response to the request's response_url once it is ready. If
+ * the handler fails at that point, an ephemeral error message is posted instead. Failed posts are
+ * retried with exponential backoff on a scheduler, so no worker sleeps between attempts. Requests
+ * without a response_url, and commands that arrive while the pool is saturated, are handled on
+ * the calling thread. Command and response_url latencies are exposed on the
+ * {@link MeterRegistry}.
+ */
+@Component
+public class SlackCommandExecutor {
+
+  private static final Logger logger = LoggerFactory.getLogger(SlackCommandExecutor.class);
+
+  private final RestTemplate restTemplate;
+  private final long latencyBudget;
+  private final int maxAttempts;
+  private final long initialBackoff;
+
+  private final ThreadPoolExecutor executor;
+  private final ScheduledExecutorService retryScheduler;
+
+  private final Timer inlineTimer;
+  private final Timer deferredTimer;
+  private final Timer callerTimer;
+  private final Timer postSuccessTimer;
+  private final Timer postFailureTimer;
+
+  /**
+   * Returns a new SlackCommandExecutor {@link SlackCommandExecutor} instance.
+   */
+  public SlackCommandExecutor(
+      MeterRegistry meterRegistry,
+      @Qualifier("unmeteredRestTemplate") RestTemplate restTemplate,
+      @Value("${slack.command.latency_budget:2000}") long latencyBudget,
+      @Value("${slack.command.pool_size:4}") int poolSize,
+      @Value("${slack.command.queue_capacity:100}") int queueCapacity,
+      @Value("${slack.command.max_attempts:3}") int maxAttempts,
+      @Value("${slack.command.initial_backoff:200}") long initialBackoff
+  ) {
+    this.restTemplate = restTemplate;
+    this.latencyBudget = latencyBudget;
+    this.maxAttempts = maxAttempts;
+    this.initialBackoff = initialBackoff;
+
+    AtomicInteger threadCount = new AtomicInteger();
+    this.executor = new ThreadPoolExecutor(
+        poolSize,
+        poolSize,
+        0,
+        TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueCapacity),
+        runnable -> {
+          Thread thread = new Thread(runnable, "slack-command-" + threadCount.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        }
+    );
+
+    this.retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "slack-response-retry");
+      thread.setDaemon(true);
+      return thread;
+    });
+
+    this.inlineTimer = meterRegistry.timer(
+        "application_slack_command_latency", "mode", "inline"
+    );
+    this.deferredTimer = meterRegistry.timer(
+        "application_slack_command_latency", "mode", "deferred"
+    );
+    this.callerTimer = meterRegistry.timer(
+        "application_slack_command_latency", "mode", "caller"
+    );
+    this.postSuccessTimer = meterRegistry.timer(
+        "application_slack_response_url_latency", "result", "success"
+    );
+    this.postFailureTimer = meterRegistry.timer(
+        "application_slack_response_url_latency", "result", "failure"
+    );
+
+    meterRegistry.gauge(
+        "application_slack_command_queue_depth",
+        executor.getQueue(),
+        BlockingQueue::size
+    );
+  }
+
+  /**
+   * Stops the worker pool after the pending commands have been answered or after five seconds,
+   * whichever comes first.
+   */
+  @PreDestroy
+  public void stop() throws InterruptedException {
+    executor.shutdown();
+    if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+      executor.shutdownNow();
+    }
+    retryScheduler.shutdownNow();
+  }
+
+  /**
+   * Returns the response of the given handler {@link SlackCommandHandler}, or an ephemeral
+   * acknowledgement if the response will be posted to the request's response_url instead.
+   */
+  public SlackCommandResponse execute(Request request, SlackCommandHandler handler) {
+    long startedAt = System.nanoTime();
+
+    if (request.getResponseUrl() == null || request.getResponseUrl().isEmpty()) {
+      return handleOnCaller(request, handler, startedAt);
+    }
+
+    DeferrableCommand command = new DeferrableCommand(request, handler, startedAt);
+    try {
+      executor.execute(command);
+    } catch (RejectedExecutionException exception) {
+      logger.warn("[slack_command_rejected] reason: \"pool_saturated\"");
+      return handleOnCaller(request, handler, startedAt);
+    }
+
+    try {
+      command.result.get(latencyBudget, TimeUnit.MILLISECONDS);
+    } catch (TimeoutException | ExecutionException exception) {
+      // The outcome is read below.
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+    }
+
+    if (!command.result.isDone() && command.defer()) {
+      return acknowledgement();
+    }
+
+    inlineTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+    try {
+      return command.result.join();
+    } catch (CompletionException exception) {
+      if (exception.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) exception.getCause();
+      }
+      throw exception;
+    }
+  }
+
+  private SlackCommandResponse handleOnCaller(
+      Request request,
+      SlackCommandHandler handler,
+      long startedAt
+  ) {
+    try {
+      return handler.handle(request);
+    } finally {
+      callerTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  private static SlackCommandResponse acknowledgement() {
+    CommandResponse response = new CommandResponse();
+    response.setText("Hang on, Chuck Norris is on it ...");
+    response.setResponseType(ResponseType.EPHEMERAL);
+
+    return response;
+  }
+
+  private static SlackCommandResponse failure() {
+    CommandResponse response = new CommandResponse();
+    response.setText("Sorry dude ¯\\_(ツ)_/¯ , Chuck Norris couldn't finish that one. Try again.");
+    response.setResponseType(ResponseType.EPHEMERAL);
+
+    return response;
+  }
+
+  /**
+   * POSTs the response to the response_url of the request, scheduling a retry if the attempt
+   * failed.
+   */
+  void post(Request request, SlackCommandResponse response, int attempt, long startedAt) {
+    try {
+      restTemplate.postForEntity(request.getResponseUrl(), response, String.class);
+      postSuccessTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+
+      logger.info(
+          "[slack_response_posted] "
+              + "team_domain: \"" + request.getTeamDomain() + "\" "
+              + "attempt: \"" + attempt + "\""
+      );
+    } catch (RestClientException exception) {
+      if (attempt < maxAttempts && !(exception instanceof HttpClientErrorException)) {
+        try {
+          retryScheduler.schedule(
+              () -> post(request, response, attempt + 1, startedAt),
+              initialBackoff << (attempt - 1),
+              TimeUnit.MILLISECONDS
+          );
+          return;
+        } catch (RejectedExecutionException rejectedExecutionException) {
+          // Shutting down, the response is dropped below.
+        }
+      }
+
+      postFailureTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+
+      logger.error(
+          "[slack_response_dropped] "
+              + "team_domain: \"" + request.getTeamDomain() + "\" "
+              + "attempt: \"" + attempt + "\"",
+          exception
+      );
+    }
+  }
+
+  private final class DeferrableCommand implements Runnable {
+
+    private static final int RUNNING = 0;
+    private static final int DONE = 1;
+    private static final int DEFERRED = 2;
+
+    private final Request request;
+    private final SlackCommandHandler handler;
+    private final long startedAt;
+
+    private final CompletableFuture<SlackCommandResponse> result = new CompletableFuture<>();
+    private final AtomicInteger state = new AtomicInteger(RUNNING);
+
+    private DeferrableCommand(Request request, SlackCommandHandler handler, long startedAt) {
+      this.request = request;
+      this.handler = handler;
+      this.startedAt = startedAt;
+    }
+
+    /**
+     * Hands the response over to the worker, unless it is already available.
+     *
+     * @return true if the worker will post the response, false if the result is complete
+     */
+    private boolean defer() {
+      return state.compareAndSet(RUNNING, DEFERRED);
+    }
+
+    @Override
+    public void run() {
+      SlackCommandResponse response;
+      try {
+        response = handler.handle(request);
+      } catch (RuntimeException exception) {
+        result.completeExceptionally(exception);
+        if (state.compareAndSet(RUNNING, DONE)) {
+          return;
+        }
+
+        logger.error(
+            "[slack_command_failed] team_domain: \"" + request.getTeamDomain() + "\"",
+            exception
+        );
+
+        deferredTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        post(request, failure(), 1, System.nanoTime());
+        return;
+      }
+
+      result.complete(response);
+      if (state.compareAndSet(RUNNING, DONE)) {
+        return;
+      }
+
+      deferredTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+      post(request, response, 1, System.nanoTime());
+    }
+  }
+}
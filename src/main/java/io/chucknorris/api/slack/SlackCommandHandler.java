@@ -0,0 +1,13 @@
+package io.chucknorris.api.slack;
+
+/**
+ * Handles one kind of Slack slash command, e.g. `/chuck ? {search_term}`.
+ */
+@FunctionalInterface
+public interface SlackCommandHandler {
+
+  /**
+   * Returns the response to the given slash command request {@link Request}.
+   */
+  SlackCommandResponse handle(Request request);
+}
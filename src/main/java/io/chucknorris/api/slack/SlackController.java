@@ -1,12 +1,14 @@
 package io.chucknorris.api.slack;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import io.chucknorris.api.joke.CategoryCatalog;
 import io.chucknorris.api.joke.Joke;
-import io.chucknorris.api.joke.JokeRepository;
+import io.chucknorris.api.joke.JokeCache;
 import io.chucknorris.api.joke.JokeService;
 import io.chucknorris.lib.event.EventService;
-import io.micrometer.core.instrument.MeterRegistry;
-import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -19,46 +21,79 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
-import org.springframework.util.LinkedMultiValueMap;
-import org.springframework.util.MultiValueMap;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.ModelAndView;
-import org.springframework.web.util.UriComponents;
-import org.springframework.web.util.UriComponentsBuilder;
 
 @RestController
 public class SlackController {
 
   private static final Logger logger = LoggerFactory.getLogger(SlackController.class);
 
+  private static final Pattern SEARCH_QUERY_PATTERN = Pattern.compile("/?\\s?([a-zA-Z0-9]+)");
+  private static final Pattern SEARCH_PAGE_PATTERN = Pattern.compile("--page\\s?(\\d+)");
+  private static final int SEARCH_ITEMS_PER_PAGE = 5;
+
+  private static final PermalinkTemplate JOKE_BY_ID_PERMALINK =
+      new PermalinkTemplate("joke+by+id");
+  private static final PermalinkTemplate RANDOM_JOKE_PERMALINK =
+      new PermalinkTemplate("random+joke");
+  private static final PermalinkTemplate RANDOM_JOKE_BY_CATEGORY_PERMALINK =
+      new PermalinkTemplate("random+joke+category");
+  private static final PermalinkTemplate RANDOM_PERSONALIZED_JOKE_PERMALINK =
+      new PermalinkTemplate("random+personalized+joke");
+  private static final PermalinkTemplate SEARCH_JOKE_PERMALINK =
+      new PermalinkTemplate("search+joke");
+
   @Value("${application.base_url}")
   private String baseUrl;
 
+  private CategoryCatalog categoryCatalog;
   private EventService eventService;
-  private JokeRepository jokeRepository;
+  private JokeCache jokeCache;
   private JokeService jokeService;
-  private MeterRegistry meterRegistry;
+  private SlackCommandExecutor slackCommandExecutor;
+  private SlackMetrics slackMetrics;
   private SlackService slackService;
 
+  private final Map<String, SlackCommandHandler> commandHandlers;
+  private final Map<Character, SlackCommandHandler> prefixHandlers;
+  private final SlackCommandHandler randomJokeHandler = this::randomJoke;
+  private final SlackCommandHandler categoryHandler = this::randomJokeByCategory;
+
   /**
    * Returns a new {@link SlackController} instance.
    */
   public SlackController(
+      CategoryCatalog categoryCatalog,
       EventService eventService,
-      JokeRepository jokeRepository,
+      JokeCache jokeCache,
       JokeService jokeService,
-      MeterRegistry meterRegistry,
+      SlackCommandExecutor slackCommandExecutor,
+      SlackMetrics slackMetrics,
       SlackService slackService
   ) {
+    this.categoryCatalog = categoryCatalog;
     this.eventService = eventService;
-    this.jokeRepository = jokeRepository;
+    this.jokeCache = jokeCache;
     this.jokeService = jokeService;
-    this.meterRegistry = meterRegistry;
+    this.slackCommandExecutor = slackCommandExecutor;
+    this.slackMetrics = slackMetrics;
     this.slackService = slackService;
+
+    Map<String, SlackCommandHandler> commandHandlers = new HashMap<>();
+    commandHandlers.put("help", this::help);
+    commandHandlers.put("-cat", this::findAllCategories);
+    this.commandHandlers = Collections.unmodifiableMap(commandHandlers);
+
+    Map<Character, SlackCommandHandler> prefixHandlers = new HashMap<>();
+    prefixHandlers.put(':', this::findJokeById);
+    prefixHandlers.put('@', deferrable(this::randomPersonalizedJoke));
+    prefixHandlers.put('?', deferrable(this::searchJoke));
+    this.prefixHandlers = Collections.unmodifiableMap(prefixHandlers);
   }
 
   /**
@@ -85,10 +120,7 @@ public class SlackController {
       SlackConnectEvent slackConnectEvent = new SlackConnectEvent(accessToken);
       eventService.publishEvent(slackConnectEvent);
 
-      meterRegistry.counter(
-          "application_slack_connect",
-          "team_name", accessToken.getTeamName()
-      ).increment();
+      slackMetrics.connectCounter(accessToken.getTeamName()).increment();
     } else {
       model.setStatus(HttpStatus.UNAUTHORIZED);
       model.addObject("page_title", "Oops, an error has occurred.");
@@ -116,283 +148,223 @@ public class SlackController {
   ) SlackCommandResponse command(Request request) {
     logger.info(request.toString());
 
-    if (request.getText() == null || request.getText().isEmpty()) {
-      MultiValueMap<String, String> urlQueryParams = new LinkedMultiValueMap<>();
-      urlQueryParams.set("utm_source", "slack");
-      urlQueryParams.set("utm_medium", "api");
-      urlQueryParams.set("utm_term", request.getTeamDomain());
-      urlQueryParams.set("utm_campaign", "random+joke");
-
-      Joke joke = jokeService.randomJokeByCategories(
-          slackService.getWhitelistedCategories()
-      );
-
-      meterRegistry.counter(
-          "application_slack_command",
-          "command_type", "random_joke",
-          "team_name", request.getTeamDomain()
-      ).increment();
+    return resolveCommandHandler(request.getText()).handle(request);
+  }
 
-      return composeJokeResponse(joke, urlQueryParams);
+  /**
+   * Returns the handler {@link SlackCommandHandler} of a slash command text. Whole commands take
+   * precedence over prefixes, any other text is taken as a category.
+   */
+  SlackCommandHandler resolveCommandHandler(String text) {
+    if (text == null || text.isEmpty()) {
+      return randomJokeHandler;
     }
 
-    if (request.getText().equals("help")) {
-      return new Help();
+    SlackCommandHandler handler = commandHandlers.get(text);
+    if (handler == null) {
+      handler = prefixHandlers.get(text.charAt(0));
     }
 
-    if (request.getText().equals("-cat")) {
-      String[] categories = jokeRepository.findAllCategories();
-      String[] whitelistedCategories = slackService.filterNonWhitelistedCategories(categories);
+    return handler != null ? handler : categoryHandler;
+  }
 
-      StringBuilder stringBuilder = new StringBuilder();
-      stringBuilder.append("Available categories are: `");
-      stringBuilder.append(String.join("`, `", whitelistedCategories));
-      stringBuilder.append(
-          "`. Type `/chuck {category_name}` to retrieve a "
-              + "random joke from within the given category."
-      );
+  /**
+   * Returns a handler that hits the database and may be answered via the response_url if it
+   * exceeds the latency budget of the {@link SlackCommandExecutor}.
+   */
+  private SlackCommandHandler deferrable(SlackCommandHandler handler) {
+    return request -> slackCommandExecutor.execute(request, handler);
+  }
+
+  private SlackCommandResponse randomJoke(Request request) {
+    Joke joke = jokeService.randomJokeByCategories(
+        slackService.getWhitelistedCategories()
+    );
+
+    slackMetrics.commandCounter("random_joke", request.getTeamDomain()).increment();
 
+    return composeJokeResponse(joke, RANDOM_JOKE_PERMALINK, request);
+  }
+
+  private SlackCommandResponse help(Request request) {
+    return new Help();
+  }
+
+  private SlackCommandResponse findAllCategories(Request request) {
+    String[] whitelistedCategories = slackService.getWhitelistedCatalogCategories();
+
+    StringBuilder stringBuilder = new StringBuilder();
+    stringBuilder.append("Available categories are: `");
+    stringBuilder.append(String.join("`, `", whitelistedCategories));
+    stringBuilder.append(
+        "`. Type `/chuck {category_name}` to retrieve a "
+            + "random joke from within the given category."
+    );
+
+    CommandResponse response = new CommandResponse();
+    response.setText(stringBuilder.toString());
+    response.setResponseType(ResponseType.EPHEMERAL);
+
+    slackMetrics.commandCounter("find_all_categories", request.getTeamDomain()).increment();
+
+    return response;
+  }
+
+  private SlackCommandResponse findJokeById(Request request) {
+    String id = request.getText().substring(1).trim();
+    Optional<Joke> joke = jokeCache.findById(id);
+
+    if (!joke.isPresent()) {
       CommandResponse response = new CommandResponse();
-      response.setText(stringBuilder.toString());
+      response.setText("Sorry dude ¯\\_(ツ)_/¯ , no joke with id (\"" + id + "\") found.");
       response.setResponseType(ResponseType.EPHEMERAL);
 
-      meterRegistry.counter(
-          "application_slack_command",
-          "command_type", "find_all_categories",
-          "team_name", request.getTeamDomain()
-      ).increment();
-
       return response;
     }
 
-    if (request.getText().startsWith(":")) {
-      String id = request.getText().substring(1).trim();
-      Optional<Joke> joke = jokeRepository.findById(id);
+    slackMetrics.commandCounter("find_joke_by_id", request.getTeamDomain()).increment();
 
-      if (!joke.isPresent()) {
-        CommandResponse response = new CommandResponse();
-        response.setText("Sorry dude ¯\\_(ツ)_/¯ , no joke with id (\"" + id + "\") found.");
-        response.setResponseType(ResponseType.EPHEMERAL);
+    return composeJokeResponse(joke.get(), JOKE_BY_ID_PERMALINK, request);
+  }
 
-        return response;
-      }
+  private SlackCommandResponse randomPersonalizedJoke(Request request) {
+    String[] whitelistedCategories = slackService.getWhitelistedCatalogCategories();
 
-      MultiValueMap<String, String> urlQueryParams = new LinkedMultiValueMap<>();
-      urlQueryParams.set("utm_source", "slack");
-      urlQueryParams.set("utm_medium", "api");
-      urlQueryParams.set("utm_term", request.getTeamDomain());
-      urlQueryParams.set("utm_campaign", "joke+by+id");
+    String substitute = request.getText().substring(1).trim();
+    Joke joke = jokeService.randomPersonalizedJokeByCategories(
+        substitute,
+        whitelistedCategories
+    );
 
-      meterRegistry.counter(
-          "application_slack_command",
-          "command_type", "find_joke_by_id",
-          "team_name", request.getTeamDomain()
-      ).increment();
+    if (joke == null) {
+      return composeNoMatchResponse(substitute);
+    }
+
+    slackMetrics.commandCounter("random_personalized_joke", request.getTeamDomain()).increment();
 
-      return composeJokeResponse(joke.get(), urlQueryParams);
+    return composeJokeResponse(joke, RANDOM_PERSONALIZED_JOKE_PERMALINK, request);
+  }
+
+  private SlackCommandResponse searchJoke(Request request) {
+    String query = "";
+    Matcher queryMatcher = SEARCH_QUERY_PATTERN.matcher(request.getText());
+    if (queryMatcher.find()) {
+      query = queryMatcher.group(0).trim();
     }
 
-    if (request.getText().startsWith("@")) {
-      MultiValueMap<String, String> urlQueryParams = new LinkedMultiValueMap<>();
-      urlQueryParams.set("utm_source", "slack");
-      urlQueryParams.set("utm_medium", "api");
-      urlQueryParams.set("utm_term", request.getTeamDomain());
-      urlQueryParams.set("utm_campaign", "random+personalized+joke");
+    int page = 0;
+    int pageDisplayValue = 0; // Using a display value because PageRequest#of is zero-base indexed
+    Matcher pageMatcher = SEARCH_PAGE_PATTERN.matcher(request.getText());
+    if (pageMatcher.find()) {
+      pageDisplayValue = Integer.parseInt(pageMatcher.group(1).trim());
+      page = pageDisplayValue <= 1 ? 0 : pageDisplayValue - 1;
+    }
 
-      String[] categories = jokeRepository.findAllCategories();
-      String[] whitelistedCategories = slackService.filterNonWhitelistedCategories(categories);
+    Pageable pageable = PageRequest.of(page, SEARCH_ITEMS_PER_PAGE);
+
+    String[] whitelistedCategories = slackService.getWhitelistedCatalogCategories();
+    Page<Joke> jokes = jokeService.searchWithCategoryFilter(
+        query,
+        whitelistedCategories,
+        pageable
+    );
+
+    if (jokes.getContent().size() < 1) {
+      return composeNoMatchResponse(query);
+    }
 
-      String substitute = request.getText().substring(1).trim();
-      Joke joke = jokeService.randomPersonalizedJokeByCategories(
-          substitute,
-          whitelistedCategories
+    SlackCommandResponseAttachment[] attachments = new CommandResponseAttachment[
+        jokes.getContent().size()
+        ];
+    for (int i = 0; i < jokes.getContent().size(); i++) {
+      Joke joke = jokes.getContent().get(i);
+
+      SlackCommandResponseAttachment attachment = new CommandResponseAttachment();
+      attachment.setFallback(joke.getValue());
+      attachment.setText(joke.getValue());
+      attachment.setTitle("(" + ((page * SEARCH_ITEMS_PER_PAGE + 1) + i) + ")");
+      attachment.setTitleLink(
+          SEARCH_JOKE_PERMALINK.expand(baseUrl, joke.getId(), request.getTeamDomain())
       );
 
-      if (joke == null) {
-        CommandResponse response = new CommandResponse();
-        response.setText("Your search for *\"" + substitute
-            + "\"* did not match any joke ¯\\_(ツ)_/¯. Make sure that all words are spelled "
-            + "correctly. Try different keywords. Try more general keywords."
-        );
-        response.setResponseType(ResponseType.EPHEMERAL);
-        return response;
-      }
-
-      meterRegistry.counter(
-          "application_slack_command",
-          "command_type", "random_personalized_joke",
-          "team_name", request.getTeamDomain()
-      ).increment();
-
-      return composeJokeResponse(joke, urlQueryParams);
+      attachments[i] = attachment;
     }
 
-    if (request.getText().startsWith("?")) {
-      String query = "";
-      Matcher queryMatcher = Pattern.compile("/?\\s?([a-zA-Z0-9]+)").matcher(request.getText());
-      if (queryMatcher.find()) {
-        query = queryMatcher.group(0).trim();
-      }
-
-      int page = 0;
-      int pageDisplayValue = 0; // Using a display value because PageRequest#of is zero-base indexed
-      Matcher pageMatcher = Pattern.compile("--page\\s?(\\d+)").matcher(request.getText());
-      if (pageMatcher.find()) {
-        pageDisplayValue = Integer.parseInt(pageMatcher.group(1).trim());
-        page = pageDisplayValue <= 1 ? 0 : pageDisplayValue - 1;
-      }
-
-      int itemsPerPage = 5;
-      Pageable pageable = PageRequest.of(page, itemsPerPage);
-
-      String[] categories = jokeRepository.findAllCategories();
-      String[] whitelistedCategories = slackService.filterNonWhitelistedCategories(categories);
-      Page<Joke> jokes = jokeService.searchWithCategoryFilter(
-          query,
-          whitelistedCategories,
-          pageable
+    CommandResponse response = new CommandResponse();
+    if (!jokes.isLast()) {
+      response.setText("*Search results: "
+          + (page * SEARCH_ITEMS_PER_PAGE + 1)
+          + " - "
+          + (page * SEARCH_ITEMS_PER_PAGE + jokes.getContent().size())
+          + " of " + jokes.getTotalElements()
+          + "*. "
+          + "Type `/chuck ? "
+          + query
+          + " --page "
+          + (page + 1 + 1)
+          + "` to see more results."
+      );
+    } else {
+      response.setText(
+          "*Search results: " + (page * SEARCH_ITEMS_PER_PAGE + 1) + " - "
+              + (page * SEARCH_ITEMS_PER_PAGE + jokes.getNumberOfElements())
+              + " of " + jokes.getTotalElements() + "*."
       );
+    }
 
-      if (jokes.getContent().size() < 1) {
-        CommandResponse response = new CommandResponse();
-        response.setText("Your search for *\"" + query
-            + "\"* did not match any joke ¯\\_(ツ)_/¯. Make sure that all words are spelled "
-            + "correctly. Try different keywords. Try more general keywords."
-        );
-        response.setResponseType(ResponseType.EPHEMERAL);
-
-        return response;
-      }
-
-      MultiValueMap<String, String> urlQueryParams = new LinkedMultiValueMap<>();
-      urlQueryParams.set("utm_source", "slack");
-      urlQueryParams.set("utm_medium", "api");
-      urlQueryParams.set("utm_term", request.getTeamDomain());
-      urlQueryParams.set("utm_campaign", "search+joke");
-
-      SlackCommandResponseAttachment[] attachments = new CommandResponseAttachment[
-          jokes.getContent().size()
-          ];
-      for (int i = 0; i < jokes.getContent().size(); i++) {
-        Joke joke = jokes.getContent().get(i);
-
-        UriComponents uriComponents = UriComponentsBuilder
-            .newInstance()
-            .scheme("https")
-            .host(baseUrl)
-            .path("/jokes/" + joke.getId())
-            .queryParams(urlQueryParams)
-            .build()
-            .encode();
-
-        SlackCommandResponseAttachment attachment = new CommandResponseAttachment();
-        attachment.setFallback(joke.getValue());
-        attachment.setText(joke.getValue());
-        attachment.setTitle("(" + ((page * itemsPerPage + 1) + i) + ")");
-        attachment.setTitleLink(uriComponents.toUriString());
-
-        attachments[i] = attachment;
-      }
+    response.setAttachments(attachments);
+
+    slackMetrics.commandCounter("search_joke", request.getTeamDomain()).increment();
+
+    return response;
+  }
 
+  private SlackCommandResponse randomJokeByCategory(Request request) {
+    if (!slackService.isWhitelistedCategory(request.getText())) {
       CommandResponse response = new CommandResponse();
-      if (!jokes.isLast()) {
-        response.setText("*Search results: "
-            + (page * itemsPerPage + 1)
-            + " - "
-            + (page * itemsPerPage + jokes.getContent().size())
-            + " of " + jokes.getTotalElements()
-            + "*. "
-            + "Type `/chuck ? "
-            + query
-            + " --page "
-            + (page + 1 + 1)
-            + "` to see more results."
-        );
-      } else {
-        response.setText(
-            "*Search results: " + (page * itemsPerPage + 1) + " - " + (page * 5 + jokes
-                .getNumberOfElements()) + " of " + jokes.getTotalElements() + "*."
-        );
-      }
-
-      response.setAttachments(attachments);
-
-      meterRegistry.counter(
-          "application_slack_command",
-          "command_type", "search_joke",
-          "team_name", request.getTeamDomain()
-      ).increment();
+      response.setText(
+          "Sorry dude ¯\\_(ツ)_/¯ , the given category (\""
+              + request.getText()
+              + "\") is not whitelisted. Type `/chuck -cat` to see available categories "
+              + "or search by query `/chuck ? {search_term}`"
+      );
+      response.setResponseType(ResponseType.EPHEMERAL);
 
       return response;
     }
 
-    if (!request.getText().isEmpty()) {
-      if (!slackService.isWhitelistedCategory(request.getText())) {
-        CommandResponse response = new CommandResponse();
-        response.setText(
-            "Sorry dude ¯\\_(ツ)_/¯ , the given category (\""
-                + request.getText()
-                + "\") is not whitelisted. Type `/chuck -cat` to see available categories "
-                + "or search by query `/chuck ? {search_term}`"
-        );
-        response.setResponseType(ResponseType.EPHEMERAL);
-
-        return response;
-      }
-
-      String[] categories = jokeRepository.findAllCategories();
-      String[] whitelistedCategories = slackService.filterNonWhitelistedCategories(categories);
-      if (!Arrays.stream(whitelistedCategories).anyMatch(request.getText()::equals)) {
-        CommandResponse response = new CommandResponse();
-        response.setText(
-            "Sorry dude ¯\\_(ツ)_/¯ , we've found no jokes for the given category (\""
-                + request.getText()
-                + "\"). Type `/chuck -cat` to see available categories or search by "
-                + "query `/chuck ? {search_term}`"
-        );
-        response.setResponseType(ResponseType.EPHEMERAL);
-
-        return response;
-      }
-
-      MultiValueMap<String, String> urlQueryParams = new LinkedMultiValueMap<>();
-      urlQueryParams.set("utm_source", "slack");
-      urlQueryParams.set("utm_medium", "api");
-      urlQueryParams.set("utm_term", request.getTeamDomain());
-      urlQueryParams.set("utm_campaign", "random+joke+category");
-
-      Joke joke = jokeService.randomJokeByCategory(request.getText());
-
-      meterRegistry.counter(
-          "application_slack_command",
-          "command_type", "random_joke_by_category",
-          "team_name", request.getTeamDomain()
-      ).increment();
-
-      return composeJokeResponse(joke, urlQueryParams);
+    if (!categoryCatalog.contains(request.getText())) {
+      CommandResponse response = new CommandResponse();
+      response.setText(
+          "Sorry dude ¯\\_(ツ)_/¯ , we've found no jokes for the given category (\""
+              + request.getText()
+              + "\"). Type `/chuck -cat` to see available categories or search by "
+              + "query `/chuck ? {search_term}`"
+      );
+      response.setResponseType(ResponseType.EPHEMERAL);
+
+      return response;
     }
 
-    return new CommandResponse();
+    Joke joke = jokeService.randomJokeByCategory(request.getText());
+
+    slackMetrics.commandCounter("random_joke_by_category", request.getTeamDomain()).increment();
+
+    return composeJokeResponse(joke, RANDOM_JOKE_BY_CATEGORY_PERMALINK, request);
   }
 
   private SlackCommandResponse composeJokeResponse(
       Joke joke,
-      MultiValueMap<String, String> urlParams
+      PermalinkTemplate permalinkTemplate,
+      Request request
   ) {
-    UriComponents uriComponents = UriComponentsBuilder
-        .newInstance()
-        .scheme("https")
-        .host(baseUrl)
-        .path("/jokes/" + joke.getId())
-        .queryParams(urlParams)
-        .build()
-        .encode();
-
     SlackCommandResponseAttachment attachment = new CommandResponseAttachment();
     attachment.setFallback(joke.getValue());
     attachment.setText(joke.getValue());
     attachment.setTitle("[permalink]");
-    attachment.setTitleLink(uriComponents.toUriString());
+    attachment.setTitleLink(
+        permalinkTemplate.expand(baseUrl, joke.getId(), request.getTeamDomain())
+    );
 
     CommandResponse response = new CommandResponse();
     response.setAttachments(
@@ -401,4 +373,15 @@ public class SlackController {
 
     return response;
   }
+
+  private static SlackCommandResponse composeNoMatchResponse(String query) {
+    CommandResponse response = new CommandResponse();
+    response.setText("Your search for *\"" + query
+        + "\"* did not match any joke ¯\\_(ツ)_/¯. Make sure that all words are spelled "
+        + "correctly. Try different keywords. Try more general keywords."
+    );
+    response.setResponseType(ResponseType.EPHEMERAL);
+
+    return response;
+  }
 }
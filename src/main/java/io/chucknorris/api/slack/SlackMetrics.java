@@ -0,0 +1,136 @@
+package io.chucknorris.api.slack;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hands out the per-team Slack counters. Team names are resolved by the
+ * {@link SlackTeamTagFilter}, so every team outside the top teams shares the "other" series, and
+ * the counter handles are cached so that a command does not look them up in the registry.
+ */
+@Component
+public class SlackMetrics {
+
+  private final MeterRegistry meterRegistry;
+  private final SlackTeamTagFilter slackTeamTagFilter;
+
+  private final Map<Key, Counter> counters = new ConcurrentHashMap<>();
+
+  /**
+   * Returns a new SlackMetrics {@link SlackMetrics} instance.
+   */
+  public SlackMetrics(MeterRegistry meterRegistry, SlackTeamTagFilter slackTeamTagFilter) {
+    this.meterRegistry = meterRegistry;
+    this.slackTeamTagFilter = slackTeamTagFilter;
+  }
+
+  /**
+   * Returns the "application_slack_command" counter of a command type and team.
+   */
+  public Counter commandCounter(final String commandType, final String teamName) {
+    String team = slackTeamTagFilter.record(teamName);
+
+    return counter(
+        new Key("application_slack_command", commandType, team),
+        key -> meterRegistry.counter(
+            key.name,
+            "command_type", key.commandType,
+            SlackTeamTagFilter.TEAM_TAG, key.team
+        )
+    );
+  }
+
+  /**
+   * Returns the "application_slack_connect" counter of a team.
+   */
+  public Counter connectCounter(final String teamName) {
+    String team = slackTeamTagFilter.record(teamName);
+
+    return counter(
+        new Key("application_slack_connect", null, team),
+        key -> meterRegistry.counter(key.name, SlackTeamTagFilter.TEAM_TAG, key.team)
+    );
+  }
+
+  /**
+   * Returns the cached counter of the given key, registering it first if necessary. A team that
+   * loses its slot between being resolved and being registered gets the "other" series from the
+   * registry; that counter is returned but not cached under the team, so the team's next request
+   * resolves its key again.
+   */
+  private Counter counter(Key key, Function<Key, Counter> register) {
+    Counter counter = counters.computeIfAbsent(key, register);
+    if (!key.team.equals(teamOf(counter))) {
+      counters.remove(key, counter);
+    }
+
+    return counter;
+  }
+
+  private static String teamOf(Counter counter) {
+    return counter.getId().getTag(SlackTeamTagFilter.TEAM_TAG);
+  }
+
+  /**
+   * Reassigns the team slots and drops the series of the teams that lost theirs. The shared
+   * "other" series is never removed.
+   */
+  @Scheduled(fixedDelayString = "${slack.metrics.rebalance_interval:600000}")
+  public void rebalance() {
+    Set<String> demoted = slackTeamTagFilter.rebalance();
+    if (demoted.isEmpty()) {
+      return;
+    }
+
+    counters.entrySet().removeIf(entry -> {
+      if (!demoted.contains(entry.getKey().team)) {
+        return false;
+      }
+
+      if (!SlackTeamTagFilter.OTHER.equals(teamOf(entry.getValue()))) {
+        meterRegistry.remove(entry.getValue());
+      }
+      return true;
+    });
+  }
+
+  private static final class Key {
+
+    private final String name;
+    private final String commandType;
+    private final String team;
+
+    private Key(String name, String commandType, String team) {
+      this.name = name;
+      this.commandType = commandType;
+      this.team = team;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (this == other) {
+        return true;
+      }
+      if (!(other instanceof Key)) {
+        return false;
+      }
+
+      Key key = (Key) other;
+      return name.equals(key.name)
+          && Objects.equals(commandType, key.commandType)
+          && team.equals(key.team);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(name, commandType, team);
+    }
+  }
+}
@@ -1,6 +1,10 @@
 package io.chucknorris.api.slack;
 
+import io.chucknorris.api.joke.CategoryCatalog;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
@@ -31,8 +35,33 @@ public class SlackService {
   @Autowired
   private RestTemplate restTemplate;
 
+  @Autowired
+  private CategoryCatalog categoryCatalog;
+
+  private Set<String> whitelistedCategories = Collections.emptySet();
+
+  private String[] whitelistedCategoryArray = new String[]{};
+
+  private volatile CatalogWhitelist catalogWhitelist;
+
+  /**
+   * Parses the comma separated list of whitelisted categories.
+   */
   @Value("${slack.content.whitelisted_categories}")
-  private String whitelistedCategories;
+  public void setWhitelistedCategories(final String whitelistedCategories) {
+    Set<String> categories = new LinkedHashSet<>();
+    if (whitelistedCategories != null) {
+      for (String category : whitelistedCategories.split(",")) {
+        if (!category.trim().isEmpty()) {
+          categories.add(category.trim());
+        }
+      }
+    }
+
+    this.whitelistedCategories = Collections.unmodifiableSet(categories);
+    this.whitelistedCategoryArray = categories.toArray(new String[0]);
+    this.catalogWhitelist = null;
+  }
 
   /**
    * Composes the authorize uri.
@@ -59,7 +88,7 @@ public class SlackService {
    */
   public String[] filterNonWhitelistedCategories(String[] categories) {
     return Arrays.stream(categories).filter(
-        category -> isWhitelistedCategory(category)
+        whitelistedCategories::contains
     ).toArray(String[]::new);
   }
 
@@ -67,18 +96,34 @@ public class SlackService {
    * Returns an array of whitelisted categories.
    */
   public String[] getWhitelistedCategories() {
-    return whitelistedCategories != null
-        ? whitelistedCategories.split(",")
-        : new String[]{};
+    return whitelistedCategoryArray.clone();
+  }
+
+  /**
+   * Returns the categories of the {@link CategoryCatalog} that are whitelisted, ordered by name.
+   * The subset is computed once per catalog version.
+   */
+  public String[] getWhitelistedCatalogCategories() {
+    return catalogWhitelist().categories.clone();
   }
 
   /**
    * Checks if a given category is whitelisted.
    */
   public Boolean isWhitelistedCategory(String category) {
-    return Arrays.asList(
-        getWhitelistedCategories()
-    ).contains(category);
+    return whitelistedCategories.contains(category);
+  }
+
+  private CatalogWhitelist catalogWhitelist() {
+    CategoryCatalog.Snapshot snapshot = categoryCatalog.getSnapshot();
+
+    CatalogWhitelist current = catalogWhitelist;
+    if (current == null || current.version != snapshot.getVersion()) {
+      current = new CatalogWhitelist(snapshot, whitelistedCategories);
+      catalogWhitelist = current;
+    }
+
+    return current;
   }
 
   /**
@@ -110,4 +155,17 @@ public class SlackService {
       return new AccessToken();
     }
   }
+
+  private static final class CatalogWhitelist {
+
+    private final long version;
+    private final String[] categories;
+
+    private CatalogWhitelist(CategoryCatalog.Snapshot snapshot, Set<String> whitelistedCategories) {
+      this.version = snapshot.getVersion();
+      this.categories = Arrays.stream(snapshot.getCategories())
+          .filter(whitelistedCategories::contains)
+          .toArray(String[]::new);
+    }
+  }
 }
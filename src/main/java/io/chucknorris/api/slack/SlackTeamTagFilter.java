@@ -0,0 +1,196 @@
+package io.chucknorris.api.slack;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.config.MeterFilter;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounds the cardinality of the "team_name" tag of the Slack meters. Only the top teams by
+ * request volume keep a tag value of their own, all other teams are folded into "other".
+ *
+ * <p>Volumes are estimated with a Space-Saving sketch that tracks four times as many teams as
+ * there are slots. Counting takes no lock: tracked teams are counted in a concurrent map, and an
+ * untracked team replaces the smallest of a few teams sampled from a random region of the map
+ * rather than the global minimum. Teams are admitted first come, first served until all slots are
+ * taken; after that the slots are reassigned by {@link #rebalance()}, which also halves the
+ * volumes so that the ranking follows recent traffic.
+ */
+@Component
+public class SlackTeamTagFilter implements MeterFilter {
+
+  static final String TEAM_TAG = "team_name";
+
+  static final String OTHER = "other";
+
+  private static final String METER_PREFIX = "application_slack_";
+
+  private static final int EVICTION_SAMPLE_SIZE = 8;
+
+  private final int maxTeams;
+  private final int trackedTeams;
+
+  private final ConcurrentMap<String, AtomicLong> volumes = new ConcurrentHashMap<>();
+
+  private volatile Set<String> teams = Collections.emptySet();
+
+  /**
+   * Returns a new SlackTeamTagFilter {@link SlackTeamTagFilter} instance.
+   */
+  public SlackTeamTagFilter(@Value("${slack.metrics.max_teams:50}") int maxTeams) {
+    this.maxTeams = maxTeams;
+    this.trackedTeams = maxTeams * 4;
+  }
+
+  /**
+   * Counts a request of the given team and returns the tag value to use for it.
+   */
+  public String record(final String teamName) {
+    if (teamName == null) {
+      return OTHER;
+    }
+
+    AtomicLong volume = volumes.get(teamName);
+    if (volume != null) {
+      volume.incrementAndGet();
+    } else if (volumes.size() < trackedTeams) {
+      volumes.computeIfAbsent(teamName, key -> new AtomicLong()).incrementAndGet();
+    } else {
+      replaceSmallestSampled(teamName);
+    }
+
+    if (teams.size() < maxTeams && !teams.contains(teamName)) {
+      admit(teamName);
+    }
+
+    return resolve(teamName);
+  }
+
+  /**
+   * Replaces the team with the smallest volume among a few sampled teams by the given team, which
+   * inherits that volume plus one. The teams are sampled from a random region of the map, so the
+   * teams of the first hash buckets aren't the only ones to compete against.
+   */
+  private void replaceSmallestSampled(String teamName) {
+    Spliterator<Map.Entry<String, AtomicLong>> region = randomRegion(
+        volumes.entrySet().spliterator(), volumes.size()
+    );
+
+    List<Map.Entry<String, AtomicLong>> sample = new ArrayList<>(EVICTION_SAMPLE_SIZE);
+    while (sample.size() < EVICTION_SAMPLE_SIZE && region.tryAdvance(sample::add)) {
+      // Collects the sample.
+    }
+
+    Map.Entry<String, AtomicLong> smallest = null;
+    for (Map.Entry<String, AtomicLong> entry : sample) {
+      if (smallest == null || entry.getValue().get() < smallest.getValue().get()) {
+        smallest = entry;
+      }
+    }
+
+    long inherited = 0;
+    if (smallest != null && volumes.remove(smallest.getKey(), smallest.getValue())) {
+      inherited = smallest.getValue().get();
+    }
+
+    AtomicLong volume = volumes.putIfAbsent(teamName, new AtomicLong(inherited + 1));
+    if (volume != null) {
+      volume.incrementAndGet();
+    }
+  }
+
+  /**
+   * Narrows the given spliterator down to a random region of roughly the sample size by splitting
+   * it in halves and keeping either half at random.
+   */
+  private static <T> Spliterator<T> randomRegion(Spliterator<T> spliterator, int size) {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    for (int remaining = size; remaining > EVICTION_SAMPLE_SIZE; remaining /= 2) {
+      Spliterator<T> prefix = spliterator.trySplit();
+      if (prefix == null) {
+        break;
+      }
+      if (random.nextBoolean()) {
+        spliterator = prefix;
+      }
+    }
+
+    return spliterator;
+  }
+
+  private synchronized void admit(String teamName) {
+    if (teams.size() < maxTeams && !teams.contains(teamName)) {
+      Set<String> admitted = new HashSet<>(teams);
+      admitted.add(teamName);
+      teams = Collections.unmodifiableSet(admitted);
+    }
+  }
+
+  /**
+   * Returns the tag value of the given team without counting a request.
+   */
+  public String resolve(final String teamName) {
+    return teamName != null && teams.contains(teamName) ? teamName : OTHER;
+  }
+
+  /**
+   * Reassigns the slots to the teams with the highest volumes and halves all volumes.
+   *
+   * @return the teams that lost their slot
+   */
+  public synchronized Set<String> rebalance() {
+    List<Map.Entry<String, Long>> ranking = new ArrayList<>(volumes.size());
+    for (Map.Entry<String, AtomicLong> entry : volumes.entrySet()) {
+      ranking.add(new SimpleImmutableEntry<>(entry.getKey(), entry.getValue().get()));
+    }
+    ranking.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+
+    Set<String> admitted = new HashSet<>();
+    for (int i = 0; i < ranking.size() && i < maxTeams; i++) {
+      admitted.add(ranking.get(i).getKey());
+    }
+
+    Set<String> demoted = new HashSet<>(teams);
+    demoted.removeAll(admitted);
+    teams = Collections.unmodifiableSet(admitted);
+
+    for (AtomicLong volume : volumes.values()) {
+      volume.updateAndGet(value -> value / 2);
+    }
+    volumes.values().removeIf(volume -> volume.get() == 0);
+
+    return demoted;
+  }
+
+  @Override
+  public Meter.Id map(final Meter.Id id) {
+    if (!id.getName().startsWith(METER_PREFIX)) {
+      return id;
+    }
+
+    String teamName = id.getTag(TEAM_TAG);
+    if (teamName == null || teams.contains(teamName)) {
+      return id;
+    }
+
+    List<Tag> tags = new ArrayList<>();
+    for (Tag tag : id.getTags()) {
+      tags.add(TEAM_TAG.equals(tag.getKey()) ? Tag.of(TEAM_TAG, OTHER) : tag);
+    }
+
+    return id.replaceTags(tags);
+  }
+}
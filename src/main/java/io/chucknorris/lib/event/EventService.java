@@ -1,66 +1,234 @@
 package io.chucknorris.lib.event;
 
-import com.amazonaws.services.sns.AmazonSNSClient;
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.services.sns.AmazonSNS;
 import com.amazonaws.services.sns.model.PublishRequest;
 import com.amazonaws.services.sns.model.PublishResult;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.micrometer.core.instrument.MeterRegistry;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+/**
+ * Publishes events to an AWS SNS topic without blocking the calling thread.
+ *
+ * <p>Events are serialized by the caller and put into a bounded queue. A single background worker
+ * drains the queue in batches and publishes each message, retrying failed attempts with
+ * exponential backoff. If the queue is full the event is dropped rather than slowing down the
+ * request. Queue depth, drops and publish latency are exposed on the {@link MeterRegistry}.
+ */
 @Service
 public class EventService {
 
   private static final Logger logger = LoggerFactory.getLogger(EventService.class);
 
+  private static final ObjectMapper objectMapper = new ObjectMapper()
+      .setDateFormat(new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ssZ"));
+
   private MeterRegistry meterRegistry;
 
-  private AmazonSNSClient snsClient;
+  private AmazonSNS snsClient;
 
-  @Value("${application.event.sns_topic_arn}")
   private String topicArn;
 
-  public EventService(MeterRegistry meterRegistry, AmazonSNSClient snsClient) {
+  private final BlockingQueue<PendingEvent> queue;
+  private final int batchSize;
+  private final int maxAttempts;
+  private final long initialBackoff;
+
+  private volatile boolean running;
+  private Thread worker;
+
+  /**
+   * Returns a new EventService {@link EventService} instance.
+   */
+  public EventService(
+      MeterRegistry meterRegistry,
+      AmazonSNS snsClient,
+      @Value("${application.event.sns_topic_arn}") String topicArn,
+      @Value("${application.event.queue_capacity:1000}") int queueCapacity,
+      @Value("${application.event.batch_size:10}") int batchSize,
+      @Value("${application.event.max_attempts:3}") int maxAttempts,
+      @Value("${application.event.initial_backoff:200}") long initialBackoff
+  ) {
     this.meterRegistry = meterRegistry;
     this.snsClient = snsClient;
+    this.topicArn = topicArn;
+    this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    this.batchSize = batchSize;
+    this.maxAttempts = maxAttempts;
+    this.initialBackoff = initialBackoff;
+
+    meterRegistry.gauge("application_event_queue_depth", queue, BlockingQueue::size);
+  }
+
+  /**
+   * Starts the background worker.
+   */
+  @PostConstruct
+  public synchronized void start() {
+    if (running) {
+      return;
+    }
+
+    running = true;
+    worker = new Thread(this::run, "event-publisher");
+    worker.setDaemon(true);
+    worker.start();
+  }
+
+  /**
+   * Stops the background worker after it has published the remaining events or after five
+   * seconds, whichever comes first.
+   */
+  @PreDestroy
+  public synchronized void stop() throws InterruptedException {
+    if (!running) {
+      return;
+    }
+
+    running = false;
+    worker.join(TimeUnit.SECONDS.toMillis(5));
+    if (worker.isAlive()) {
+      worker.interrupt();
+    }
   }
 
   /**
-   * Publishes an event {@link Event} to an AWS SNS topic specified in
-   * "application.event.sns_topic_arn" and returns the result {@link PublishResult}.
+   * Queues an event {@link Event} to be published to the AWS SNS topic specified in
+   * "application.event.sns_topic_arn".
    *
    * @param event The event being published {@link Event}
-   * @return publishResult
+   * @return true if the event was queued, false if it was dropped because the queue is full
    * @throws JsonProcessingException Thrown in case of problems encountered when processing JSON
    *                                 content that are not pure I/O problems.
    */
-  public PublishResult publishEvent(Event event) throws JsonProcessingException {
-    SimpleDateFormat simpleDateFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ssZ");
-    ObjectMapper objectMapper = new ObjectMapper();
-    objectMapper.setDateFormat(simpleDateFormat);
-
+  public boolean publishEvent(Event event) throws JsonProcessingException {
     String message = objectMapper.writeValueAsString(event);
-    PublishRequest publishRequest = new PublishRequest(topicArn, message);
 
-    PublishResult publishResult = snsClient.publish(publishRequest);
+    if (!queue.offer(new PendingEvent(event.getName(), message, System.nanoTime()))) {
+      meterRegistry.counter(
+          "application_event_dropped",
+          "event_name", event.getName(),
+          "reason", "queue_full"
+      ).increment();
+
+      logger.warn(
+          "[event_dropped] "
+              + "reason: \"queue_full\" "
+              + "event_message: \"" + message + "\""
+      );
+
+      return false;
+    }
+
+    return true;
+  }
+
+  private void run() {
+    while (running || !queue.isEmpty()) {
+      try {
+        drain(1, TimeUnit.SECONDS);
+      } catch (InterruptedException exception) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (RuntimeException exception) {
+        logger.error("[event_publisher_failed] " + exception.getMessage(), exception);
+      }
+    }
+  }
+
+  /**
+   * Waits up to the given time for queued events and publishes at most one batch of them.
+   *
+   * @return the number of events taken from the queue
+   */
+  int drain(long timeout, TimeUnit unit) throws InterruptedException {
+    PendingEvent first = queue.poll(timeout, unit);
+    if (first == null) {
+      return 0;
+    }
+
+    List<PendingEvent> batch = new ArrayList<>(batchSize);
+    batch.add(first);
+    queue.drainTo(batch, batchSize - 1);
+
+    for (PendingEvent pendingEvent : batch) {
+      publish(pendingEvent);
+    }
+
+    return batch.size();
+  }
+
+  private void publish(PendingEvent pendingEvent) throws InterruptedException {
+    PublishRequest publishRequest = new PublishRequest(topicArn, pendingEvent.message);
+
+    for (int attempt = 1; ; attempt++) {
+      try {
+        PublishResult publishResult = snsClient.publish(publishRequest);
+
+        meterRegistry.counter(
+            "application.event.publish",
+            "event_name", pendingEvent.name
+        ).increment();
+        meterRegistry.timer(
+            "application_event_publish_latency",
+            "event_name", pendingEvent.name
+        ).record(System.nanoTime() - pendingEvent.queuedAt, TimeUnit.NANOSECONDS);
+
+        logger.info(
+            "[event_published] "
+                + "event_message_id: \"" + publishResult.getMessageId() + "\" "
+                + "event_message: \"" + pendingEvent.message + "\" "
+                + "attempt: \"" + attempt + "\""
+        );
+
+        return;
+      } catch (AmazonClientException exception) {
+        if (attempt >= maxAttempts || !exception.isRetryable()) {
+          meterRegistry.counter(
+              "application_event_dropped",
+              "event_name", pendingEvent.name,
+              "reason", "publish_failed"
+          ).increment();
+
+          logger.error(
+              "[event_dropped] "
+                  + "reason: \"publish_failed\" "
+                  + "event_message: \"" + pendingEvent.message + "\" "
+                  + "attempt: \"" + attempt + "\"",
+              exception
+          );
+
+          return;
+        }
+
+        Thread.sleep(initialBackoff << (attempt - 1));
+      }
+    }
+  }
 
-    meterRegistry.counter(
-        "application.event.publish",
-        "event_name", event.getName()
-    ).increment();
+  private static final class PendingEvent {
 
-    logger.info(
-        "[event_published] "
-            +
-            "event_message_id: \"" + publishResult.getMessageId() + "\" "
-            +
-            "event_message: \"" + message + "\""
-    );
+    private final String name;
+    private final String message;
+    private final long queuedAt;
 
-    return publishResult;
+    private PendingEvent(String name, String message, long queuedAt) {
+      this.name = name;
+      this.message = message;
+      this.queuedAt = queuedAt;
+    }
   }
 }
@@ -0,0 +1,73 @@
+package io.chucknorris.api.feed;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.util.concurrent.AtomicDouble;
+import io.chucknorris.lib.mailchimp.MailingListStatistic;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DailyChuckMetricsTest {
+
+    private DailyChuckMetrics dailyChuckMetrics;
+    private SimpleMeterRegistry meterRegistry;
+
+    @Before
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        dailyChuckMetrics = new DailyChuckMetrics(meterRegistry);
+    }
+
+    @Test
+    public void testGaugesReportNaNBeforeFirstUpdate() {
+        assertTrue(Double.isNaN(gauge("member_count")));
+        assertTrue(Double.isNaN(gauge("click_rate")));
+    }
+
+    @Test
+    public void testUpdateSetsGaugesInPlace() {
+        dailyChuckMetrics.update(mailingListStatistic(228, 0.30748722));
+
+        assertEquals(228.0, gauge("member_count"), 0.0);
+        assertEquals(122.0, gauge("unsubscribe_count"), 0.0);
+        assertEquals(48.0, gauge("cleaned_count"), 0.0);
+        assertEquals(465.0, gauge("campaign_count"), 0.0);
+        assertEquals(23.0, gauge("avg_sub_rate"), 0.0);
+        assertEquals(7.0, gauge("avg_unsub_rate"), 0.0);
+        assertEquals(0.30748722, gauge("click_rate"), 0.0);
+
+        dailyChuckMetrics.update(mailingListStatistic(229, 0.31));
+
+        assertEquals(229.0, gauge("member_count"), 0.0);
+        assertEquals(0.31, gauge("click_rate"), 0.0);
+        assertEquals(7, meterRegistry.getMeters().size());
+    }
+
+    @Test
+    public void testUpdateReportsNaNForMissingValues() {
+        dailyChuckMetrics.update(mailingListStatistic(228, 0.30748722));
+        dailyChuckMetrics.update(new MailingListStatistic());
+
+        assertTrue(Double.isNaN(gauge("member_count")));
+        assertTrue(Double.isNaN(gauge("click_rate")));
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get("application_daily_chuck_" + name).gauge().value();
+    }
+
+    private static MailingListStatistic mailingListStatistic(int memberCount, double clickRate) {
+        MailingListStatistic mailingListStatistic = new MailingListStatistic();
+        mailingListStatistic.setMemberCount(new AtomicInteger(memberCount));
+        mailingListStatistic.setUnsubscribeCount(new AtomicInteger(122));
+        mailingListStatistic.setCleanedCount(new AtomicInteger(48));
+        mailingListStatistic.setCampaignCount(new AtomicInteger(465));
+        mailingListStatistic.setAvgSubRate(new AtomicInteger(23));
+        mailingListStatistic.setAvgUnsubRate(new AtomicInteger(7));
+        mailingListStatistic.setClickRate(new AtomicDouble(clickRate));
+        return mailingListStatistic;
+    }
+}
@@ -1,7 +1,8 @@
 package io.chucknorris.api.feed;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
-import static org.mockito.Mockito.any;
+import static org.junit.Assert.assertNull;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -10,15 +11,10 @@ import static org.mockito.Mockito.when;
 import com.google.common.util.concurrent.AtomicDouble;
 import io.chucknorris.api.feed.dailychuck.DailyChuck;
 import io.chucknorris.api.feed.dailychuck.DailyChuckIssue;
-import io.chucknorris.api.feed.dailychuck.DailyChuckRss;
-import io.chucknorris.api.feed.dailychuck.DailyChuckService;
-import io.chucknorris.api.joke.JokeRepository;
-import io.chucknorris.lib.DateUtil;
-import io.chucknorris.lib.event.EventService;
-import io.chucknorris.lib.mailchimp.MailchimpService;
+import io.chucknorris.api.feed.dailychuck.DailyChuckPublisher;
 import io.chucknorris.lib.mailchimp.MailingListStatistic;
-import io.micrometer.core.instrument.MeterRegistry;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
@@ -30,7 +26,9 @@ import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
-import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 
 @RunWith(MockitoJUnitRunner.class)
 public class FeedControllerTest {
@@ -40,31 +38,17 @@ public class FeedControllerTest {
     private DailyChuckIssue dailyChuckIssue;
 
     @Mock
-    private DailyChuckService dailyChuckService;
-
-    @Mock
-    private DateUtil dateUtil;
+    private DailyChuckPublisher dailyChuckPublisher;
 
     private DateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd", Locale.ENGLISH);
 
-    @Mock
-    private EventService eventService;
-
     @InjectMocks
     private FeedController feedController;
 
-    @Mock
-    private JokeRepository jokeRepository;
-
-    @Mock
-    private MailchimpService mailchimpService;
-
     private MailingListStatistic mailingListStatistic;
 
-    private String mailingListId;
-
     @Mock
-    private MeterRegistry meterRegistry;
+    private MailingListStatisticPoller mailingListStatisticPoller;
 
     @Before
     public void setUp() throws ParseException {
@@ -78,9 +62,6 @@ public class FeedControllerTest {
         dailyChuck.setIssues(new DailyChuckIssue[]{dailyChuckIssue});
         dailyChuck.setIssueNumber(Long.valueOf(1));
 
-        ReflectionTestUtils.setField(feedController, "dailyChuckListId", "xxxxxxxxxx");
-
-        mailingListId = "xxxxxxxxxx";
         mailingListStatistic = new MailingListStatistic();
         mailingListStatistic.setMemberCount(new AtomicInteger(228));
         mailingListStatistic.setUnsubscribeCount(new AtomicInteger(122));
@@ -91,288 +72,83 @@ public class FeedControllerTest {
         mailingListStatistic.setClickRate(
             new AtomicDouble(0.30748722)
         );
-
-        when(mailchimpService.fetchListStats(mailingListId)).thenReturn(mailingListStatistic);
     }
 
     @Test
-    public void testDailyChuckJsonReturnsDailyChuckWithoutComposingANewIssueIfItHasAlreadyBeenIssued()
+    public void testDailyChuckJsonReturnsPreRenderedJson()
         throws IOException, ParseException
     {
-        when(dailyChuckService.getDailyChuck()).thenReturn(dailyChuck);
-        when(dateUtil.now()).thenReturn(dateFormat.parse("2019-01-01"));
-
-        assertEquals(
-            dailyChuck,
-            feedController.dailyChuckJson()
+        byte[] json = "{\"issue_number\":1}".getBytes(StandardCharsets.UTF_8);
+        DailyChuckPublisher.Rendition rendition = new DailyChuckPublisher.Rendition(
+            dailyChuck, json, new byte[0]
         );
 
-        verify(dailyChuckService, times(1)).getDailyChuck();
-        verifyNoMoreInteractions(dailyChuckService);
-
-        verify(dateUtil, times(1)).now();
-        verifyNoMoreInteractions(dateUtil);
-
-        verify(eventService, times(0)).publishEvent(any());
-        verifyNoMoreInteractions(eventService);
-
-        verify(mailchimpService, times(1)).fetchListStats(mailingListId);
-        verifyNoMoreInteractions(mailchimpService);
-
-        String metricPrefix = "application_daily_chuck_";
-        verify(meterRegistry, times(1)).gauge(
-            metricPrefix + "member_count",
-            mailingListStatistic.getMemberCount()
-        );
-        verify(meterRegistry, times(1)).gauge(
-            metricPrefix + "unsubscribe_count",
-            mailingListStatistic.getUnsubscribeCount()
-        );
-        verify(meterRegistry, times(1)).gauge(
-            metricPrefix + "cleaned_count",
-            mailingListStatistic.getCleanedCount()
-        );
-        verify(meterRegistry, times(1)).gauge(
-            metricPrefix + "campaign_count",
-            mailingListStatistic.getCampaignCount()
-        );
-        verify(meterRegistry, times(1)).gauge(
-            metricPrefix + "avg_sub_rate",
-            mailingListStatistic.getAvgSubRate()
-        );
-        verify(meterRegistry, times(1)).gauge(
-            metricPrefix + "avg_unsub_rate",
-            mailingListStatistic.getAvgUnsubRate()
-        );
-        verify(meterRegistry, times(1)).gauge(
-            metricPrefix + "click_rate",
-            mailingListStatistic.getClickRate()
-        );
-        verifyNoMoreInteractions(meterRegistry);
-
-    }
-
-    @Test
-    public void testDailyChuckJsonReturnsDailyChuckWithComposingANewIssue()
-        throws IOException, ParseException
-    {
-        DailyChuckIssue newDailyChuckIssue = new DailyChuckIssue();
-
-        when(dailyChuckService.getDailyChuck()).thenReturn(dailyChuck);
-        when(dateUtil.now()).thenReturn(dateFormat.parse("2019-01-02"));
-        when(dailyChuckService.composeDailyChuckIssue(any())).thenReturn(newDailyChuckIssue);
+        when(dailyChuckPublisher.getRendition()).thenReturn(rendition);
 
+        ResponseEntity<byte[]> response = feedController.dailyChuckJson();
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON_UTF8, response.getHeaders().getContentType());
+        assertArrayEquals(json, response.getBody());
+        assertEquals(rendition.getJsonETag(), response.getHeaders().getETag());
         assertEquals(
-            dailyChuck,
-            feedController.dailyChuckJson()
+            dateFormat.parse("2019-01-01").getTime(),
+            response.getHeaders().getLastModified()
         );
 
-        verify(dailyChuckService, times(1)).getDailyChuck();
-        verify(dailyChuckService, times(1)).composeDailyChuckIssue(any());
-        verify(dailyChuckService, times(1)).persist(dailyChuck);
-        verifyNoMoreInteractions(dailyChuckService);
-
-        verify(dateUtil, times(1)).now();
-        verifyNoMoreInteractions(dateUtil);
-
-        verify(eventService, times(1)).publishEvent(any());
-        verifyNoMoreInteractions(eventService);
+        verify(dailyChuckPublisher, times(1)).getRendition();
+        verifyNoMoreInteractions(dailyChuckPublisher);
 
-        verify(mailchimpService, times(1)).fetchListStats(mailingListId);
-        verifyNoMoreInteractions(mailchimpService);
-
-        String metricPrefix = "application_daily_chuck_";
-        verify(meterRegistry, times(1)).gauge(
-            metricPrefix + "member_count",
-            mailingListStatistic.getMemberCount()
-        );
-        verify(meterRegistry, times(1)).gauge(
-            metricPrefix + "unsubscribe_count",
-            mailingListStatistic.getUnsubscribeCount()
-        );
-        verify(meterRegistry, times(1)).gauge(
-            metricPrefix + "cleaned_count",
-            mailingListStatistic.getCleanedCount()
-        );
-        verify(meterRegistry, times(1)).gauge(
-            metricPrefix + "campaign_count",
-            mailingListStatistic.getCampaignCount()
-        );
-        verify(meterRegistry, times(1)).gauge(
-            metricPrefix + "avg_sub_rate",
-            mailingListStatistic.getAvgSubRate()
-        );
-        verify(meterRegistry, times(1)).gauge(
-            metricPrefix + "avg_unsub_rate",
-            mailingListStatistic.getAvgUnsubRate()
-        );
-        verify(meterRegistry, times(1)).gauge(
-            metricPrefix + "click_rate",
-            mailingListStatistic.getClickRate()
-        );
-        verifyNoMoreInteractions(meterRegistry);
+        verifyNoMoreInteractions(mailingListStatisticPoller);
     }
 
     @Test
-    public void testDailyChuckRssReturnsDailyChuckWithoutComposingANewIssueIfItHasAlreadyBeenIssued()
+    public void testDailyChuckRssReturnsPreRenderedRss()
         throws IOException, ParseException
     {
-        DailyChuckRss dailyChuckRss = new DailyChuckRss("", dailyChuck, jokeRepository);
+        byte[] rss = "<rss version=\"2.0\" />".getBytes(StandardCharsets.UTF_8);
+        DailyChuckPublisher.Rendition rendition = new DailyChuckPublisher.Rendition(
+            dailyChuck, new byte[0], rss
+        );
 
-        when(dailyChuckService.getDailyChuck()).thenReturn(dailyChuck);
-        when(dateUtil.now()).thenReturn(dateFormat.parse("2019-01-01"));
-        when(dailyChuckService.toRss(dailyChuck)).thenReturn(dailyChuckRss);
+        when(dailyChuckPublisher.getRendition()).thenReturn(rendition);
 
+        ResponseEntity<byte[]> response = feedController.dailyChuckRss();
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_RSS_XML, response.getHeaders().getContentType());
+        assertArrayEquals(rss, response.getBody());
+        assertEquals(rendition.getRssETag(), response.getHeaders().getETag());
         assertEquals(
-            dailyChuckRss,
-            feedController.dailyChuckRss()
+            dateFormat.parse("2019-01-01").getTime(),
+            response.getHeaders().getLastModified()
         );
 
-        verify(dailyChuckService, times(1)).getDailyChuck();
-        verify(dailyChuckService, times(1)).toRss(dailyChuck);
-
-        verify(dateUtil, times(1)).now();
-        verifyNoMoreInteractions(dateUtil);
-
-        verify(eventService, times(0)).publishEvent(any());
-        verifyNoMoreInteractions(eventService);
+        verify(dailyChuckPublisher, times(1)).getRendition();
+        verifyNoMoreInteractions(dailyChuckPublisher);
 
-        verify(mailchimpService, times(1)).fetchListStats(mailingListId);
-        verifyNoMoreInteractions(mailchimpService);
-
-        String metricPrefix = "application_daily_chuck_";
-        verify(meterRegistry, times(1)).gauge(
-            metricPrefix + "member_count",
-            mailingListStatistic.getMemberCount()
-        );
-        verify(meterRegistry, times(1)).gauge(
-            metricPrefix + "unsubscribe_count",
-            mailingListStatistic.getUnsubscribeCount()
-        );
-        verify(meterRegistry, times(1)).gauge(
-            metricPrefix + "cleaned_count",
-            mailingListStatistic.getCleanedCount()
-        );
-        verify(meterRegistry, times(1)).gauge(
-            metricPrefix + "campaign_count",
-            mailingListStatistic.getCampaignCount()
-        );
-        verify(meterRegistry, times(1)).gauge(
-            metricPrefix + "avg_sub_rate",
-            mailingListStatistic.getAvgSubRate()
-        );
-        verify(meterRegistry, times(1)).gauge(
-            metricPrefix + "avg_unsub_rate",
-            mailingListStatistic.getAvgUnsubRate()
-        );
-        verify(meterRegistry, times(1)).gauge(
-            metricPrefix + "click_rate",
-            mailingListStatistic.getClickRate()
-        );
-        verifyNoMoreInteractions(meterRegistry);
+        verifyNoMoreInteractions(mailingListStatisticPoller);
     }
 
     @Test
-    public void testDailyChuckRssReturnsDailyChuckWithComposingANewIssue()
-        throws IOException, ParseException
-    {
-        DailyChuckRss dailyChuckRss = new DailyChuckRss("", dailyChuck, jokeRepository);
-        DailyChuckIssue newDailyChuckIssue = new DailyChuckIssue();
-
-        when(dailyChuckService.getDailyChuck()).thenReturn(dailyChuck);
-        when(dateUtil.now()).thenReturn(dateFormat.parse("2019-01-02"));
-        when(dailyChuckService.composeDailyChuckIssue(any())).thenReturn(newDailyChuckIssue);
-        when(dailyChuckService.toRss(dailyChuck)).thenReturn(dailyChuckRss);
-
-        assertEquals(
-            dailyChuckRss,
-            feedController.dailyChuckRss()
-        );
-
-        verify(dailyChuckService, times(1)).getDailyChuck();
-        verify(dailyChuckService, times(1)).composeDailyChuckIssue(any());
-        verify(dailyChuckService, times(1)).persist(dailyChuck);
-        verify(dailyChuckService, times(1)).toRss(dailyChuck);
-        verifyNoMoreInteractions(dailyChuckService);
-
-        verify(dateUtil, times(1)).now();
-        verifyNoMoreInteractions(dateUtil);
-
-        verify(eventService, times(1)).publishEvent(any());
-        verifyNoMoreInteractions(eventService);
+    public void testDailyChuckStatsReturnsStats() {
+        when(mailingListStatisticPoller.getMailingListStatistic()).thenReturn(mailingListStatistic);
 
-        verify(mailchimpService, times(1)).fetchListStats(mailingListId);
-        verifyNoMoreInteractions(mailchimpService);
+        ResponseEntity<MailingListStatistic> response = feedController.dailyChuckStats();
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(response.getBody(), mailingListStatistic);
 
-        String metricPrefix = "application_daily_chuck_";
-        verify(meterRegistry, times(1)).gauge(
-            metricPrefix + "member_count",
-            mailingListStatistic.getMemberCount()
-        );
-        verify(meterRegistry, times(1)).gauge(
-            metricPrefix + "unsubscribe_count",
-            mailingListStatistic.getUnsubscribeCount()
-        );
-        verify(meterRegistry, times(1)).gauge(
-            metricPrefix + "cleaned_count",
-            mailingListStatistic.getCleanedCount()
-        );
-        verify(meterRegistry, times(1)).gauge(
-            metricPrefix + "campaign_count",
-            mailingListStatistic.getCampaignCount()
-        );
-        verify(meterRegistry, times(1)).gauge(
-            metricPrefix + "avg_sub_rate",
-            mailingListStatistic.getAvgSubRate()
-        );
-        verify(meterRegistry, times(1)).gauge(
-            metricPrefix + "avg_unsub_rate",
-            mailingListStatistic.getAvgUnsubRate()
-        );
-        verify(meterRegistry, times(1)).gauge(
-            metricPrefix + "click_rate",
-            mailingListStatistic.getClickRate()
-        );
-        verifyNoMoreInteractions(meterRegistry);
+        verify(mailingListStatisticPoller, times(1)).getMailingListStatistic();
+        verifyNoMoreInteractions(mailingListStatisticPoller);
     }
 
     @Test
-    public void testDailyChuckStatsReturnsStats() {
-        MailingListStatistic response = feedController.dailyChuckStats();
-        assertEquals(response, mailingListStatistic);
+    public void testDailyChuckStatsReturnsServiceUnavailableIfNoSnapshotIsAvailableYet() {
+        when(mailingListStatisticPoller.getMailingListStatistic()).thenReturn(null);
 
-        verify(mailchimpService, times(1)).fetchListStats(mailingListId);
-        verifyNoMoreInteractions(mailchimpService);
+        ResponseEntity<MailingListStatistic> response = feedController.dailyChuckStats();
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertNull(response.getBody());
 
-        String metricPrefix = "application_daily_chuck_";
-        verify(meterRegistry, times(1)).gauge(
-            metricPrefix + "member_count",
-            mailingListStatistic.getMemberCount()
-        );
-        verify(meterRegistry, times(1)).gauge(
-            metricPrefix + "unsubscribe_count",
-            mailingListStatistic.getUnsubscribeCount()
-        );
-        verify(meterRegistry, times(1)).gauge(
-            metricPrefix + "cleaned_count",
-            mailingListStatistic.getCleanedCount()
-        );
-        verify(meterRegistry, times(1)).gauge(
-            metricPrefix + "campaign_count",
-            mailingListStatistic.getCampaignCount()
-        );
-        verify(meterRegistry, times(1)).gauge(
-            metricPrefix + "avg_sub_rate",
-            mailingListStatistic.getAvgSubRate()
-        );
-        verify(meterRegistry, times(1)).gauge(
-            metricPrefix + "avg_unsub_rate",
-            mailingListStatistic.getAvgUnsubRate()
-        );
-        verify(meterRegistry, times(1)).gauge(
-            metricPrefix + "click_rate",
-            mailingListStatistic.getClickRate()
-        );
-        verifyNoMoreInteractions(meterRegistry);
+        verify(mailingListStatisticPoller, times(1)).getMailingListStatistic();
+        verifyNoMoreInteractions(mailingListStatisticPoller);
     }
-}
\ No newline at end of file
+}
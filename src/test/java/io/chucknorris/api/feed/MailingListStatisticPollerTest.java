@@ -0,0 +1,107 @@
+package io.chucknorris.api.feed;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.chucknorris.lib.mailchimp.MailchimpService;
+import io.chucknorris.lib.mailchimp.MailingListStatistic;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.web.client.ResourceAccessException;
+
+public class MailingListStatisticPollerTest {
+
+    private AtomicLong clock;
+    private MailchimpService mailchimpService;
+    private SimpleMeterRegistry meterRegistry;
+    private MailingListStatisticPoller mailingListStatisticPoller;
+
+    @Before
+    public void setUp() {
+        clock = new AtomicLong(1000);
+        mailchimpService = mock(MailchimpService.class);
+        meterRegistry = new SimpleMeterRegistry();
+
+        mailingListStatisticPoller = new MailingListStatisticPoller(
+            new DailyChuckMetrics(meterRegistry),
+            mailchimpService,
+            meterRegistry,
+            "xxxxxxxxxx",
+            clock::get
+        );
+    }
+
+    @Test
+    public void testGetMailingListStatisticReturnsNullBeforeFirstPoll() {
+        assertNull(mailingListStatisticPoller.getMailingListStatistic());
+        assertTrue(Double.isNaN(ageSeconds()));
+    }
+
+    @Test
+    public void testRefreshReplacesSnapshot() {
+        MailingListStatistic mailingListStatistic = mailingListStatistic(228);
+        when(mailchimpService.fetchListStats("xxxxxxxxxx")).thenReturn(mailingListStatistic);
+
+        mailingListStatisticPoller.refresh();
+
+        assertSame(mailingListStatistic, mailingListStatisticPoller.getMailingListStatistic());
+        assertEquals(1, successCount());
+        assertEquals(0, failureCount());
+        assertEquals(
+            228.0,
+            meterRegistry.get("application_daily_chuck_member_count").gauge().value(),
+            0.0
+        );
+
+        clock.addAndGet(30000);
+        assertEquals(30.0, ageSeconds(), 0.0);
+    }
+
+    @Test
+    public void testRefreshKeepsPreviousSnapshotIfMailchimpFails() {
+        MailingListStatistic mailingListStatistic = mailingListStatistic(228);
+        when(mailchimpService.fetchListStats("xxxxxxxxxx"))
+            .thenReturn(mailingListStatistic)
+            .thenThrow(new ResourceAccessException("Read timed out"));
+
+        mailingListStatisticPoller.refresh();
+        clock.addAndGet(60000);
+        mailingListStatisticPoller.refresh();
+
+        assertSame(mailingListStatistic, mailingListStatisticPoller.getMailingListStatistic());
+        assertEquals(1, successCount());
+        assertEquals(1, failureCount());
+        assertEquals(60.0, ageSeconds(), 0.0);
+    }
+
+    private double ageSeconds() {
+        return meterRegistry.get("application_mailing_list_statistic_age_seconds").gauge().value();
+    }
+
+    private long successCount() {
+        return meterRegistry.get("application_mailing_list_poll_latency")
+            .tag("result", "success")
+            .timer()
+            .count();
+    }
+
+    private long failureCount() {
+        return meterRegistry.get("application_mailing_list_poll_latency")
+            .tag("result", "failure")
+            .timer()
+            .count();
+    }
+
+    private static MailingListStatistic mailingListStatistic(int memberCount) {
+        MailingListStatistic mailingListStatistic = new MailingListStatistic();
+        mailingListStatistic.setMemberCount(new AtomicInteger(memberCount));
+        return mailingListStatistic;
+    }
+}
@@ -0,0 +1,205 @@
+package io.chucknorris.api.feed.dailychuck;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.chucknorris.api.joke.Joke;
+import io.chucknorris.api.joke.JokeRepository;
+import io.chucknorris.lib.DateUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.text.DateFormat;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class DailyChuckPublisherTest {
+
+    private DateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd", Locale.ENGLISH);
+
+    private DailyChuck dailyChuck;
+
+    private DailyChuckPublisher dailyChuckPublisher;
+
+    @Mock
+    private DailyChuckService dailyChuckService;
+
+    @Mock
+    private DateUtil dateUtil;
+
+    @Mock
+    private JokeRepository jokeRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @Before
+    public void setUp() throws ParseException {
+        DailyChuckIssue dailyChuckIssue = new DailyChuckIssue();
+        dailyChuckIssue.setDate(dateFormat.parse("2019-01-01"));
+        dailyChuckIssue.setJokeId("c5k7tulvqjs76evwb3brfg");
+
+        dailyChuck = new DailyChuck();
+        dailyChuck.setIssues(new DailyChuckIssue[]{dailyChuckIssue});
+        dailyChuck.setIssueNumber(Long.valueOf(1));
+
+        meterRegistry = new SimpleMeterRegistry();
+        dailyChuckPublisher = new DailyChuckPublisher(
+            dailyChuckService,
+            dateUtil,
+            meterRegistry,
+            new ObjectMapper(),
+            "0 0 0 * * *"
+        );
+    }
+
+    @Test
+    public void testGetRenditionPublishesOnceAndServesRenderedBodies()
+        throws IOException, ParseException
+    {
+        stubPublication("2019-01-01");
+
+        DailyChuckPublisher.Rendition rendition = dailyChuckPublisher.getRendition();
+        assertSame(rendition, dailyChuckPublisher.getRendition());
+
+        String json = new String(rendition.getJson(), StandardCharsets.UTF_8);
+        assertTrue(json.contains("\"c5k7tulvqjs76evwb3brfg\""));
+
+        String rss = new String(rendition.getRss(), StandardCharsets.UTF_8);
+        assertTrue(rss.contains("<title>The Daily Chuck</title>"));
+        assertTrue(rss.contains("Chuck Norris can divide by zero."));
+
+        assertTrue(rendition.getJsonETag().startsWith("\""));
+        assertFalse(rendition.getJsonETag().equals(rendition.getRssETag()));
+        assertEquals(dateFormat.parse("2019-01-01").getTime(), rendition.getLastModified());
+
+        verify(dailyChuckService, times(1)).getOrPublishDailyChuck(dateFormat.parse("2019-01-01"));
+        verify(dailyChuckService, times(1)).toRss(dailyChuck);
+        verifyNoMoreInteractions(dailyChuckService);
+    }
+
+    @Test
+    public void testGetRenditionPublishesAgainOnTheNextDay() throws IOException, ParseException {
+        stubPublication("2019-01-01");
+        dailyChuckPublisher.getRendition();
+
+        DailyChuckIssue nextIssue = new DailyChuckIssue();
+        nextIssue.setDate(dateFormat.parse("2019-01-02"));
+        nextIssue.setJokeId("c5k7tulvqjs76evwb3brfg");
+
+        DailyChuck nextDailyChuck = new DailyChuck();
+        nextDailyChuck.setIssues(dailyChuck.getIssues().clone());
+        nextDailyChuck.setIssueNumber(dailyChuck.getIssueNumber());
+        nextDailyChuck.addIssue(nextIssue);
+
+        when(dateUtil.now()).thenReturn(dateFormat.parse("2019-01-02"));
+        when(dailyChuckService.getOrPublishDailyChuck(dateFormat.parse("2019-01-02")))
+            .thenReturn(nextDailyChuck);
+
+        assertEquals(
+            Long.valueOf(2),
+            dailyChuckPublisher.getRendition().getDailyChuck().getIssueNumber()
+        );
+
+        verify(dailyChuckService, times(1)).getOrPublishDailyChuck(dateFormat.parse("2019-01-01"));
+        verify(dailyChuckService, times(1)).getOrPublishDailyChuck(dateFormat.parse("2019-01-02"));
+    }
+
+    @Test
+    public void testGetRenditionServesPreviousRenditionWhilePublishing() throws Exception {
+        stubPublication("2019-01-01");
+        DailyChuckPublisher.Rendition previous = dailyChuckPublisher.getRendition();
+
+        CountDownLatch publishing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(dateUtil.now()).thenReturn(dateFormat.parse("2019-01-02"));
+        when(dailyChuckService.getOrPublishDailyChuck(dateFormat.parse("2019-01-02")))
+            .thenAnswer(invocation -> {
+                publishing.countDown();
+                release.await();
+                return dailyChuck;
+            });
+
+        Thread publisher = new Thread(() -> {
+            try {
+                dailyChuckPublisher.getRendition();
+            } catch (IOException exception) {
+                throw new RuntimeException(exception);
+            }
+        });
+        publisher.start();
+        assertTrue(publishing.await(5, TimeUnit.SECONDS));
+
+        assertSame(previous, dailyChuckPublisher.getRendition());
+
+        release.countDown();
+        publisher.join();
+
+        verify(dailyChuckService, times(1)).getOrPublishDailyChuck(dateFormat.parse("2019-01-02"));
+    }
+
+    @Test
+    public void testRunPublishesAndRecordsLastRun() throws IOException, ParseException {
+        assertTrue(Double.isNaN(gauge("application_daily_chuck_publisher_last_run_seconds")));
+        assertFalse(Double.isNaN(gauge("application_daily_chuck_publisher_next_run_seconds")));
+
+        stubPublication("2019-01-01");
+        dailyChuckPublisher.run();
+
+        assertFalse(Double.isNaN(gauge("application_daily_chuck_publisher_last_run_seconds")));
+        assertTrue(
+            gauge("application_daily_chuck_publisher_next_run_seconds")
+                > gauge("application_daily_chuck_publisher_last_run_seconds")
+        );
+
+        dailyChuckPublisher.getRendition();
+        verify(dailyChuckService, times(1)).getOrPublishDailyChuck(dateFormat.parse("2019-01-01"));
+    }
+
+    @Test
+    public void testRunRecordsLastRunIfPublishingFails() throws IOException, ParseException {
+        when(dateUtil.now()).thenReturn(dateFormat.parse("2019-01-01"));
+        when(dailyChuckService.getOrPublishDailyChuck(dateFormat.parse("2019-01-01")))
+            .thenThrow(new IOException("S3 is unavailable"));
+
+        dailyChuckPublisher.run();
+
+        assertFalse(Double.isNaN(gauge("application_daily_chuck_publisher_last_run_seconds")));
+    }
+
+    private void stubPublication(String date) throws IOException, ParseException {
+        when(dateUtil.now()).thenReturn(dateFormat.parse(date));
+        when(dailyChuckService.getOrPublishDailyChuck(dateFormat.parse(date)))
+            .thenReturn(dailyChuck);
+        when(dailyChuckService.toRss(any(DailyChuck.class))).thenAnswer(invocation ->
+            new DailyChuckRss("localhost", invocation.getArgument(0), jokeRepository, 1)
+        );
+        when(jokeRepository.findAllById(any())).thenReturn(Collections.singletonList(
+            Joke.builder()
+                .id("c5k7tulvqjs76evwb3brfg")
+                .value("Chuck Norris can divide by zero.")
+                .build()
+        ));
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).gauge().value();
+    }
+}
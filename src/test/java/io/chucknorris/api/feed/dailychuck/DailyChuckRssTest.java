@@ -1,3 +1,107 @@
+package io.chucknorris.api.feed.dailychuck;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import com.rometools.rome.feed.rss.Item;
+import io.chucknorris.api.joke.Joke;
+import io.chucknorris.api.joke.JokeRepository;
+import io.chucknorris.lib.exception.EntityNotFoundException;
+import java.text.DateFormat;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
 public class DailyChuckRssTest {
 
-}
\ No newline at end of file
+    private DateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd", Locale.ENGLISH);
+
+    private DailyChuck dailyChuck;
+
+    @Mock
+    private JokeRepository jokeRepository;
+
+    @Before
+    public void setUp() throws ParseException {
+        dailyChuck = new DailyChuck();
+        dailyChuck.setIssueNumber(Long.valueOf(1));
+        dailyChuck.setIssues(new DailyChuckIssue[]{issue("2019-01-01", "c5k7tulvqjs76evwb3brfg")});
+        dailyChuck.addIssue(issue("2019-01-03", "a1b2c3d4e5f6g7h8i9j0kl"));
+        dailyChuck.addIssue(issue("2019-01-02", "zz6pi9vwt9elmxqlevv8ja"));
+    }
+
+    @Test
+    public void testBuildFeedItemsReturnsLatestIssuesFromOneLookup() throws ParseException {
+        when(jokeRepository.findAllById(
+            Arrays.asList("a1b2c3d4e5f6g7h8i9j0kl", "zz6pi9vwt9elmxqlevv8ja")
+        )).thenReturn(Arrays.asList(
+            joke("zz6pi9vwt9elmxqlevv8ja", "Chuck Norris can divide by zero."),
+            joke("a1b2c3d4e5f6g7h8i9j0kl", "Chuck Norris counted to infinity. Twice.")
+        ));
+
+        List<Item> items = new DailyChuckRss("localhost", dailyChuck, jokeRepository, 2)
+            .buildFeedItems(Collections.emptyMap(), null, null);
+
+        assertEquals(2, items.size());
+        assertEquals("3", items.get(0).getTitle());
+        assertEquals(dateFormat.parse("2019-01-03"), items.get(0).getPubDate());
+        assertEquals(
+            "https://localhost/jokes/a1b2c3d4e5f6g7h8i9j0kl",
+            items.get(0).getLink()
+        );
+        assertEquals("2", items.get(1).getTitle());
+        assertEquals("Chuck Norris can divide by zero.", items.get(1).getContent().getValue());
+
+        verify(jokeRepository, times(1)).findAllById(
+            Arrays.asList("a1b2c3d4e5f6g7h8i9j0kl", "zz6pi9vwt9elmxqlevv8ja")
+        );
+        verifyNoMoreInteractions(jokeRepository);
+    }
+
+    @Test
+    public void testBuildFeedItemsDoesNotReorderTheDailyChuck() {
+        when(jokeRepository.findAllById(Collections.singletonList("a1b2c3d4e5f6g7h8i9j0kl")))
+            .thenReturn(Collections.singletonList(
+                joke("a1b2c3d4e5f6g7h8i9j0kl", "Chuck Norris counted to infinity. Twice.")
+            ));
+
+        new DailyChuckRss("localhost", dailyChuck, jokeRepository, 1)
+            .buildFeedItems(Collections.emptyMap(), null, null);
+
+        assertEquals("c5k7tulvqjs76evwb3brfg", dailyChuck.getIssues()[0].getJokeId());
+        assertEquals("zz6pi9vwt9elmxqlevv8ja", dailyChuck.getIssues()[2].getJokeId());
+    }
+
+    @Test(expected = EntityNotFoundException.class)
+    public void testBuildFeedItemsThrowsExceptionIfCurrentJokeDoesNotExist() {
+        when(jokeRepository.findAllById(Collections.singletonList("a1b2c3d4e5f6g7h8i9j0kl")))
+            .thenReturn(Collections.emptyList());
+
+        new DailyChuckRss("localhost", dailyChuck, jokeRepository, 1)
+            .buildFeedItems(Collections.emptyMap(), null, null);
+    }
+
+    private static Joke joke(String id, String value) {
+        return Joke.builder().id(id).value(value).build();
+    }
+
+    private DailyChuckIssue issue(String date, String jokeId) throws ParseException {
+        DailyChuckIssue dailyChuckIssue = new DailyChuckIssue();
+        dailyChuckIssue.setDate(dateFormat.parse(date));
+        dailyChuckIssue.setJokeId(jokeId);
+
+        return dailyChuckIssue;
+    }
+}
@@ -0,0 +1,267 @@
+package io.chucknorris.api.feed.dailychuck;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import com.amazonaws.services.s3.model.AmazonS3Exception;
+import com.amazonaws.services.s3.model.PutObjectResult;
+import io.chucknorris.api.joke.JokeRepository;
+import io.chucknorris.api.joke.RandomJokeEngine;
+import io.chucknorris.lib.event.EventService;
+import io.chucknorris.lib.exception.EntityNotFoundException;
+import java.io.IOException;
+import java.text.DateFormat;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@RunWith(MockitoJUnitRunner.class)
+public class DailyChuckServiceTest {
+
+    private DateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd", Locale.ENGLISH);
+
+    @Mock
+    private DailyChuckStore dailyChuckStore;
+
+    @InjectMocks
+    private DailyChuckService dailyChuckService;
+
+    @Mock
+    private EventService eventService;
+
+    @Mock
+    private JokeRepository jokeRepository;
+
+    @Mock
+    private RandomJokeEngine randomJokeEngine;
+
+    private Date today;
+
+    @Before
+    public void setUp() throws ParseException {
+        today = dateFormat.parse("2019-01-02");
+    }
+
+    @Test
+    public void testGetOrPublishDailyChuckReturnsDailyChuckIfIssueHasAlreadyBeenPublished()
+        throws IOException, ParseException
+    {
+        DailyChuck dailyChuck = dailyChuck(issue("2019-01-01", "c5k7tulvqjs76evwb3brfg"));
+        dailyChuck.addIssue(issue("2019-01-02", "zz6pi9vwt9elmxqlevv8ja"));
+
+        when(dailyChuckStore.get()).thenReturn(dailyChuck);
+
+        assertSame(dailyChuck, dailyChuckService.getOrPublishDailyChuck(today));
+
+        verify(dailyChuckStore, times(1)).get();
+        verifyNoMoreInteractions(dailyChuckStore);
+
+        verifyNoMoreInteractions(eventService);
+        verifyNoMoreInteractions(randomJokeEngine);
+    }
+
+    @Test
+    public void testGetOrPublishDailyChuckComposesPersistsAndPublishesIssue()
+        throws IOException, ParseException
+    {
+        when(dailyChuckStore.get())
+            .thenReturn(dailyChuck(issue("2019-01-01", "c5k7tulvqjs76evwb3brfg")));
+        when(dailyChuckStore.getRevision()).thenReturn(new DailyChuckStore.Revision(
+            dailyChuck(issue("2019-01-01", "c5k7tulvqjs76evwb3brfg")),
+            "etag-1"
+        ));
+        when(randomJokeEngine.randomJokeIdExcluding(any())).thenReturn("zz6pi9vwt9elmxqlevv8ja");
+
+        DailyChuck dailyChuck = dailyChuckService.getOrPublishDailyChuck(today);
+
+        assertEquals(Long.valueOf(2), dailyChuck.getIssueNumber());
+        assertEquals("zz6pi9vwt9elmxqlevv8ja", dailyChuck.findIssueByDate(today).getJokeId());
+
+        verify(dailyChuckStore, times(1)).get();
+        verify(dailyChuckStore, times(1)).getRevision();
+        verify(dailyChuckStore, times(1)).put(dailyChuck, "etag-1");
+        verifyNoMoreInteractions(dailyChuckStore);
+
+        verify(eventService, times(1)).publishEvent(any(DailyChuckPublishedEvent.class));
+        verifyNoMoreInteractions(eventService);
+    }
+
+    @Test
+    public void testGetOrPublishDailyChuckDoesNotPublishIfAnotherInstanceWonTheWrite()
+        throws IOException, ParseException
+    {
+        AmazonS3Exception preconditionFailed = new AmazonS3Exception("Precondition Failed");
+        preconditionFailed.setStatusCode(412);
+
+        DailyChuck published = dailyChuck(issue("2019-01-01", "c5k7tulvqjs76evwb3brfg"));
+        published.addIssue(issue("2019-01-02", "zz6pi9vwt9elmxqlevv8ja"));
+
+        when(dailyChuckStore.get())
+            .thenReturn(dailyChuck(issue("2019-01-01", "c5k7tulvqjs76evwb3brfg")));
+        when(dailyChuckStore.getRevision())
+            .thenReturn(new DailyChuckStore.Revision(
+                dailyChuck(issue("2019-01-01", "c5k7tulvqjs76evwb3brfg")),
+                "etag-1"
+            ))
+            .thenReturn(new DailyChuckStore.Revision(published, "etag-2"));
+        when(randomJokeEngine.randomJokeIdExcluding(any())).thenReturn("a1b2c3d4e5f6g7h8i9j0kl");
+        when(dailyChuckStore.put(any(DailyChuck.class), eq("etag-1")))
+            .thenThrow(preconditionFailed);
+
+        assertSame(published, dailyChuckService.getOrPublishDailyChuck(today));
+
+        verify(dailyChuckStore, times(1)).get();
+        verify(dailyChuckStore, times(2)).getRevision();
+        verify(dailyChuckStore, times(1)).put(any(DailyChuck.class), eq("etag-1"));
+        verify(dailyChuckStore, times(1)).revalidate();
+        verifyNoMoreInteractions(dailyChuckStore);
+
+        verifyNoMoreInteractions(eventService);
+    }
+
+    @Test(expected = EntityNotFoundException.class)
+    public void testComposeDailyChuckIssueThrowsExceptionIfEveryJokeHasBeenIssued()
+        throws ParseException
+    {
+        when(randomJokeEngine.randomJokeIdExcluding(any())).thenReturn(null);
+
+        dailyChuckService.composeDailyChuckIssue(
+            dailyChuck(issue("2019-01-01", "c5k7tulvqjs76evwb3brfg"))
+        );
+    }
+
+    @Test
+    public void testGetOrPublishDailyChuckPublishesOnceForConcurrentCallers() throws Exception {
+        int callers = 4;
+        AtomicReference<DailyChuck> stored = new AtomicReference<>(
+            dailyChuck(issue("2019-01-01", "c5k7tulvqjs76evwb3brfg"))
+        );
+        AtomicInteger reads = new AtomicInteger();
+        CountDownLatch leaderWriting = new CountDownLatch(1);
+        CountDownLatch releaseLeader = new CountDownLatch(1);
+
+        when(dailyChuckStore.get()).thenAnswer(invocation -> {
+            reads.incrementAndGet();
+            return stored.get();
+        });
+        when(dailyChuckStore.getRevision()).thenAnswer(invocation -> {
+            DailyChuck dailyChuck = new DailyChuck();
+            dailyChuck.setIssueNumber(stored.get().getIssueNumber());
+            dailyChuck.setIssues(stored.get().getIssues().clone());
+            return new DailyChuckStore.Revision(dailyChuck, "etag-" + dailyChuck.getIssueNumber());
+        });
+        when(randomJokeEngine.randomJokeIdExcluding(any())).thenReturn("zz6pi9vwt9elmxqlevv8ja");
+        when(dailyChuckStore.put(any(DailyChuck.class), eq("etag-1"))).thenAnswer(invocation -> {
+            leaderWriting.countDown();
+            releaseLeader.await(5, TimeUnit.SECONDS);
+            stored.set(invocation.getArgument(0));
+            return new PutObjectResult();
+        });
+
+        ExecutorService executorService = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<DailyChuck>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executorService.submit(
+                    () -> dailyChuckService.getOrPublishDailyChuck(today)
+                ));
+            }
+
+            leaderWriting.await(5, TimeUnit.SECONDS);
+            while (reads.get() < callers) {
+                Thread.sleep(1);
+            }
+            releaseLeader.countDown();
+
+            for (Future<DailyChuck> result : results) {
+                assertEquals(
+                    "zz6pi9vwt9elmxqlevv8ja",
+                    result.get(5, TimeUnit.SECONDS).findIssueByDate(today).getJokeId()
+                );
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        verify(dailyChuckStore, times(1)).put(any(DailyChuck.class), any());
+        verify(randomJokeEngine, times(1)).randomJokeIdExcluding(any());
+        verify(eventService, times(1)).publishEvent(any(DailyChuckPublishedEvent.class));
+    }
+
+    @Test
+    public void testGetOrPublishDailyChuckStopsWaitingForAHangingLeader() throws Exception {
+        ReflectionTestUtils.setField(dailyChuckService, "publishWaitTimeout", 50L);
+
+        DailyChuck stored = dailyChuck(issue("2019-01-01", "c5k7tulvqjs76evwb3brfg"));
+        CountDownLatch leaderWriting = new CountDownLatch(1);
+        CountDownLatch releaseLeader = new CountDownLatch(1);
+
+        when(dailyChuckStore.get()).thenReturn(stored);
+        when(dailyChuckStore.getRevision()).thenReturn(new DailyChuckStore.Revision(
+            dailyChuck(issue("2019-01-01", "c5k7tulvqjs76evwb3brfg")),
+            "etag-1"
+        ));
+        when(randomJokeEngine.randomJokeIdExcluding(any())).thenReturn("zz6pi9vwt9elmxqlevv8ja");
+        when(dailyChuckStore.put(any(DailyChuck.class), eq("etag-1"))).thenAnswer(invocation -> {
+            leaderWriting.countDown();
+            releaseLeader.await(5, TimeUnit.SECONDS);
+            return new PutObjectResult();
+        });
+
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            Future<DailyChuck> leader = executorService.submit(
+                () -> dailyChuckService.getOrPublishDailyChuck(today)
+            );
+            leaderWriting.await(5, TimeUnit.SECONDS);
+
+            assertSame(stored, dailyChuckService.getOrPublishDailyChuck(today));
+
+            releaseLeader.countDown();
+            leader.get(5, TimeUnit.SECONDS);
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        verify(dailyChuckStore, times(1)).put(any(DailyChuck.class), any());
+    }
+
+    private static DailyChuck dailyChuck(DailyChuckIssue dailyChuckIssue) {
+        DailyChuck dailyChuck = new DailyChuck();
+        dailyChuck.setIssueNumber(Long.valueOf(1));
+        dailyChuck.setIssues(new DailyChuckIssue[]{dailyChuckIssue});
+
+        return dailyChuck;
+    }
+
+    private DailyChuckIssue issue(String date, String jokeId) throws ParseException {
+        DailyChuckIssue dailyChuckIssue = new DailyChuckIssue();
+        dailyChuckIssue.setDate(dateFormat.parse(date));
+        dailyChuckIssue.setJokeId(jokeId);
+
+        return dailyChuckIssue;
+    }
+}
@@ -0,0 +1,197 @@
+package io.chucknorris.api.feed.dailychuck;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+
+import com.amazonaws.services.s3.AbstractAmazonS3;
+import com.amazonaws.services.s3.Headers;
+import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.amazonaws.services.s3.model.PutObjectResult;
+import com.amazonaws.services.s3.model.S3Object;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Date;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.StreamUtils;
+
+public class DailyChuckStoreTest {
+
+    private FakeAmazonS3 amazonS3;
+    private DailyChuckStore dailyChuckStore;
+
+    @Before
+    public void setUp() throws IOException {
+        amazonS3 = new FakeAmazonS3();
+        amazonS3.store(dailyChuck(1L, "c5k7tulvqjs76evwb3brfg"));
+
+        dailyChuckStore = new DailyChuckStore(amazonS3);
+        ReflectionTestUtils.setField(dailyChuckStore, "bucketName", "bucket");
+        ReflectionTestUtils.setField(dailyChuckStore, "keyName", "index.json");
+    }
+
+    @Test
+    public void testGetLoadsDocumentOnceAndServesItFromMemory() throws IOException {
+        assertEquals(Long.valueOf(1), dailyChuckStore.get().getIssueNumber());
+        assertEquals(Long.valueOf(1), dailyChuckStore.get().getIssueNumber());
+
+        assertEquals(1, amazonS3.getCount);
+        assertEquals(1, amazonS3.transferCount);
+    }
+
+    @Test
+    public void testGetReturnsCopyThatDoesNotAffectTheCache() throws IOException {
+        DailyChuck dailyChuck = dailyChuckStore.get();
+        dailyChuck.setIssueNumber(2L);
+        dailyChuck.addIssue(issue("zz6pi9vwt9elmxqlevv8ja"));
+
+        DailyChuck cached = dailyChuckStore.get();
+
+        assertNotSame(dailyChuck, cached);
+        assertEquals(Long.valueOf(1), cached.getIssueNumber());
+        assertEquals(1, cached.getIssues().length);
+    }
+
+    @Test
+    public void testRevalidateSkipsTransferIfETagIsUnchanged() throws IOException {
+        dailyChuckStore.get();
+        dailyChuckStore.revalidate();
+
+        assertEquals(2, amazonS3.getCount);
+        assertEquals(1, amazonS3.transferCount);
+        assertEquals("\"etag-1\"", amazonS3.lastNonmatchingETag);
+    }
+
+    @Test
+    public void testRevalidatePicksUpDocumentChangedInS3() throws IOException {
+        dailyChuckStore.get();
+        amazonS3.store(dailyChuck(2L, "c5k7tulvqjs76evwb3brfg", "zz6pi9vwt9elmxqlevv8ja"));
+
+        dailyChuckStore.revalidate();
+
+        DailyChuck dailyChuck = dailyChuckStore.get();
+        assertEquals(Long.valueOf(2), dailyChuck.getIssueNumber());
+        assertEquals(2, dailyChuck.getIssues().length);
+        assertEquals(2, amazonS3.transferCount);
+    }
+
+    @Test
+    public void testPutWritesThroughAndUpdatesTheCache() throws IOException {
+        dailyChuckStore.get();
+
+        DailyChuck dailyChuck = dailyChuckStore.get();
+        dailyChuck.setIssueNumber(2L);
+        dailyChuck.addIssue(issue("zz6pi9vwt9elmxqlevv8ja"));
+
+        PutObjectResult putObjectResult = dailyChuckStore.put(dailyChuck);
+        assertEquals("\"etag-2\"", putObjectResult.getETag());
+        assertEquals(1, amazonS3.putCount);
+
+        DailyChuck cached = dailyChuckStore.get();
+        assertEquals(Long.valueOf(2), cached.getIssueNumber());
+        assertEquals(2, cached.getIssues().length);
+
+        // The written document is not transferred back from S3.
+        dailyChuckStore.revalidate();
+        assertEquals(1, amazonS3.transferCount);
+        assertEquals("\"etag-2\"", amazonS3.lastNonmatchingETag);
+    }
+
+    @Test
+    public void testGetLoadsDocumentAfterPutWithoutPriorRead() throws IOException {
+        dailyChuckStore.put(dailyChuck(5L));
+
+        assertEquals(Long.valueOf(5), dailyChuckStore.get().getIssueNumber());
+        assertEquals(0, amazonS3.getCount);
+        assertNull(amazonS3.lastNonmatchingETag);
+    }
+
+    private static DailyChuck dailyChuck(Long issueNumber, String... jokeIds) {
+        DailyChuck dailyChuck = new DailyChuck();
+        dailyChuck.setIssueNumber(issueNumber);
+
+        DailyChuckIssue[] issues = new DailyChuckIssue[jokeIds.length];
+        for (int i = 0; i < jokeIds.length; i++) {
+            issues[i] = issue(jokeIds[i]);
+        }
+        dailyChuck.setIssues(issues);
+
+        return dailyChuck;
+    }
+
+    private static DailyChuckIssue issue(String jokeId) {
+        DailyChuckIssue dailyChuckIssue = new DailyChuckIssue();
+        dailyChuckIssue.setDate(new Date(0));
+        dailyChuckIssue.setJokeId(jokeId);
+
+        return dailyChuckIssue;
+    }
+
+    private static class FakeAmazonS3 extends AbstractAmazonS3 {
+
+        private final ObjectMapper objectMapper = new ObjectMapper();
+
+        private byte[] content;
+        private String eTag;
+        private int version;
+
+        private int getCount;
+        private int transferCount;
+        private int putCount;
+        private String lastNonmatchingETag;
+
+        private void store(DailyChuck dailyChuck) throws IOException {
+            store(objectMapper.writeValueAsBytes(dailyChuck));
+        }
+
+        private void store(byte[] content) {
+            this.content = content;
+            this.eTag = "\"etag-" + (++version) + "\"";
+        }
+
+        @Override
+        public S3Object getObject(GetObjectRequest getObjectRequest) {
+            getCount++;
+
+            if (!getObjectRequest.getNonmatchingETagConstraints().isEmpty()) {
+                lastNonmatchingETag = getObjectRequest.getNonmatchingETagConstraints().get(0);
+                if (lastNonmatchingETag.equals(eTag)) {
+                    return null;
+                }
+            }
+
+            transferCount++;
+
+            ObjectMetadata metadata = new ObjectMetadata();
+            metadata.setHeader(Headers.ETAG, eTag);
+
+            S3Object object = new S3Object();
+            object.setObjectContent(new ByteArrayInputStream(content));
+            object.setObjectMetadata(metadata);
+
+            return object;
+        }
+
+        @Override
+        public PutObjectResult putObject(PutObjectRequest putObjectRequest) {
+            putCount++;
+
+            try {
+                store(StreamUtils.copyToByteArray(putObjectRequest.getInputStream()));
+            } catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+
+            PutObjectResult putObjectResult = new PutObjectResult();
+            putObjectResult.setETag(eTag);
+
+            return putObjectResult;
+        }
+    }
+}
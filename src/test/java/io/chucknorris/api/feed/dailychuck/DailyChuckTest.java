@@ -1,7 +1,14 @@
 package io.chucknorris.api.feed.dailychuck;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
 import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
@@ -50,4 +57,65 @@ public class DailyChuckTest {
             dateFormat.parse("2019-01-01")
         ), dailyChuckIssue);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testFindIssueByDateMatchesAnyTimeOfTheDay() throws ParseException {
+        DateFormat dateTimeFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm", Locale.ENGLISH);
+
+        assertEquals(dailyChuckIssue, dailyChuck.findIssueByDate(
+            dateTimeFormat.parse("2019-01-01 23:59")
+        ));
+        assertNull(dailyChuck.findIssueByDate(
+            dateTimeFormat.parse("2019-01-02 00:00")
+        ));
+    }
+
+    @Test
+    public void testAddIssueIndexesIssueAndIncreasesIssueNumber() throws ParseException {
+        dailyChuck.setIssueNumber(Long.valueOf(1));
+
+        DailyChuckIssue newDailyChuckIssue = new DailyChuckIssue();
+        newDailyChuckIssue.setDate(dateFormat.parse("2019-01-02"));
+        newDailyChuckIssue.setJokeId("zz6pi9vwt9elmxqlevv8ja");
+
+        assertFalse(dailyChuck.containsJokeId("zz6pi9vwt9elmxqlevv8ja"));
+
+        dailyChuck.addIssue(newDailyChuckIssue);
+
+        assertEquals(Long.valueOf(2), dailyChuck.getIssueNumber());
+        assertTrue(dailyChuck.containsJokeId("zz6pi9vwt9elmxqlevv8ja"));
+        assertEquals(newDailyChuckIssue, dailyChuck.findIssueByDate(dateFormat.parse("2019-01-02")));
+        assertArrayEquals(
+            new DailyChuckIssue[]{dailyChuckIssue, newDailyChuckIssue},
+            dailyChuck.getIssues()
+        );
+    }
+
+    @Test
+    public void testSetIssuesReplacesIndexedIssues() {
+        dailyChuck.setIssues(new DailyChuckIssue[0]);
+
+        assertFalse(dailyChuck.containsJokeId("c5k7tulvqjs76evwb3brfg"));
+        assertNull(dailyChuck.findIssueByJokeId("c5k7tulvqjs76evwb3brfg"));
+        assertEquals(0, dailyChuck.getIssues().length);
+    }
+
+    @Test
+    public void testJsonFormatIsUnchanged() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        dailyChuck.setIssueNumber(Long.valueOf(1));
+
+        JsonNode json = objectMapper.readTree(objectMapper.writeValueAsString(dailyChuck));
+        assertEquals(2, json.size());
+        assertEquals(1, json.get("issueNumber").asLong());
+        assertEquals("c5k7tulvqjs76evwb3brfg", json.get("issues").get(0).get("jokeId").asText());
+
+        DailyChuck deserialized = objectMapper.readValue(
+            "{\"issueNumber\":1,\"issues\":[{\"date\":1546300800000,"
+                + "\"jokeId\":\"c5k7tulvqjs76evwb3brfg\"}]}",
+            DailyChuck.class
+        );
+        assertEquals(Long.valueOf(1), deserialized.getIssueNumber());
+        assertTrue(deserialized.containsJokeId("c5k7tulvqjs76evwb3brfg"));
+    }
+}
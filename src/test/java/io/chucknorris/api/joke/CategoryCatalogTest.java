@@ -0,0 +1,66 @@
+package io.chucknorris.api.joke;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CategoryCatalogTest {
+
+  @InjectMocks
+  private CategoryCatalog categoryCatalog;
+
+  @Mock
+  private JokeRepository jokeRepository;
+
+  @Test
+  public void testSnapshotIsLoadedOnceOnFirstAccess() {
+    when(jokeRepository.findAllCategories()).thenReturn(new String[]{"animal", "dev"});
+
+    assertArrayEquals(new String[]{"animal", "dev"}, categoryCatalog.getCategories());
+    assertTrue(categoryCatalog.contains("dev"));
+    assertFalse(categoryCatalog.contains("does-not-exist"));
+
+    CategoryCatalog.Snapshot snapshot = categoryCatalog.getSnapshot();
+    assertEquals(1, snapshot.getVersion());
+    assertEquals("[\"animal\",\"dev\"]", snapshot.getJson());
+    assertEquals("animal\ndev\n", snapshot.getText());
+    assertNotEquals(snapshot.getJsonETag(), snapshot.getTextETag());
+
+    verify(jokeRepository, times(1)).findAllCategories();
+    verifyNoMoreInteractions(jokeRepository);
+  }
+
+  @Test
+  public void testRefreshOnlyBumpsVersionIfCategoriesHaveChanged() {
+    when(jokeRepository.findAllCategories()).thenReturn(
+        new String[]{"dev"},
+        new String[]{"dev"},
+        new String[]{"dev", "movie"}
+    );
+
+    categoryCatalog.refresh();
+    CategoryCatalog.Snapshot first = categoryCatalog.getSnapshot();
+
+    categoryCatalog.refresh();
+    assertEquals(first, categoryCatalog.getSnapshot());
+
+    categoryCatalog.refresh();
+    CategoryCatalog.Snapshot changed = categoryCatalog.getSnapshot();
+    assertEquals(2, changed.getVersion());
+    assertTrue(categoryCatalog.contains("movie"));
+    assertNotEquals(first.getJsonETag(), changed.getJsonETag());
+  }
+}
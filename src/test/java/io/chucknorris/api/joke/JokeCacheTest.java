@@ -0,0 +1,176 @@
+package io.chucknorris.api.joke;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class JokeCacheTest {
+
+  private static Joke joke, otherJoke;
+
+  private AtomicLong clock;
+
+  private JokeCache jokeCache;
+
+  @Mock
+  private JokeRepository jokeRepository;
+
+  private MeterRegistry meterRegistry;
+
+  @Before
+  public void setUp() {
+    joke = Joke.builder()
+        .id("ys--0t_-rrifz5jtcparbg")
+        .value("Chuck Norris programs do not accept input.")
+        .build();
+    otherJoke = Joke.builder()
+        .id("bg_h3xursougaxzprcrl0q")
+        .value("Chuck Norris doesn't read books. He stares them down until he gets the information.")
+        .build();
+
+    clock = new AtomicLong();
+    meterRegistry = new SimpleMeterRegistry();
+    jokeCache = new JokeCache(jokeRepository, meterRegistry, 1, 1000, 1, 100, clock::get);
+  }
+
+  @Test
+  public void testFindByIdLoadsJokeOnlyOnce() {
+    when(jokeRepository.findById(joke.getId())).thenReturn(Optional.of(joke));
+
+    assertEquals(Optional.of(joke), jokeCache.findById(joke.getId()));
+    assertEquals(Optional.of(joke), jokeCache.findById(joke.getId()));
+
+    verify(jokeRepository, times(1)).findById(joke.getId());
+    verifyNoMoreInteractions(jokeRepository);
+
+    assertEquals(1, count("application_joke_cache", "result", "hit"), 0);
+    assertEquals(1, count("application_joke_cache", "result", "miss"), 0);
+  }
+
+  @Test
+  public void testFindByIdCountsLookupsWaitingForALoadAsCoalesced() throws Exception {
+    CountDownLatch loading = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    when(jokeRepository.findById(joke.getId())).thenAnswer(invocation -> {
+      loading.countDown();
+      release.await();
+      return Optional.of(joke);
+    });
+
+    ExecutorService executorService = Executors.newFixedThreadPool(2);
+    try {
+      Future<Optional<Joke>> leader = executorService.submit(
+          () -> jokeCache.findById(joke.getId())
+      );
+      loading.await();
+      Future<Optional<Joke>> follower = executorService.submit(
+          () -> jokeCache.findById(joke.getId())
+      );
+
+      while (count("application_joke_cache", "result", "coalesced") == 0) {
+        Thread.sleep(1);
+      }
+      release.countDown();
+
+      assertEquals(Optional.of(joke), leader.get(1, TimeUnit.SECONDS));
+      assertEquals(Optional.of(joke), follower.get(1, TimeUnit.SECONDS));
+    } finally {
+      executorService.shutdownNow();
+    }
+
+    verify(jokeRepository, times(1)).findById(joke.getId());
+    verifyNoMoreInteractions(jokeRepository);
+
+    assertEquals(0, count("application_joke_cache", "result", "hit"), 0);
+    assertEquals(1, count("application_joke_cache", "result", "miss"), 0);
+    assertEquals(1, count("application_joke_cache", "result", "coalesced"), 0);
+  }
+
+  @Test
+  public void testFindByIdCachesUnknownIdsForShorterPeriod() {
+    when(jokeRepository.findById("does-not-exist")).thenReturn(Optional.empty());
+
+    assertFalse(jokeCache.findById("does-not-exist").isPresent());
+    clock.set(99);
+    assertFalse(jokeCache.findById("does-not-exist").isPresent());
+    clock.set(100);
+    assertFalse(jokeCache.findById("does-not-exist").isPresent());
+
+    verify(jokeRepository, times(2)).findById("does-not-exist");
+    verifyNoMoreInteractions(jokeRepository);
+
+    assertEquals(1, count("application_joke_cache_eviction", "cause", "expired"), 0);
+  }
+
+  @Test
+  public void testFindByIdEvictsLeastRecentlyUsedJoke() {
+    when(jokeRepository.findById(joke.getId())).thenReturn(Optional.of(joke));
+    when(jokeRepository.findById(otherJoke.getId())).thenReturn(Optional.of(otherJoke));
+
+    jokeCache.findById(joke.getId());
+    jokeCache.findById(otherJoke.getId());
+    jokeCache.findById(joke.getId());
+
+    verify(jokeRepository, times(2)).findById(joke.getId());
+    verify(jokeRepository, times(1)).findById(otherJoke.getId());
+    verifyNoMoreInteractions(jokeRepository);
+
+    assertEquals(1, jokeCache.size());
+    assertEquals(2, count("application_joke_cache_eviction", "cause", "size"), 0);
+  }
+
+  @Test
+  public void testFindByIdKeepsUnknownIdsApartFromJokes() {
+    when(jokeRepository.findById(joke.getId())).thenReturn(Optional.of(joke));
+    when(jokeRepository.findById("does-not-exist")).thenReturn(Optional.empty());
+    when(jokeRepository.findById("does-not-exist-either")).thenReturn(Optional.empty());
+
+    jokeCache.findById(joke.getId());
+    jokeCache.findById("does-not-exist");
+    jokeCache.findById("does-not-exist-either");
+    assertEquals(Optional.of(joke), jokeCache.findById(joke.getId()));
+
+    verify(jokeRepository, times(1)).findById(joke.getId());
+    verify(jokeRepository, times(1)).findById("does-not-exist");
+    verify(jokeRepository, times(1)).findById("does-not-exist-either");
+    verifyNoMoreInteractions(jokeRepository);
+
+    assertEquals(2, jokeCache.size());
+    assertEquals(1, count("application_joke_cache_eviction", "cause", "size"), 0);
+  }
+
+  @Test
+  public void testEvictExpiredRemovesExpiredEntries() {
+    when(jokeRepository.findById(joke.getId())).thenReturn(Optional.of(joke));
+
+    jokeCache.findById(joke.getId());
+    clock.set(1000);
+    jokeCache.evictExpired();
+
+    assertEquals(0, jokeCache.size());
+    assertEquals(1, count("application_joke_cache_eviction", "cause", "expired"), 0);
+  }
+
+  private double count(String name, String tagKey, String tagValue) {
+    return meterRegistry.get(name).tag(tagKey, tagValue).counter().count();
+  }
+}
@@ -1,13 +1,22 @@
 package io.chucknorris.api.joke;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import io.chucknorris.lib.exception.EntityNotFoundException;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.Arrays;
 import java.util.Optional;
 import org.junit.Before;
 import org.junit.Test;
@@ -15,24 +24,52 @@ import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RunWith(MockitoJUnitRunner.class)
 public class JokeControllerTest {
 
   private static String jokeId, jokeValue;
+  private static byte[] jokeJson;
   private static Joke joke;
 
+  @Mock
+  private CategoryCatalog categoryCatalog;
+
+  @Mock
+  private JokeCache jokeCache;
+
   @InjectMocks
   private JokeController jokeController;
 
   @Mock
-  private JokeRepository jokeRepository;
+  private JokeJsonCache jokeJsonCache;
+
+  @Mock
+  private JokeNavigationIndex jokeNavigationIndex;
+
+  @Mock
+  private JokeSearchIndex jokeSearchIndex;
 
   @Mock
   private MockHttpServletResponse httpServletResponse;
 
+  @Mock
+  private PersonalizedJokeEngine personalizedJokeEngine;
+
+  @Mock
+  private RandomJokeEngine randomJokeEngine;
+
   @Before
   public void setUp() {
     jokeId = "ys--0t_-rrifz5jtcparbg";
@@ -40,155 +77,249 @@ public class JokeControllerTest {
     joke = Joke.builder()
         .categories(new String[]{"dev"})
         .id(jokeId)
+        .updatedAt("2019-06-02 08:47:39.408742")
         .value(jokeValue)
         .build();
+    jokeJson = ("{\"id\":\"" + jokeId + "\"}").getBytes(StandardCharsets.UTF_8);
+
+    ReflectionTestUtils.setField(jokeController, "cacheMaxAge", 86400L);
   }
 
   @Test
   public void testGetCategories() {
-    when(jokeRepository.findAllCategories()).thenReturn(
-        new String[]{"dev", "animal"}
+    CategoryCatalog.Snapshot snapshot = new CategoryCatalog.Snapshot(
+        1, new String[]{"dev", "animal"}
     );
+    when(categoryCatalog.getSnapshot()).thenReturn(snapshot);
 
-    String[] categories = jokeController.getCategories();
-    assertEquals("dev", categories[0]);
-    assertEquals("animal", categories[1]);
-    assertEquals(2, categories.length);
+    ResponseEntity<String> response = jokeController.getCategories();
+    assertEquals("[\"dev\",\"animal\"]", response.getBody());
+    assertEquals(snapshot.getJsonETag(), response.getHeaders().getETag());
 
-    verify(jokeRepository, times(1)).findAllCategories();
-    verifyNoMoreInteractions(jokeRepository);
+    verify(categoryCatalog, times(1)).getSnapshot();
+    verifyNoMoreInteractions(categoryCatalog);
   }
 
   @Test
   public void testGetCategoryValues() {
-    when(jokeRepository.findAllCategories()).thenReturn(new String[]{"dev", "animal"});
+    CategoryCatalog.Snapshot snapshot = new CategoryCatalog.Snapshot(
+        1, new String[]{"dev", "animal"}
+    );
+    when(categoryCatalog.getSnapshot()).thenReturn(snapshot);
 
-    String categoryValues = jokeController.getCategoryValues();
-    assertEquals("dev\nanimal\n", categoryValues);
+    ResponseEntity<String> response = jokeController.getCategoryValues();
+    assertEquals("dev\nanimal\n", response.getBody());
+    assertEquals(snapshot.getTextETag(), response.getHeaders().getETag());
 
-    verify(jokeRepository, times(1)).findAllCategories();
-    verifyNoMoreInteractions(jokeRepository);
+    verify(categoryCatalog, times(1)).getSnapshot();
+    verifyNoMoreInteractions(categoryCatalog);
   }
 
   @Test
-  public void testGetJokeReturnsJoke() {
-    when(jokeRepository.findById(jokeId)).thenReturn(Optional.of(joke));
+  public void testGetJokeReturnsJokeWithValidators() throws JsonProcessingException {
+    when(jokeCache.findById(jokeId)).thenReturn(Optional.of(joke));
+    when(jokeJsonCache.toJson(joke)).thenReturn(jokeJson);
 
-    Joke joke = jokeController.getJoke(jokeId);
-    assertEquals(JokeControllerTest.joke, joke);
+    ResponseEntity<Joke> response = jokeController.getJoke(jokeId);
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals(JokeControllerTest.joke, response.getBody());
+    assertEquals(
+        "\"" + DigestUtils.md5DigestAsHex(jokeJson) + "\"",
+        response.getHeaders().getETag()
+    );
+    assertEquals(
+        Timestamp.valueOf("2019-06-02 08:47:39").getTime(),
+        response.getHeaders().getLastModified()
+    );
+    assertEquals("max-age=86400, public", response.getHeaders().getCacheControl());
 
-    verify(jokeRepository, times(1)).findById(jokeId);
-    verifyNoMoreInteractions(jokeRepository);
+    verify(jokeCache, times(1)).findById(jokeId);
+    verifyNoMoreInteractions(jokeCache);
+  }
+
+  @Test
+  public void testGetJokeOmitsLastModifiedIfUpdatedAtIsUnknown() throws JsonProcessingException {
+    Joke joke = JokeControllerTest.joke.toBuilder().updatedAt(null).build();
+    when(jokeCache.findById(jokeId)).thenReturn(Optional.of(joke));
+    when(jokeJsonCache.toJson(joke)).thenReturn(jokeJson);
+
+    ResponseEntity<Joke> response = jokeController.getJoke(jokeId);
+    assertEquals(-1, response.getHeaders().getLastModified());
+    assertNotNull(response.getHeaders().getETag());
   }
 
   @Test(expected = EntityNotFoundException.class)
-  public void testGetJokeThrowsException() {
-    when(jokeRepository.findById("does-not-exist")).thenThrow(new EntityNotFoundException(""));
+  public void testGetJokeThrowsException() throws JsonProcessingException {
+    when(jokeCache.findById("does-not-exist")).thenThrow(new EntityNotFoundException(""));
 
     jokeController.getJoke("does-not-exist");
 
-    verify(jokeRepository, times(1)).findById("does-not-exist");
-    verifyNoMoreInteractions(jokeRepository);
+    verify(jokeCache, times(1)).findById("does-not-exist");
+    verifyNoMoreInteractions(jokeCache);
   }
 
   @Test
-  public void testGetJokeValueReturnsJokeValue() {
-    when(jokeRepository.findById(jokeId)).thenReturn(Optional.of(joke));
+  public void testGetJokeValueReturnsJokeValueWithValidators() {
+    when(jokeCache.findById(jokeId)).thenReturn(Optional.of(joke));
 
-    String jokeValue = jokeController.getJokeValue(jokeId, this.httpServletResponse);
-    assertEquals(joke.getValue(), jokeValue);
+    ResponseEntity<String> response = jokeController.getJokeValue(jokeId);
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals(joke.getValue(), response.getBody());
+    assertEquals(
+        "\"" + DigestUtils.md5DigestAsHex(jokeValue.getBytes(StandardCharsets.UTF_8)) + "\"",
+        response.getHeaders().getETag()
+    );
+    assertEquals(
+        Timestamp.valueOf("2019-06-02 08:47:39").getTime(),
+        response.getHeaders().getLastModified()
+    );
+    assertEquals("max-age=86400, public", response.getHeaders().getCacheControl());
 
-    verify(jokeRepository, times(1)).findById(jokeId);
-    verifyNoMoreInteractions(jokeRepository);
+    verify(jokeCache, times(1)).findById(jokeId);
+    verifyNoMoreInteractions(jokeCache);
   }
 
   @Test
   public void testGetJokeValueReturnsEmptyStringIfEntityNotFound() {
-    when(jokeRepository.findById("does-not-exist")).thenThrow(new EntityNotFoundException(""));
+    when(jokeCache.findById("does-not-exist")).thenThrow(new EntityNotFoundException(""));
 
-    String jokeValue = jokeController.getJokeValue("does-not-exist", this.httpServletResponse);
-    assertEquals("", jokeValue);
+    ResponseEntity<String> response = jokeController.getJokeValue("does-not-exist");
+    assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    assertEquals("", response.getBody());
 
-    verify(jokeRepository, times(1)).findById("does-not-exist");
-    verify(this.httpServletResponse).setStatus(404);
-    verifyNoMoreInteractions(jokeRepository);
+    verify(jokeCache, times(1)).findById("does-not-exist");
+    verifyNoMoreInteractions(jokeCache);
   }
 
   @Test
-  public void getJokeViewReturnsModelAndView() {
-    when(jokeRepository.findById(jokeId)).thenReturn(Optional.of(joke));
-    when(jokeRepository.getJokeWindow(jokeId)).thenReturn(
-        jokeId + ',' + "yvrhbpauspegla4pf7dxna" + ',' + "id4dTcDiRneK4btgOGpNNw"
+  public void getJokeViewReturnsModelAndView() throws JsonProcessingException {
+    when(jokeCache.findById(jokeId)).thenReturn(Optional.of(joke));
+    when(jokeJsonCache.toJson(joke)).thenReturn(jokeJson);
+    when(jokeNavigationIndex.getJokeWindow(jokeId)).thenReturn(
+        new String[]{jokeId, "yvrhbpauspegla4pf7dxna", "id4dTcDiRneK4btgOGpNNw"}
     );
 
-    ModelAndView view = jokeController.getJokeView(jokeId);
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    ModelAndView view = jokeController.getJokeView(
+        jokeId,
+        new ServletWebRequest(new MockHttpServletRequest("GET", "/jokes/" + jokeId), response),
+        response
+    );
     assertEquals(joke, view.getModel().get("joke"));
     assertEquals("/jokes/yvrhbpauspegla4pf7dxna", view.getModel().get("next_joke_url"));
     assertEquals("/jokes/ys--0t_-rrifz5jtcparbg", view.getModel().get("current_joke_url"));
     assertEquals("/jokes/id4dTcDiRneK4btgOGpNNw", view.getModel().get("prev_joke_url"));
+    assertTrue(response.getHeader(HttpHeaders.ETAG).startsWith("W/\""));
+    assertEquals("max-age=86400, public", response.getHeader(HttpHeaders.CACHE_CONTROL));
+
+    verify(jokeCache, times(1)).findById(jokeId);
+    verifyNoMoreInteractions(jokeCache);
+
+    verify(jokeNavigationIndex, times(1)).getJokeWindow(jokeId);
+    verifyNoMoreInteractions(jokeNavigationIndex);
+  }
+
+  @Test
+  public void getJokeViewReturnsNotModifiedIfETagMatches() throws JsonProcessingException {
+    when(jokeCache.findById(jokeId)).thenReturn(Optional.of(joke));
+    when(jokeJsonCache.toJson(joke)).thenReturn(jokeJson);
+    when(jokeNavigationIndex.getJokeWindow(jokeId)).thenReturn(
+        new String[]{jokeId, "yvrhbpauspegla4pf7dxna", "id4dTcDiRneK4btgOGpNNw"}
+    );
+
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    jokeController.getJokeView(
+        jokeId,
+        new ServletWebRequest(new MockHttpServletRequest("GET", "/jokes/" + jokeId), response),
+        response
+    );
+    String eTag = response.getHeader(HttpHeaders.ETAG);
+
+    MockHttpServletRequest conditionalRequest = new MockHttpServletRequest(
+        "GET", "/jokes/" + jokeId
+    );
+    conditionalRequest.addHeader(HttpHeaders.IF_NONE_MATCH, eTag);
+    MockHttpServletResponse conditionalResponse = new MockHttpServletResponse();
+
+    ModelAndView view = jokeController.getJokeView(
+        jokeId,
+        new ServletWebRequest(conditionalRequest, conditionalResponse),
+        conditionalResponse
+    );
+    assertNull(view);
+    assertEquals(HttpStatus.NOT_MODIFIED.value(), conditionalResponse.getStatus());
+    assertEquals(eTag, conditionalResponse.getHeader(HttpHeaders.ETAG));
 
-    verify(jokeRepository, times(1)).findById(jokeId);
-    verify(jokeRepository, times(1)).getJokeWindow(jokeId);
-    verifyNoMoreInteractions(jokeRepository);
+    when(jokeNavigationIndex.getJokeWindow(jokeId)).thenReturn(
+        new String[]{jokeId, "yvrhbpauspegla4pf7dxna", "a1b2c3d4e5f6g7h8i9j0kl"}
+    );
+    MockHttpServletResponse changedResponse = new MockHttpServletResponse();
+
+    assertNotNull(jokeController.getJokeView(
+        jokeId,
+        new ServletWebRequest(conditionalRequest, changedResponse),
+        changedResponse
+    ));
   }
 
   @Test
   public void testGetRandomJokeReturnsJoke() {
-    when(jokeRepository.getRandomJoke()).thenReturn(joke);
+    when(randomJokeEngine.randomJoke()).thenReturn(joke);
 
     Joke joke = jokeController.getRandomJoke(null, null);
     assertEquals(JokeControllerTest.joke, joke);
 
-    verify(jokeRepository, times(1)).getRandomJoke();
-    verifyNoMoreInteractions(jokeRepository);
+    verify(randomJokeEngine, times(1)).randomJoke();
+    verifyNoMoreInteractions(randomJokeEngine);
   }
 
   @Test
   public void testGetRandomJokeReturnsJokeByCategory() {
-    when(jokeRepository.getRandomJokeByCategory("dev")).thenReturn(joke);
-    when(jokeRepository.findAllCategories()).thenReturn(new String[]{"dev"});
+    when(randomJokeEngine.randomJokeByCategory("dev")).thenReturn(joke);
+    when(categoryCatalog.contains("dev")).thenReturn(true);
 
     Joke joke = jokeController.getRandomJoke("dev", null);
     assertEquals(JokeControllerTest.joke, joke);
 
-    verify(jokeRepository, times(1)).findAllCategories();
-    verify(jokeRepository, times(1)).getRandomJokeByCategory("dev");
-    verifyNoMoreInteractions(jokeRepository);
+    verify(categoryCatalog, times(1)).contains("dev");
+    verify(randomJokeEngine, times(1)).randomJokeByCategory("dev");
+    verifyNoMoreInteractions(randomJokeEngine);
   }
 
   @Test(expected = EntityNotFoundException.class)
   public void testGetRandomJokeReturnsJokeByCategoryThrowsException() {
-    when(jokeRepository.findAllCategories()).thenReturn(new String[]{});
+    when(categoryCatalog.contains("dev")).thenReturn(false);
 
     jokeController.getRandomJoke("dev", null);
 
-    verify(jokeRepository, times(1)).findAllCategories();
-    verifyNoMoreInteractions(jokeRepository);
+    verify(categoryCatalog, times(1)).contains("dev");
   }
 
   @Test
   public void testGetRandomJokeReturnsJokeByMultipleCategories() {
-    when(jokeRepository.getRandomJokeByCategories("dev,movie")).thenReturn(joke);
-    when(jokeRepository.findAllCategories()).thenReturn(new String[]{"dev", "movie"});
+    when(randomJokeEngine.randomJokeByCategories(new String[]{"dev", "movie"}))
+        .thenReturn(joke);
+    when(categoryCatalog.contains("dev")).thenReturn(true);
+    when(categoryCatalog.contains("movie")).thenReturn(true);
 
     Joke joke = jokeController.getRandomJoke("dev,movie", null);
     assertEquals(JokeControllerTest.joke, joke);
 
-    verify(jokeRepository, times(1)).findAllCategories();
-    verify(jokeRepository, times(1)).getRandomJokeByCategories(
-        "dev,movie"
+    verify(categoryCatalog, times(1)).contains("dev");
+    verify(categoryCatalog, times(1)).contains("movie");
+    verify(randomJokeEngine, times(1)).randomJokeByCategories(
+        new String[]{"dev", "movie"}
     );
-    verifyNoMoreInteractions(jokeRepository);
+    verifyNoMoreInteractions(randomJokeEngine);
   }
 
   @Test(expected = EntityNotFoundException.class)
   public void testGetRandomJokeReturnsJokeByMultipleCategoriesThrowsException() {
-    when(jokeRepository.findAllCategories()).thenReturn(new String[]{});
+    when(categoryCatalog.contains("dev")).thenReturn(false);
 
     jokeController.getRandomJoke("dev,does-not-exist", null);
 
-    verify(jokeRepository, times(1)).findAllCategories();
-    verifyNoMoreInteractions(jokeRepository);
+    verify(categoryCatalog, times(1)).contains("dev");
   }
 
   @Test
@@ -196,13 +327,13 @@ public class JokeControllerTest {
     joke = joke.toBuilder()
         .value(joke.getValue().replace("Chuck Norris", "Bob"))
         .build();
-    when(jokeRepository.getRandomPersonalizedJoke("Bob")).thenReturn(joke);
+    when(personalizedJokeEngine.randomPersonalizedJoke("Bob")).thenReturn(joke);
 
     Joke joke = jokeController.getRandomJoke(null, "Bob");
     assertEquals(JokeControllerTest.joke, joke);
 
-    verify(jokeRepository, times(1)).getRandomPersonalizedJoke("Bob");
-    verifyNoMoreInteractions(jokeRepository);
+    verify(personalizedJokeEngine, times(1)).randomPersonalizedJoke("Bob");
+    verifyNoMoreInteractions(personalizedJokeEngine);
   }
 
   @Test
@@ -210,19 +341,35 @@ public class JokeControllerTest {
     joke = joke.toBuilder().value(
         joke.getValue().replace("Chuck Norris", "Bob")
     ).build();
-    when(jokeRepository.findAllCategories()).thenReturn(new String[]{"dev"});
-    when(jokeRepository.getRandomPersonalizedJokeByCategories(
-        "Bob", "dev"
+    when(categoryCatalog.contains("dev")).thenReturn(true);
+    when(personalizedJokeEngine.randomPersonalizedJokeByCategories(
+        "Bob", new String[]{"dev"}
     )).thenReturn(joke);
 
     Joke joke = jokeController.getRandomJoke("dev", "Bob");
     assertEquals(JokeControllerTest.joke, joke);
 
-    verify(jokeRepository, times(1)).findAllCategories();
-    verify(jokeRepository, times(1)).getRandomPersonalizedJokeByCategories(
-        "Bob", "dev"
+    verify(categoryCatalog, times(1)).contains("dev");
+    verify(personalizedJokeEngine, times(1)).randomPersonalizedJokeByCategories(
+        "Bob", new String[]{"dev"}
     );
-    verifyNoMoreInteractions(jokeRepository);
+    verifyNoMoreInteractions(personalizedJokeEngine);
+  }
+
+  @Test
+  public void testGetRandomPersonalisedJokeByCategoryNeverReturnsUncategorizedJokes() {
+    Joke uncategorizedJoke = Joke.builder()
+        .id("a1ewkx_ysdo7vnbcr6kcbq")
+        .value("Chuck Norris counted to infinity. Twice.")
+        .build();
+    PersonalizedJokeEngine personalizedJokeEngine = new PersonalizedJokeEngine(null);
+    personalizedJokeEngine.rebuild(Arrays.asList(joke, uncategorizedJoke));
+    ReflectionTestUtils.setField(jokeController, "personalizedJokeEngine", personalizedJokeEngine);
+    when(categoryCatalog.contains("dev")).thenReturn(true);
+
+    for (int i = 0; i < 50; i++) {
+      assertEquals(jokeId, jokeController.getRandomJoke("dev", "Bob").getId());
+    }
   }
 
   @Test(expected = EntityNotFoundException.class)
@@ -230,9 +377,9 @@ public class JokeControllerTest {
     joke = joke.toBuilder().value(
         joke.getValue().replace("Chuck Norris", "Bob")
     ).build();
-    when(jokeRepository.findAllCategories()).thenReturn(new String[]{"dev"});
-    when(jokeRepository.getRandomPersonalizedJokeByCategories(
-        "Bob", "dev"
+    when(categoryCatalog.contains("dev")).thenReturn(true);
+    when(personalizedJokeEngine.randomPersonalizedJokeByCategories(
+        "Bob", new String[]{"dev"}
     )).thenReturn(null);
 
     jokeController.getRandomJoke("dev", "Bob");
@@ -243,71 +390,73 @@ public class JokeControllerTest {
     joke = joke.toBuilder().value(
         joke.getValue().replace("Chuck Norris", "Bob")
     ).build();
-    when(jokeRepository.getRandomPersonalizedJoke("Bob")).thenReturn(null);
+    when(personalizedJokeEngine.randomPersonalizedJoke("Bob")).thenReturn(null);
 
     jokeController.getRandomJoke(null, "Bob");
 
-    verify(jokeRepository, times(1)).getRandomPersonalizedJoke("Bob");
-    verifyNoMoreInteractions(jokeRepository);
+    verify(personalizedJokeEngine, times(1)).randomPersonalizedJoke("Bob");
+    verifyNoMoreInteractions(personalizedJokeEngine);
   }
 
   @Test
   public void testGetRandomJokeReturnsJokeValue() {
-    when(jokeRepository.getRandomJoke()).thenReturn(joke);
+    when(randomJokeEngine.randomJoke()).thenReturn(joke);
 
     String jokeValue = jokeController.getRandomJokeValue(
         null, null, this.httpServletResponse
     );
     assertEquals(joke.getValue(), jokeValue);
 
-    verify(jokeRepository, times(1)).getRandomJoke();
-    verifyNoMoreInteractions(jokeRepository);
+    verify(randomJokeEngine, times(1)).randomJoke();
+    verifyNoMoreInteractions(randomJokeEngine);
   }
 
   @Test
   public void testGetRandomJokeReturnsJokeValueByCategory() {
-    when(jokeRepository.getRandomJokeByCategory("dev")).thenReturn(joke);
-    when(jokeRepository.findAllCategories()).thenReturn(new String[]{"dev"});
+    when(randomJokeEngine.randomJokeByCategory("dev")).thenReturn(joke);
+    when(categoryCatalog.contains("dev")).thenReturn(true);
 
     String jokeValue = jokeController.getRandomJokeValue(
         "dev", null, this.httpServletResponse
     );
     assertEquals(joke.getValue(), jokeValue);
 
-    verify(jokeRepository, times(1)).findAllCategories();
-    verify(jokeRepository, times(1)).getRandomJokeByCategory("dev");
-    verifyNoMoreInteractions(jokeRepository);
+    verify(categoryCatalog, times(1)).contains("dev");
+    verify(randomJokeEngine, times(1)).randomJokeByCategory("dev");
+    verifyNoMoreInteractions(randomJokeEngine);
   }
 
   @Test
   public void testGetRandomJokeReturnsJokeValueByMultipleCategories() {
-    when(jokeRepository.getRandomJokeByCategories("dev,movie")).thenReturn(joke);
-    when(jokeRepository.findAllCategories()).thenReturn(new String[]{"dev", "movie"});
+    when(randomJokeEngine.randomJokeByCategories(new String[]{"dev", "movie"}))
+        .thenReturn(joke);
+    when(categoryCatalog.contains("dev")).thenReturn(true);
+    when(categoryCatalog.contains("movie")).thenReturn(true);
 
     String jokeValue = jokeController.getRandomJokeValue(
         "dev,movie", null, this.httpServletResponse
     );
     assertEquals(joke.getValue(), jokeValue);
 
-    verify(jokeRepository, times(1)).findAllCategories();
-    verify(jokeRepository, times(1)).getRandomJokeByCategories(
-        "dev,movie"
+    verify(categoryCatalog, times(1)).contains("dev");
+    verify(categoryCatalog, times(1)).contains("movie");
+    verify(randomJokeEngine, times(1)).randomJokeByCategories(
+        new String[]{"dev", "movie"}
     );
-    verifyNoMoreInteractions(jokeRepository);
+    verifyNoMoreInteractions(randomJokeEngine);
   }
 
   @Test
   public void testGetRandomJokeValueReturnsEmptyStringIfCategoryDoesNotExist() {
-    when(jokeRepository.findAllCategories()).thenReturn(new String[]{});
+    when(categoryCatalog.contains("does-not-exist")).thenReturn(false);
 
     String jokeValue = jokeController.getRandomJokeValue(
         "does-not-exist", null, this.httpServletResponse
     );
     assertEquals("", jokeValue);
 
-    verify(jokeRepository, times(1)).findAllCategories();
+    verify(categoryCatalog, times(1)).contains("does-not-exist");
     verify(this.httpServletResponse).setStatus(404);
-    verifyNoMoreInteractions(jokeRepository);
   }
 
   @Test
@@ -315,15 +464,15 @@ public class JokeControllerTest {
     joke = joke.toBuilder().value(
         joke.getValue().replace("Chuck Norris", "Bob")
     ).build();
-    when(jokeRepository.getRandomPersonalizedJoke("Bob")).thenReturn(joke);
+    when(personalizedJokeEngine.randomPersonalizedJoke("Bob")).thenReturn(joke);
 
     String jokeValue = jokeController.getRandomJokeValue(
         null, "Bob", this.httpServletResponse
     );
     assertEquals(joke.getValue(), jokeValue);
 
-    verify(jokeRepository, times(1)).getRandomPersonalizedJoke("Bob");
-    verifyNoMoreInteractions(jokeRepository);
+    verify(personalizedJokeEngine, times(1)).randomPersonalizedJoke("Bob");
+    verifyNoMoreInteractions(personalizedJokeEngine);
   }
 
   @Test
@@ -331,16 +480,16 @@ public class JokeControllerTest {
     joke = joke.toBuilder().value(
         joke.getValue().replace("Chuck Norris", "Bob")
     ).build();
-    when(jokeRepository.getRandomPersonalizedJoke("Bob")).thenReturn(null);
+    when(personalizedJokeEngine.randomPersonalizedJoke("Bob")).thenReturn(null);
 
     String jokeValue = jokeController.getRandomJokeValue(
         null, "Bob", this.httpServletResponse
     );
     assertEquals("", jokeValue);
 
-    verify(jokeRepository, times(1)).getRandomPersonalizedJoke("Bob");
+    verify(personalizedJokeEngine, times(1)).randomPersonalizedJoke("Bob");
     verify(this.httpServletResponse).setStatus(404);
-    verifyNoMoreInteractions(jokeRepository);
+    verifyNoMoreInteractions(personalizedJokeEngine);
   }
 
   @Test
@@ -348,17 +497,21 @@ public class JokeControllerTest {
     joke = joke.toBuilder().value(
         joke.getValue().replace("Chuck Norris", "Bob")
     ).build();
-    when(jokeRepository.findAllCategories()).thenReturn(new String[]{"dev"});
-    when(jokeRepository.getRandomPersonalizedJokeByCategories("Bob", "dev")).thenReturn(joke);
+    when(categoryCatalog.contains("dev")).thenReturn(true);
+    when(personalizedJokeEngine.randomPersonalizedJokeByCategories(
+        "Bob", new String[]{"dev"}
+    )).thenReturn(joke);
 
     String jokeValue = jokeController.getRandomJokeValue(
         "dev", "Bob", this.httpServletResponse
     );
     assertEquals(joke.getValue(), jokeValue);
 
-    verify(jokeRepository, times(1)).findAllCategories();
-    verify(jokeRepository, times(1)).getRandomPersonalizedJokeByCategories("Bob", "dev");
-    verifyNoMoreInteractions(jokeRepository);
+    verify(categoryCatalog, times(1)).contains("dev");
+    verify(personalizedJokeEngine, times(1)).randomPersonalizedJokeByCategories(
+        "Bob", new String[]{"dev"}
+    );
+    verifyNoMoreInteractions(personalizedJokeEngine);
   }
 
   @Test
@@ -366,42 +519,96 @@ public class JokeControllerTest {
     joke = joke.toBuilder().value(
         joke.getValue().replace("Chuck Norris", "Bob")
     ).build();
-    when(jokeRepository.findAllCategories()).thenReturn(new String[]{"dev"});
-    when(jokeRepository.getRandomPersonalizedJokeByCategories("Bob", "dev")).thenReturn(null);
+    when(categoryCatalog.contains("dev")).thenReturn(true);
+    when(personalizedJokeEngine.randomPersonalizedJokeByCategories(
+        "Bob", new String[]{"dev"}
+    )).thenReturn(null);
 
     String jokeValue = jokeController.getRandomJokeValue(
         "dev", "Bob", this.httpServletResponse
     );
     assertEquals("", jokeValue);
 
-    verify(jokeRepository, times(1)).findAllCategories();
-    verify(jokeRepository, times(1)).getRandomPersonalizedJokeByCategories("Bob", "dev");
+    verify(categoryCatalog, times(1)).contains("dev");
+    verify(personalizedJokeEngine, times(1)).randomPersonalizedJokeByCategories(
+        "Bob", new String[]{"dev"}
+    );
     verify(this.httpServletResponse).setStatus(404);
-    verifyNoMoreInteractions(jokeRepository);
+    verifyNoMoreInteractions(personalizedJokeEngine);
   }
 
   @Test
   public void testSearch() {
-    when(jokeRepository.searchByQuery("Kleenex")).thenReturn(new Joke[]{joke});
+    when(jokeSearchIndex.search("Kleenex")).thenReturn(new Joke[]{joke});
 
-    JokeSearchResult jokeSearchResult = jokeController.search("Kleenex");
+    JokeSearchResult jokeSearchResult = jokeController.search("Kleenex", null, null);
     assertEquals(jokeSearchResult.getTotal(), 1);
     assertSame(jokeSearchResult.getResult()[0], joke);
 
-    verify(jokeRepository, times(1)).searchByQuery("Kleenex");
-    verifyNoMoreInteractions(jokeRepository);
+    verify(jokeSearchIndex, times(1)).search("Kleenex");
+    verifyNoMoreInteractions(jokeSearchIndex);
+  }
+
+  @Test
+  public void testSearchReturnsPageIfLimitOrCursorIsGiven() {
+    JokeSearchResult page = new JokeSearchResult(new Joke[]{joke}, 3, jokeId);
+    when(jokeSearchIndex.search("Kleenex", null, 1)).thenReturn(page);
+    when(jokeSearchIndex.search("Kleenex", jokeId, 25)).thenReturn(page);
+
+    assertSame(page, jokeController.search("Kleenex", 1, null));
+    assertSame(page, jokeController.search("Kleenex", null, jokeId));
+
+    verify(jokeSearchIndex, times(1)).search("Kleenex", null, 1);
+    verify(jokeSearchIndex, times(1)).search("Kleenex", jokeId, 25);
+    verifyNoMoreInteractions(jokeSearchIndex);
+  }
+
+  @Test
+  public void testSearchStreamWritesJsonArray() throws IOException {
+    when(jokeSearchIndex.search("Kleenex")).thenReturn(new Joke[]{joke, joke});
+    when(jokeJsonCache.toJson(joke)).thenReturn("{}".getBytes(StandardCharsets.UTF_8));
+
+    ResponseEntity<StreamingResponseBody> response = jokeController.searchStream("Kleenex");
+    assertEquals(MediaType.APPLICATION_JSON_UTF8, response.getHeaders().getContentType());
+
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    response.getBody().writeTo(outputStream);
+    assertEquals(
+        "{\"total\":2,\"result\":[{},{}]}",
+        outputStream.toString(StandardCharsets.UTF_8.name())
+    );
+
+    verify(jokeSearchIndex, times(1)).search("Kleenex");
+    verifyNoMoreInteractions(jokeSearchIndex);
+  }
+
+  @Test
+  public void testSearchValuesStreamWritesLines() throws IOException {
+    when(jokeSearchIndex.search("Kleenex")).thenReturn(new Joke[]{joke});
+
+    ResponseEntity<StreamingResponseBody> response = jokeController.searchValuesStream("Kleenex");
+
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    response.getBody().writeTo(outputStream);
+    assertEquals(
+        "Some people ask for a Kleenex when they sneeze, Chuck Norris asks for a body bag.\n",
+        outputStream.toString(StandardCharsets.UTF_8.name())
+    );
+
+    verify(jokeSearchIndex, times(1)).search("Kleenex");
+    verifyNoMoreInteractions(jokeSearchIndex);
   }
 
   @Test
   public void testSearchValues() {
-    when(jokeRepository.searchByQuery("Kleenex")).thenReturn(new Joke[]{joke});
+    when(jokeSearchIndex.search("Kleenex")).thenReturn(new Joke[]{joke});
 
     String searchValues = jokeController.searchValues("Kleenex");
     assertEquals(
         "Some people ask for a Kleenex when they sneeze, Chuck Norris asks for a body bag.\n",
         searchValues);
 
-    verify(jokeRepository, times(1)).searchByQuery("Kleenex");
-    verifyNoMoreInteractions(jokeRepository);
+    verify(jokeSearchIndex, times(1)).search("Kleenex");
+    verifyNoMoreInteractions(jokeSearchIndex);
   }
 }
\ No newline at end of file
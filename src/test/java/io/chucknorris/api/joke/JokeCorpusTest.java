@@ -0,0 +1,49 @@
+package io.chucknorris.api.joke;
+
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class JokeCorpusTest {
+
+  @Mock
+  private JokeRepository jokeRepository;
+
+  @Mock
+  private JokeSearchIndex jokeSearchIndex;
+
+  @Mock
+  private PersonalizedJokeEngine personalizedJokeEngine;
+
+  @InjectMocks
+  private JokeCorpus jokeCorpus;
+
+  @Test
+  public void testRefreshRebuildsBothIndexesFromOneSnapshot() {
+    List<Joke> jokes = Arrays.asList(
+        Joke.builder()
+            .categories(new String[]{"dev"})
+            .id("ys--0t_-rrifz5jtcparbg")
+            .value("Chuck Norris programs do not accept input.")
+            .build()
+    );
+    when(jokeRepository.findAll()).thenReturn(jokes);
+
+    jokeCorpus.refresh();
+
+    verify(jokeRepository, times(1)).findAll();
+    verify(jokeSearchIndex, times(1)).rebuild(jokes);
+    verify(personalizedJokeEngine, times(1)).rebuild(jokes);
+    verifyNoMoreInteractions(jokeRepository, jokeSearchIndex, personalizedJokeEngine);
+  }
+}
@@ -0,0 +1,131 @@
+package io.chucknorris.api.joke;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class JokeHttpMessageConverterTest {
+
+  private static Joke joke, otherJoke;
+
+  private JokeHttpMessageConverter jokeHttpMessageConverter;
+
+  private JokeJsonCache jokeJsonCache;
+
+  private ObjectMapper objectMapper;
+
+  @Before
+  public void setUp() {
+    joke = Joke.builder()
+        .categories(new String[]{"dev"})
+        .id("ys--0t_-rrifz5jtcparbg")
+        .value("Chuck Norris programs do not accept input.")
+        .build();
+    otherJoke = Joke.builder()
+        .id("bg_h3xursougaxzprcrl0q")
+        .value("Chuck Norris doesn't read books. He stares them down until he gets the information.")
+        .build();
+
+    objectMapper = new ObjectMapper();
+    jokeJsonCache = new JokeJsonCache(objectMapper);
+    jokeHttpMessageConverter = new JokeHttpMessageConverter(jokeJsonCache);
+  }
+
+  @Test
+  public void testCanWriteJokesAndSearchResultsOnly() {
+    assertTrue(jokeHttpMessageConverter.canWrite(Joke.class, MediaType.APPLICATION_JSON));
+    assertTrue(
+        jokeHttpMessageConverter.canWrite(JokeSearchResult.class, MediaType.APPLICATION_JSON)
+    );
+    assertFalse(jokeHttpMessageConverter.canWrite(Joke.class, MediaType.TEXT_PLAIN));
+    assertFalse(jokeHttpMessageConverter.canWrite(String.class, MediaType.APPLICATION_JSON));
+    assertFalse(jokeHttpMessageConverter.canRead(Joke.class, MediaType.APPLICATION_JSON));
+  }
+
+  @Test
+  public void testWriteJokeEqualsJacksonOutput() throws IOException {
+    MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+    jokeHttpMessageConverter.write(joke, MediaType.APPLICATION_JSON, outputMessage);
+
+    assertEquals(objectMapper.writeValueAsString(joke), outputMessage.getBodyAsString());
+  }
+
+  @Test
+  public void testWriteJokeSearchResultEqualsJacksonOutput() throws IOException {
+    JokeSearchResult jokeSearchResult = new JokeSearchResult(new Joke[]{joke, otherJoke});
+
+    MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+    jokeHttpMessageConverter.write(jokeSearchResult, MediaType.APPLICATION_JSON, outputMessage);
+
+    assertEquals(
+        objectMapper.writeValueAsString(jokeSearchResult),
+        outputMessage.getBodyAsString()
+    );
+  }
+
+  @Test
+  public void testWriteJokeSearchResultPageEqualsJacksonOutput() throws IOException {
+    JokeSearchResult jokeSearchResult = new JokeSearchResult(
+        new Joke[]{otherJoke}, 2, otherJoke.getId()
+    );
+
+    MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+    jokeHttpMessageConverter.write(jokeSearchResult, MediaType.APPLICATION_JSON, outputMessage);
+
+    assertEquals(
+        objectMapper.writeValueAsString(jokeSearchResult),
+        outputMessage.getBodyAsString()
+    );
+  }
+
+  @Test
+  public void testJsonIsOnlyComputedAgainIfJokeHasChanged() throws IOException {
+    byte[] json = jokeJsonCache.toJson(joke);
+    assertSame(json, jokeJsonCache.toJson(joke.toBuilder().build()));
+
+    Joke updatedJoke = joke.toBuilder()
+        .updatedAt("2020-01-05 13:42:19.576875")
+        .value("Chuck Norris programs do not accept any input.")
+        .build();
+    byte[] updatedJson = jokeJsonCache.toJson(updatedJoke);
+    assertNotSame(json, updatedJson);
+    assertSame(updatedJson, jokeJsonCache.toJson(updatedJoke));
+    assertEquals(1, jokeJsonCache.size());
+  }
+
+  @Test
+  public void testPersonalizedJokesBypassTheCache() throws IOException {
+    byte[] json = jokeJsonCache.toJson(joke);
+
+    Joke personalizedJoke = joke.toBuilder()
+        .personalized(true)
+        .value("Bob programs do not accept input.")
+        .build();
+    assertEquals(
+        objectMapper.writeValueAsString(personalizedJoke),
+        new String(jokeJsonCache.toJson(personalizedJoke), StandardCharsets.UTF_8)
+    );
+    assertSame(json, jokeJsonCache.toJson(joke));
+    assertEquals(1, jokeJsonCache.size());
+  }
+
+  @Test
+  public void testCacheIsBounded() throws IOException {
+    ReflectionTestUtils.setField(jokeJsonCache, "maximumSize", 1);
+
+    jokeJsonCache.toJson(joke);
+    jokeJsonCache.toJson(otherJoke);
+    assertEquals(1, jokeJsonCache.size());
+  }
+}
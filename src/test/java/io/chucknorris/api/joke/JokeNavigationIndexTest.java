@@ -0,0 +1,115 @@
+package io.chucknorris.api.joke;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class JokeNavigationIndexTest {
+
+  @InjectMocks
+  private JokeNavigationIndex jokeNavigationIndex;
+
+  @Mock
+  private JokeRepository jokeRepository;
+
+  @Test
+  public void testGetJokeWindowWrapsAroundAtBothEnds() {
+    when(jokeRepository.getJokeTableSignature()).thenReturn("3,2019-06-03 00:00:00,2019-06-03 00:00:00");
+    when(jokeRepository.findAllIdsOrderedByCreatedAt()).thenReturn(new String[]{"a", "b", "c"});
+
+    jokeNavigationIndex.refresh();
+
+    assertArrayEquals(new String[]{"a", "b", "c"}, jokeNavigationIndex.getJokeWindow("a"));
+    assertArrayEquals(new String[]{"b", "c", "a"}, jokeNavigationIndex.getJokeWindow("b"));
+    assertArrayEquals(new String[]{"c", "a", "b"}, jokeNavigationIndex.getJokeWindow("c"));
+  }
+
+  @Test
+  public void testRefreshDoesNothingIfSignatureIsUnchanged() {
+    when(jokeRepository.getJokeTableSignature()).thenReturn("3,2019-06-03 00:00:00,2019-06-03 00:00:00");
+    when(jokeRepository.findAllIdsOrderedByCreatedAt()).thenReturn(new String[]{"a", "b", "c"});
+
+    jokeNavigationIndex.refresh();
+    jokeNavigationIndex.refresh();
+
+    verify(jokeRepository, times(2)).getJokeTableSignature();
+    verify(jokeRepository, times(1)).findAllIdsOrderedByCreatedAt();
+    verifyNoMoreInteractions(jokeRepository);
+  }
+
+  @Test
+  public void testRefreshAppendsCreatedJokes() {
+    when(jokeRepository.getJokeTableSignature()).thenReturn(
+        "2,2019-06-02 00:00:00,2019-06-02 00:00:00",
+        "3,2019-06-03 00:00:00,2019-06-03 00:00:00"
+    );
+    when(jokeRepository.findAllIdsOrderedByCreatedAt()).thenReturn(new String[]{"a", "b"});
+    when(jokeRepository.findIdsCreatedAfter("2019-06-02 00:00:00")).thenReturn(new String[]{"c"});
+
+    jokeNavigationIndex.refresh();
+    jokeNavigationIndex.refresh();
+
+    assertArrayEquals(new String[]{"a", "b", "c"}, jokeNavigationIndex.getJokeWindow("a"));
+    assertArrayEquals(new String[]{"c", "a", "b"}, jokeNavigationIndex.getJokeWindow("c"));
+
+    verify(jokeRepository, times(2)).getJokeTableSignature();
+    verify(jokeRepository, times(1)).findAllIdsOrderedByCreatedAt();
+    verify(jokeRepository, times(1)).findIdsCreatedAfter("2019-06-02 00:00:00");
+    verifyNoMoreInteractions(jokeRepository);
+  }
+
+  @Test
+  public void testRefreshRebuildsRingIfJokesWereUpdated() {
+    when(jokeRepository.getJokeTableSignature()).thenReturn(
+        "3,2019-06-03 00:00:00,2019-06-03 00:00:00",
+        "3,2019-06-03 00:00:00,2019-06-04 00:00:00"
+    );
+    when(jokeRepository.findAllIdsOrderedByCreatedAt()).thenReturn(
+        new String[]{"a", "b", "c"},
+        new String[]{"b", "a", "c"}
+    );
+
+    jokeNavigationIndex.refresh();
+    jokeNavigationIndex.refresh();
+
+    assertArrayEquals(new String[]{"a", "c", "b"}, jokeNavigationIndex.getJokeWindow("a"));
+
+    verify(jokeRepository, times(2)).findAllIdsOrderedByCreatedAt();
+  }
+
+  @Test
+  public void testRefreshRebuildsRingIfJokesWereDeleted() {
+    when(jokeRepository.getJokeTableSignature()).thenReturn(
+        "3,2019-06-03 00:00:00,2019-06-03 00:00:00",
+        "2,2019-06-03 00:00:00,2019-06-03 00:00:00"
+    );
+    when(jokeRepository.findAllIdsOrderedByCreatedAt()).thenReturn(
+        new String[]{"a", "b", "c"},
+        new String[]{"a", "c"}
+    );
+
+    jokeNavigationIndex.refresh();
+    jokeNavigationIndex.refresh();
+
+    assertArrayEquals(new String[]{"a", "c", "c"}, jokeNavigationIndex.getJokeWindow("a"));
+  }
+
+  @Test
+  public void testGetJokeWindowFallsBackToRepositoryForUnknownIds() {
+    when(jokeRepository.getJokeWindow("a")).thenReturn("a,b,c");
+
+    assertArrayEquals(new String[]{"a", "b", "c"}, jokeNavigationIndex.getJokeWindow("a"));
+
+    verify(jokeRepository, times(1)).getJokeWindow("a");
+    verifyNoMoreInteractions(jokeRepository);
+  }
+}
@@ -0,0 +1,143 @@
+package io.chucknorris.api.joke;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+@RunWith(MockitoJUnitRunner.class)
+public class JokeSearchIndexTest {
+
+  private static Joke kleenexJoke, inputJoke, explicitJoke;
+
+  @Mock
+  private JokeRepository jokeRepository;
+
+  @InjectMocks
+  private JokeSearchIndex jokeSearchIndex;
+
+  @Before
+  public void setUp() {
+    kleenexJoke = Joke.builder()
+        .id("ys--0t_-rrifz5jtcparbg")
+        .value("Some people ask for a Kleenex when they sneeze, Chuck Norris asks for a body bag.")
+        .build();
+    inputJoke = Joke.builder()
+        .categories(new String[]{"dev"})
+        .id("bg_h3xursougaxzprcrl0q")
+        .value("Chuck Norris programs do not accept input.")
+        .build();
+    explicitJoke = Joke.builder()
+        .categories(new String[]{"explicit"})
+        .id("id4dTcDiRneK4btgOGpNNw")
+        .value("Chuck Norris doesn't ask for input.")
+        .build();
+  }
+
+  @Test
+  public void testSearchFallsBackToRepositoryIfIndexIsEmpty() {
+    when(jokeRepository.searchByQuery("Kleenex")).thenReturn(new Joke[]{kleenexJoke});
+
+    assertArrayEquals(new Joke[]{kleenexJoke}, jokeSearchIndex.search("Kleenex"));
+
+    verify(jokeRepository, times(1)).searchByQuery("Kleenex");
+    verifyNoMoreInteractions(jokeRepository);
+  }
+
+  @Test
+  public void testSearchMatchesSubstringsIgnoringCase() {
+    jokeSearchIndex.rebuild(Arrays.asList(kleenexJoke, inputJoke, explicitJoke));
+
+    assertArrayEquals(new Joke[]{kleenexJoke}, jokeSearchIndex.search("kleenex"));
+    assertArrayEquals(new Joke[]{kleenexJoke}, jokeSearchIndex.search("LEEN"));
+    assertArrayEquals(new Joke[]{kleenexJoke}, jokeSearchIndex.search("asks for a bo"));
+    assertArrayEquals(
+        new Joke[]{inputJoke, explicitJoke},
+        jokeSearchIndex.search("input.")
+    );
+    assertArrayEquals(
+        new Joke[]{inputJoke, explicitJoke, kleenexJoke},
+        jokeSearchIndex.search("orris")
+    );
+    assertArrayEquals(new Joke[]{}, jokeSearchIndex.search("sneeze, bag"));
+    assertArrayEquals(new Joke[]{}, jokeSearchIndex.search("roundhouse"));
+
+    verifyNoMoreInteractions(jokeRepository);
+  }
+
+  @Test
+  public void testSearchMatchesShortTokensInsideTerms() {
+    jokeSearchIndex.rebuild(Arrays.asList(kleenexJoke, inputJoke, explicitJoke));
+
+    assertArrayEquals(new Joke[]{kleenexJoke}, jokeSearchIndex.search("ee"));
+    assertArrayEquals(new Joke[]{inputJoke, explicitJoke}, jokeSearchIndex.search("np"));
+    assertArrayEquals(new Joke[]{inputJoke}, jokeSearchIndex.search("ogr"));
+    assertArrayEquals(new Joke[]{}, jokeSearchIndex.search("xq"));
+
+    verifyNoMoreInteractions(jokeRepository);
+  }
+
+  @Test
+  public void testSearchWithCategoryFilterReturnsPage() {
+    jokeSearchIndex.rebuild(Arrays.asList(kleenexJoke, inputJoke, explicitJoke));
+
+    Page<Joke> firstPage = jokeSearchIndex.search(
+        "chuck norris", new String[]{"dev", "movie"}, PageRequest.of(0, 1)
+    );
+    assertEquals(2, firstPage.getTotalElements());
+    assertEquals(Arrays.asList(inputJoke), firstPage.getContent());
+
+    Page<Joke> secondPage = jokeSearchIndex.search(
+        "chuck norris", new String[]{"dev", "movie"}, PageRequest.of(1, 1)
+    );
+    assertEquals(2, secondPage.getTotalElements());
+    assertEquals(Arrays.asList(kleenexJoke), secondPage.getContent());
+
+    verifyNoMoreInteractions(jokeRepository);
+  }
+
+  @Test
+  public void testSearchWithCursorReturnsPagesOrderedById() {
+    jokeSearchIndex.rebuild(Arrays.asList(kleenexJoke, inputJoke, explicitJoke));
+
+    JokeSearchResult firstPage = jokeSearchIndex.search("chuck norris", null, 2);
+    assertEquals(3, firstPage.getTotal());
+    assertArrayEquals(new Joke[]{inputJoke, explicitJoke}, firstPage.getResult());
+    assertEquals(explicitJoke.getId(), firstPage.getNextCursor());
+
+    JokeSearchResult lastPage = jokeSearchIndex.search(
+        "chuck norris", firstPage.getNextCursor(), 2
+    );
+    assertEquals(3, lastPage.getTotal());
+    assertArrayEquals(new Joke[]{kleenexJoke}, lastPage.getResult());
+    assertNull(lastPage.getNextCursor());
+
+    verifyNoMoreInteractions(jokeRepository);
+  }
+
+  @Test
+  public void testSearchWithCursorFallsBackToRepositoryIfIndexIsEmpty() {
+    when(jokeRepository.searchByQuery("input")).thenReturn(new Joke[]{explicitJoke, inputJoke});
+
+    JokeSearchResult page = jokeSearchIndex.search("input", inputJoke.getId(), 1);
+    assertEquals(2, page.getTotal());
+    assertArrayEquals(new Joke[]{explicitJoke}, page.getResult());
+    assertNull(page.getNextCursor());
+
+    verify(jokeRepository, times(1)).searchByQuery("input");
+    verifyNoMoreInteractions(jokeRepository);
+  }
+}
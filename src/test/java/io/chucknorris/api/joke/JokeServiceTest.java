@@ -23,11 +23,17 @@ public class JokeServiceTest {
   private static Joke joke;
 
   @Mock
-  private JokeRepository jokeRepository;
+  private JokeSearchIndex jokeSearchIndex;
 
   @InjectMocks
   private JokeService jokeService;
 
+  @Mock
+  private PersonalizedJokeEngine personalizedJokeEngine;
+
+  @Mock
+  private RandomJokeEngine randomJokeEngine;
+
   @Before
   public void setUp() throws Exception {
     jokeId = "ys--0t_-rrifz5jtcparbg";
@@ -39,15 +45,27 @@ public class JokeServiceTest {
         .build();
   }
 
+  @Test
+  public void testRandomJokeByCategoryReturnsJoke() {
+    when(randomJokeEngine.randomJokeByCategory("dev")).thenReturn(joke);
+
+    Joke joke = jokeService.randomJokeByCategory("dev");
+    assertEquals(JokeServiceTest.joke, joke);
+
+    verify(randomJokeEngine, times(1)).randomJokeByCategory("dev");
+    verifyNoMoreInteractions(randomJokeEngine);
+  }
+
   @Test
   public void testRandomJokeByCategoriesReturnsJoke() {
-    when(jokeRepository.getRandomJokeByCategories("dev,movie")).thenReturn(joke);
+    String[] categories = new String[]{"dev", "movie"};
+    when(randomJokeEngine.randomJokeByCategories(categories)).thenReturn(joke);
 
-    Joke joke = jokeService.randomJokeByCategories(new String[]{"dev", "movie"});
+    Joke joke = jokeService.randomJokeByCategories(categories);
     assertEquals(JokeServiceTest.joke, joke);
 
-    verify(jokeRepository, times(1)).getRandomJokeByCategories("dev,movie");
-    verifyNoMoreInteractions(jokeRepository);
+    verify(randomJokeEngine, times(1)).randomJokeByCategories(categories);
+    verifyNoMoreInteractions(randomJokeEngine);
   }
 
   @Test
@@ -56,21 +74,20 @@ public class JokeServiceTest {
     String[] categories = new String[]{"dev", "movie"};
 
     joke.setValue(joke.getValue().replace("Chuck Norris", substitute));
-    when(
-        jokeRepository.getRandomPersonalizedJokeByCategories(
-            substitute,
-            "dev,movie"
-        )
-    ).thenReturn(joke);
+    when(personalizedJokeEngine.randomPersonalizedJokeByCategoriesOrUncategorized(
+        substitute,
+        categories
+    )).thenReturn(joke);
 
     Joke joke = jokeService.randomPersonalizedJokeByCategories(substitute, categories);
     assertEquals(JokeServiceTest.joke, joke);
 
-    verify(jokeRepository, times(1)).getRandomPersonalizedJokeByCategories(
+    verify(personalizedJokeEngine, times(1)).randomPersonalizedJokeByCategoriesOrUncategorized(
         substitute,
-        "dev,movie"
+        categories
     );
-    verifyNoMoreInteractions(jokeRepository);
+    verifyNoMoreInteractions(personalizedJokeEngine);
+    verifyNoMoreInteractions(randomJokeEngine);
   }
 
   @Test
@@ -80,16 +97,17 @@ public class JokeServiceTest {
     Pageable pageable = PageRequest.of(1, 5);
 
     when(
-        jokeRepository.findByValueContainsAndFilter(query, "dev,movie", pageable)
+        jokeSearchIndex.search(query, categories, pageable)
     ).thenReturn(Page.empty());
 
     jokeService.searchWithCategoryFilter(query, categories, pageable);
 
-    verify(jokeRepository, times(1)).findByValueContainsAndFilter(
+    verify(jokeSearchIndex, times(1)).search(
         query,
-        "dev,movie",
+        categories,
         pageable
     );
-    verifyNoMoreInteractions(jokeRepository);
+    verifyNoMoreInteractions(jokeSearchIndex);
+    verifyNoMoreInteractions(randomJokeEngine);
   }
 }
\ No newline at end of file
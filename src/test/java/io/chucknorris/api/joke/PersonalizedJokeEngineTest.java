@@ -0,0 +1,164 @@
+package io.chucknorris.api.joke;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PersonalizedJokeEngineTest {
+
+  private static Joke devJoke, movieJoke, impersonalJoke, uncategorizedJoke, devMovieJoke;
+
+  @Mock
+  private JokeRepository jokeRepository;
+
+  @InjectMocks
+  private PersonalizedJokeEngine personalizedJokeEngine;
+
+  @Before
+  public void setUp() {
+    devJoke = Joke.builder()
+        .categories(new String[]{"dev"})
+        .id("ys--0t_-rrifz5jtcparbg")
+        .value("Chuck Norris programs do not accept input. Input accepts Chuck Norris.")
+        .build();
+    movieJoke = Joke.builder()
+        .categories(new String[]{"movie"})
+        .id("bg_h3xursougaxzprcrl0q")
+        .value("Chuck Norris doesn't read movie scripts, the scripts read him.")
+        .build();
+    impersonalJoke = Joke.builder()
+        .categories(new String[]{"dev"})
+        .id("id4dTcDiRneK4btgOGpNNw")
+        .value("Nobody programs like that.")
+        .build();
+    uncategorizedJoke = Joke.builder()
+        .id("a1ewkx_ysdo7vnbcr6kcbq")
+        .value("Chuck Norris counted to infinity. Twice.")
+        .build();
+    devMovieJoke = Joke.builder()
+        .categories(new String[]{"dev", "movie"})
+        .id("kq1bmmh5ruwx7ynmzg_pzw")
+        .value("Chuck Norris wrote the script of his movies in assembly.")
+        .build();
+  }
+
+  @Test
+  public void testRandomPersonalizedJokeFallsBackToRepositoryIfSnapshotIsEmpty() {
+    when(jokeRepository.getRandomPersonalizedJoke("Bob")).thenReturn(devJoke);
+    when(jokeRepository.getRandomPersonalizedJokeByCategories("Bob", "dev,movie"))
+        .thenReturn(movieJoke);
+
+    assertEquals(
+        devJoke.toBuilder().personalized(true).build(),
+        personalizedJokeEngine.randomPersonalizedJoke("Bob")
+    );
+    assertEquals(
+        movieJoke.toBuilder().personalized(true).build(),
+        personalizedJokeEngine.randomPersonalizedJokeByCategories(
+            "Bob", new String[]{"dev", "movie"}
+        )
+    );
+
+    verify(jokeRepository, times(1)).getRandomPersonalizedJoke("Bob");
+    verify(jokeRepository, times(1)).getRandomPersonalizedJokeByCategories("Bob", "dev,movie");
+    verifyNoMoreInteractions(jokeRepository);
+  }
+
+  @Test
+  public void testRandomPersonalizedJokeReplacesEveryOccurrenceOfTheName() {
+    personalizedJokeEngine.rebuild(Arrays.asList(devJoke, impersonalJoke));
+
+    for (int i = 0; i < 10; i++) {
+      Joke joke = personalizedJokeEngine.randomPersonalizedJoke("Bob");
+      assertEquals(devJoke.getId(), joke.getId());
+      assertTrue(joke.isPersonalized());
+      assertEquals("Bob programs do not accept input. Input accepts Bob.", joke.getValue());
+    }
+
+    assertEquals(
+        "Chuck Norris programs do not accept input. Input accepts Chuck Norris.",
+        devJoke.getValue()
+    );
+    verifyNoMoreInteractions(jokeRepository);
+  }
+
+  @Test
+  public void testRandomPersonalizedJokeByCategoriesOnlyPicksFromGivenCategories() {
+    personalizedJokeEngine.rebuild(Arrays.asList(devJoke, movieJoke, impersonalJoke));
+
+    for (int i = 0; i < 10; i++) {
+      Joke joke = personalizedJokeEngine.randomPersonalizedJokeByCategories(
+          "Bob", new String[]{"movie", "does-not-exist"}
+      );
+      assertEquals(movieJoke.getId(), joke.getId());
+      assertEquals("Bob doesn't read movie scripts, the scripts read him.", joke.getValue());
+    }
+
+    verifyNoMoreInteractions(jokeRepository);
+  }
+
+  @Test
+  public void testRandomPersonalizedJokeByCategoriesMatchesAnyCategoryOnly() {
+    personalizedJokeEngine.rebuild(
+        Arrays.asList(devJoke, devMovieJoke, uncategorizedJoke, impersonalJoke)
+    );
+
+    Set<String> ids = new HashSet<>();
+    for (int i = 0; i < 200; i++) {
+      ids.add(personalizedJokeEngine.randomPersonalizedJokeByCategories(
+          "Bob", new String[]{"movie", "dev"}
+      ).getId());
+    }
+
+    assertEquals(new HashSet<>(Arrays.asList(devJoke.getId(), devMovieJoke.getId())), ids);
+    verifyNoMoreInteractions(jokeRepository);
+  }
+
+  @Test
+  public void testRandomPersonalizedJokeByCategoriesOrUncategorizedMatchesUncategorizedJokes() {
+    personalizedJokeEngine.rebuild(
+        Arrays.asList(devJoke, devMovieJoke, uncategorizedJoke, impersonalJoke)
+    );
+
+    Set<String> ids = new HashSet<>();
+    for (int i = 0; i < 200; i++) {
+      Joke joke = personalizedJokeEngine.randomPersonalizedJokeByCategoriesOrUncategorized(
+          "Bob", new String[]{"movie", "movie"}
+      );
+      assertTrue(joke.isPersonalized());
+      ids.add(joke.getId());
+    }
+
+    assertEquals(
+        new HashSet<>(Arrays.asList(devMovieJoke.getId(), uncategorizedJoke.getId())),
+        ids
+    );
+    verifyNoMoreInteractions(jokeRepository);
+  }
+
+  @Test
+  public void testRandomPersonalizedJokeByCategoriesReturnsNullIfNoJokeIsEligible() {
+    personalizedJokeEngine.rebuild(Arrays.asList(movieJoke, impersonalJoke));
+
+    assertNull(personalizedJokeEngine.randomPersonalizedJokeByCategories(
+        "Bob", new String[]{"dev"}
+    ));
+
+    verifyNoMoreInteractions(jokeRepository);
+  }
+}
@@ -0,0 +1,178 @@
+package io.chucknorris.api.joke;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class RandomJokeEngineTest {
+
+  private static Joke devJoke, movieJoke;
+
+  @Mock
+  private JokeRepository jokeRepository;
+
+  @InjectMocks
+  private RandomJokeEngine randomJokeEngine;
+
+  @Before
+  public void setUp() {
+    devJoke = Joke.builder()
+        .categories(new String[]{"dev"})
+        .id("ys--0t_-rrifz5jtcparbg")
+        .value("Chuck Norris programs do not accept input.")
+        .build();
+    movieJoke = Joke.builder()
+        .categories(new String[]{"movie"})
+        .id("bg_h3xursougaxzprcrl0q")
+        .value("Chuck Norris doesn't read movie scripts, the scripts read him.")
+        .build();
+  }
+
+  @Test
+  public void testRandomJokeFallsBackToRepositoryIfSnapshotIsEmpty() {
+    when(jokeRepository.getRandomJoke()).thenReturn(devJoke);
+
+    assertEquals(devJoke, randomJokeEngine.randomJoke());
+
+    verify(jokeRepository, times(1)).getRandomJoke();
+    verifyNoMoreInteractions(jokeRepository);
+  }
+
+  @Test
+  public void testRandomJokeLoadsPickedJokeById() {
+    randomJokeEngine.rebuild(Collections.singletonList(
+        new Object[]{devJoke.getId(), "dev"}
+    ));
+    when(jokeRepository.findById(devJoke.getId())).thenReturn(Optional.of(devJoke));
+
+    assertEquals(devJoke, randomJokeEngine.randomJoke());
+    assertEquals(devJoke.getId(), randomJokeEngine.randomJokeId());
+
+    verify(jokeRepository, times(1)).findById(devJoke.getId());
+    verifyNoMoreInteractions(jokeRepository);
+  }
+
+  @Test
+  public void testRandomJokeByCategoryOnlyPicksFromGivenCategory() {
+    randomJokeEngine.rebuild(Arrays.asList(
+        new Object[]{devJoke.getId(), "dev"},
+        new Object[]{movieJoke.getId(), "movie"},
+        new Object[]{"id4dTcDiRneK4btgOGpNNw", null}
+    ));
+    when(jokeRepository.findById(movieJoke.getId())).thenReturn(Optional.of(movieJoke));
+
+    for (int i = 0; i < 10; i++) {
+      assertEquals(movieJoke, randomJokeEngine.randomJokeByCategory("movie"));
+      assertEquals(movieJoke, randomJokeEngine.randomJokeByCategories(
+          new String[]{"movie", "does-not-exist"}
+      ));
+    }
+  }
+
+  @Test
+  public void testRandomJokeByCategoriesMatchesAnyCategoryOfAJoke() {
+    Joke explicitDevJoke = devJoke.toBuilder()
+        .categories(new String[]{"explicit", "dev"})
+        .build();
+    randomJokeEngine.rebuild(Arrays.asList(
+        new Object[]{explicitDevJoke.getId(), "explicit"},
+        new Object[]{explicitDevJoke.getId(), "dev"},
+        new Object[]{movieJoke.getId(), "movie"}
+    ));
+    when(jokeRepository.findById(explicitDevJoke.getId()))
+        .thenReturn(Optional.of(explicitDevJoke));
+
+    for (int i = 0; i < 10; i++) {
+      assertEquals(explicitDevJoke, randomJokeEngine.randomJokeByCategories(
+          new String[]{"dev", "dev", "travel"}
+      ));
+      assertEquals(explicitDevJoke, randomJokeEngine.randomJokeByCategories(
+          new String[]{"explicit", "dev"}
+      ));
+    }
+    assertNull(randomJokeEngine.randomJokeByCategory("dev"));
+  }
+
+  @Test
+  public void testRandomJokeByCategoryReturnsNullIfCategoryIsEmpty() {
+    randomJokeEngine.rebuild(Collections.singletonList(
+        new Object[]{devJoke.getId(), "dev"}
+    ));
+
+    assertNull(randomJokeEngine.randomJokeByCategory("movie"));
+    assertNull(randomJokeEngine.randomJokeByCategories(new String[]{"movie", "travel"}));
+
+    verifyNoMoreInteractions(jokeRepository);
+  }
+
+  @Test
+  public void testRandomJokeFallsBackToRepositoryIfPickedJokeWasDeleted() {
+    randomJokeEngine.rebuild(Collections.singletonList(
+        new Object[]{"deleted", "dev"}
+    ));
+    when(jokeRepository.findById("deleted")).thenReturn(Optional.empty());
+    when(jokeRepository.getRandomJokeByCategory("dev")).thenReturn(devJoke);
+
+    assertEquals(devJoke, randomJokeEngine.randomJokeByCategory("dev"));
+
+    verify(jokeRepository, times(1)).findById("deleted");
+    verify(jokeRepository, times(1)).getRandomJokeByCategory("dev");
+    verifyNoMoreInteractions(jokeRepository);
+  }
+
+  @Test
+  public void testRandomJokeIdExcludingOnlyPicksRemainingIds() {
+    randomJokeEngine.rebuild(Arrays.asList(
+        new Object[]{devJoke.getId(), "dev"},
+        new Object[]{movieJoke.getId(), "movie"},
+        new Object[]{"id4dTcDiRneK4btgOGpNNw", null}
+    ));
+
+    for (int i = 0; i < 10; i++) {
+      assertEquals(
+          movieJoke.getId(),
+          randomJokeEngine.randomJokeIdExcluding(id -> !id.equals(movieJoke.getId()))
+      );
+    }
+
+    verifyNoMoreInteractions(jokeRepository);
+  }
+
+  @Test
+  public void testRandomJokeIdExcludingReturnsNullIfEveryJokeIsExcluded() {
+    randomJokeEngine.rebuild(Arrays.asList(
+        new Object[]{devJoke.getId(), "dev"},
+        new Object[]{movieJoke.getId(), "movie"}
+    ));
+
+    assertNull(randomJokeEngine.randomJokeIdExcluding(id -> true));
+
+    verifyNoMoreInteractions(jokeRepository);
+  }
+
+  @Test
+  public void testRandomJokeIdExcludingLoadsSnapshotIfEmpty() {
+    when(jokeRepository.findAllIdsAndCategories()).thenReturn(Collections.singletonList(
+        new Object[]{devJoke.getId(), "dev"}
+    ));
+
+    assertEquals(devJoke.getId(), randomJokeEngine.randomJokeIdExcluding(id -> false));
+
+    verify(jokeRepository, times(1)).findAllIdsAndCategories();
+    verifyNoMoreInteractions(jokeRepository);
+  }
+}
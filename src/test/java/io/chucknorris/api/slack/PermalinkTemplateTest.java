@@ -0,0 +1,51 @@
+package io.chucknorris.api.slack;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.util.UriComponentsBuilder;
+
+public class PermalinkTemplateTest {
+
+    private PermalinkTemplate permalinkTemplate = new PermalinkTemplate("random+joke");
+
+    @Test
+    public void testExpandReturnsPermalinkWithUtmParameters() {
+        assertEquals(
+            "https://localhost/jokes/bg_h3xursougaxzprcrl0q?utm_source=slack&utm_medium=api&utm_term=ACME&utm_campaign=random+joke",
+            permalinkTemplate.expand("localhost", "bg_h3xursougaxzprcrl0q", "ACME")
+        );
+    }
+
+    @Test
+    public void testExpandEncodesLikeUriComponentsBuilder() {
+        String[] teamDomains = new String[]{"ACME", "a&b=c d", "ünïcödé", null};
+
+        for (String teamDomain : teamDomains) {
+            assertEquals(
+                uriComponentsBuilder("api.chucknorris.io", "ys--0t_-rrifz5jtcparbg", teamDomain),
+                permalinkTemplate.expand("api.chucknorris.io", "ys--0t_-rrifz5jtcparbg", teamDomain)
+            );
+        }
+    }
+
+    private static String uriComponentsBuilder(String baseUrl, String jokeId, String teamDomain) {
+        MultiValueMap<String, String> urlQueryParams = new LinkedMultiValueMap<>();
+        urlQueryParams.set("utm_source", "slack");
+        urlQueryParams.set("utm_medium", "api");
+        urlQueryParams.set("utm_term", teamDomain);
+        urlQueryParams.set("utm_campaign", "random+joke");
+
+        return UriComponentsBuilder
+            .newInstance()
+            .scheme("https")
+            .host(baseUrl)
+            .path("/jokes/" + jokeId)
+            .queryParams(urlQueryParams)
+            .build()
+            .encode()
+            .toUriString();
+    }
+}
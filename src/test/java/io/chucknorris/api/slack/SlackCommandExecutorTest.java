@@ -0,0 +1,220 @@
+package io.chucknorris.api.slack;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.RestTemplate;
+
+public class SlackCommandExecutorTest {
+
+    private AtomicInteger attempts;
+
+    private AtomicInteger failuresLeft;
+
+    private HttpServer httpServer;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private BlockingQueue<String> postedBodies;
+
+    private SlackCommandExecutor slackCommandExecutor;
+
+    @Before
+    public void setUp() throws IOException {
+        attempts = new AtomicInteger();
+        failuresLeft = new AtomicInteger();
+        postedBodies = new LinkedBlockingQueue<>();
+
+        httpServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        httpServer.createContext("/response", exchange -> {
+            attempts.incrementAndGet();
+            String body = new String(
+                StreamUtils.copyToByteArray(exchange.getRequestBody()),
+                StandardCharsets.UTF_8
+            );
+
+            if (failuresLeft.getAndDecrement() > 0) {
+                exchange.sendResponseHeaders(500, -1);
+            } else {
+                postedBodies.add(body);
+                exchange.sendResponseHeaders(200, -1);
+            }
+            exchange.close();
+        });
+        httpServer.start();
+
+        meterRegistry = new SimpleMeterRegistry();
+        slackCommandExecutor = new SlackCommandExecutor(
+            meterRegistry, new RestTemplate(), 100, 2, 10, 3, 10
+        );
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        slackCommandExecutor.stop();
+        httpServer.stop(0);
+    }
+
+    @Test
+    public void testExecuteReturnsResponseWithinLatencyBudget() {
+        CommandResponse commandResponse = commandResponse("fast");
+
+        SlackCommandResponse response = slackCommandExecutor.execute(
+            request(),
+            request -> commandResponse
+        );
+
+        assertSame(commandResponse, response);
+        assertEquals(1, timerCount("application_slack_command_latency", "mode", "inline"));
+        assertEquals(0, attempts.get());
+    }
+
+    @Test
+    public void testExecutePostsResponseToResponseUrlIfLatencyBudgetIsExceeded()
+        throws InterruptedException
+    {
+        CountDownLatch release = new CountDownLatch(1);
+
+        SlackCommandResponse response = slackCommandExecutor.execute(request(), request -> {
+            await(release);
+            return commandResponse("slow");
+        });
+
+        assertEquals(ResponseType.EPHEMERAL, response.getResponseType());
+        assertEquals("Hang on, Chuck Norris is on it ...", response.getText());
+
+        release.countDown();
+
+        String body = postedBodies.poll(5, TimeUnit.SECONDS);
+        assertTrue(body.contains("\"text\":\"slow\""));
+        assertTrue(body.contains("\"response_type\":\"in_channel\""));
+
+        awaitTimer("application_slack_response_url_latency", "result", "success");
+        assertEquals(1, timerCount("application_slack_command_latency", "mode", "deferred"));
+        assertEquals(0, timerCount("application_slack_command_latency", "mode", "inline"));
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    public void testExecuteRetriesFailedPosts() throws InterruptedException {
+        failuresLeft.set(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        slackCommandExecutor.execute(request(), request -> {
+            await(release);
+            return commandResponse("slow");
+        });
+        release.countDown();
+
+        assertTrue(postedBodies.poll(5, TimeUnit.SECONDS).contains("\"text\":\"slow\""));
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    public void testExecuteGivesUpAfterMaxAttempts() throws InterruptedException {
+        failuresLeft.set(3);
+        CountDownLatch release = new CountDownLatch(1);
+
+        slackCommandExecutor.execute(request(), request -> {
+            await(release);
+            return commandResponse("slow");
+        });
+        release.countDown();
+
+        awaitTimer("application_slack_response_url_latency", "result", "failure");
+        assertEquals(3, attempts.get());
+        assertEquals(0, postedBodies.size());
+    }
+
+    @Test
+    public void testExecuteHandlesRequestWithoutResponseUrlOnCallingThread() {
+        AtomicReference<Thread> handlerThread = new AtomicReference<>();
+        Request request = request();
+        request.setResponseUrl(null);
+
+        slackCommandExecutor.execute(request, r -> {
+            handlerThread.set(Thread.currentThread());
+            return commandResponse("fast");
+        });
+
+        assertSame(Thread.currentThread(), handlerThread.get());
+        assertEquals(1, timerCount("application_slack_command_latency", "mode", "caller"));
+    }
+
+    @Test
+    public void testExecutePostsErrorMessageIfDeferredHandlerFails() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+
+        slackCommandExecutor.execute(request(), request -> {
+            await(release);
+            throw new IllegalArgumentException("Chuck Norris does not fail.");
+        });
+        release.countDown();
+
+        String body = postedBodies.poll(5, TimeUnit.SECONDS);
+        assertTrue(body.contains("\"response_type\":\"ephemeral\""));
+        assertTrue(body.contains("Chuck Norris couldn't finish that one."));
+        assertEquals(1, attempts.get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testExecuteRethrowsExceptionOfHandlerWithinLatencyBudget() {
+        slackCommandExecutor.execute(request(), request -> {
+            throw new IllegalArgumentException("Chuck Norris does not fail.");
+        });
+    }
+
+    private Request request() {
+        Request request = new Request();
+        request.setResponseUrl(
+            "http://localhost:" + httpServer.getAddress().getPort() + "/response"
+        );
+        request.setTeamDomain("ACME");
+        request.setText("? Kleenex");
+        return request;
+    }
+
+    private long timerCount(String name, String tagKey, String tagValue) {
+        return meterRegistry.get(name).tag(tagKey, tagValue).timer().count();
+    }
+
+    private void awaitTimer(String name, String tagKey, String tagValue)
+        throws InterruptedException
+    {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (timerCount(name, tagKey, tagValue) < 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(1, timerCount(name, tagKey, tagValue));
+    }
+
+    private static CommandResponse commandResponse(String text) {
+        CommandResponse commandResponse = new CommandResponse();
+        commandResponse.setText(text);
+        return commandResponse;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -4,18 +4,19 @@ import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.anyString;
+import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import io.chucknorris.api.joke.CategoryCatalog;
 import io.chucknorris.api.joke.Joke;
-import io.chucknorris.api.joke.JokeRepository;
+import io.chucknorris.api.joke.JokeCache;
 import io.chucknorris.api.joke.JokeService;
 import io.chucknorris.lib.event.EventService;
 import io.micrometer.core.instrument.Counter;
-import io.micrometer.core.instrument.MeterRegistry;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Optional;
@@ -40,23 +41,29 @@ public class SlackControllerTest {
     private static Joke joke;
 
     @Mock
-    private Counter counter;
+    private CategoryCatalog categoryCatalog;
 
     @Mock
-    private EventService eventService;
+    private Counter counter;
 
     @Mock
-    JokeService jokeService;
+    private EventService eventService;
 
     @Mock
-    private JokeRepository jokeRepository;
+    private JokeCache jokeCache;
 
     @Mock
-    private MeterRegistry meterRegistry;
+    JokeService jokeService;
 
     @InjectMocks
     private SlackController slackController;
 
+    @Mock
+    private SlackCommandExecutor slackCommandExecutor;
+
+    @Mock
+    private SlackMetrics slackMetrics;
+
     @Mock
     private SlackService slackService;
 
@@ -83,31 +90,20 @@ public class SlackControllerTest {
             .value(jokeValue)
             .build();
 
-        when(meterRegistry.counter(
-            anyString(), anyString(), anyString()
-        )).thenReturn(counter);
+        when(slackMetrics.connectCounter(anyString())).thenReturn(counter);
 
-        when(meterRegistry.counter(
-            anyString(), anyString(), anyString(), anyString(), anyString()
-        )).thenReturn(counter);
+        when(slackMetrics.commandCounter(anyString(), anyString())).thenReturn(counter);
+
+        when(slackCommandExecutor.execute(any(Request.class), any(SlackCommandHandler.class)))
+            .thenAnswer(invocation ->
+                invocation.<SlackCommandHandler>getArgument(1).handle(invocation.getArgument(0))
+            );
 
         when(
             slackService.getWhitelistedCategories()
         ).thenReturn(
             whiteListedCategories
         );
-
-        when(
-            slackService.filterNonWhitelistedCategories(new String[]{"dev", "fashion", "food"})
-        ).thenReturn(
-            new String[]{"dev", "fashion", "food"}
-        );
-
-        when(
-            slackService.filterNonWhitelistedCategories(new String[]{"dev", "explicit", "fashion", "food"})
-        ).thenReturn(
-            new String[]{"dev", "fashion", "food"}
-        );
     }
 
     @Test
@@ -117,7 +113,7 @@ public class SlackControllerTest {
         accessToken.setTeamName("ACME");
 
         when(slackService.requestAccessToken("my-super-secret-code")).thenReturn(accessToken);
-        when(eventService.publishEvent(any(SlackConnectEvent.class))).thenReturn(null);
+        when(eventService.publishEvent(any(SlackConnectEvent.class))).thenReturn(true);
 
         ModelAndView view = slackController.connect("my-super-secret-code");
         assertEquals(HttpStatus.OK, view.getStatus());
@@ -131,10 +127,8 @@ public class SlackControllerTest {
         verify(eventService, times(1)).publishEvent(any(SlackConnectEvent.class));
         verifyNoMoreInteractions(eventService);
 
-        verify(meterRegistry, times(1)).counter(
-            "application_slack_connect", "team_name", "ACME"
-        );
-        verifyNoMoreInteractions(meterRegistry);
+        verify(slackMetrics, times(1)).connectCounter("ACME");
+        verifyNoMoreInteractions(slackMetrics);
         verify(counter, times(1)).increment();
         verifyNoMoreInteractions(counter);
     }
@@ -223,8 +217,6 @@ public class SlackControllerTest {
         assertEquals("Help", jokeById.getTitle());
         assertEquals(null, jokeById.getTitleLink());
         assertArrayEquals(new String[]{"text"}, jokeById.getMrkdownIn());
-
-        verifyNoMoreInteractions(jokeRepository);
     }
 
     @Test
@@ -250,10 +242,8 @@ public class SlackControllerTest {
         verify(slackService, times(1)).getWhitelistedCategories();
         verifyNoMoreInteractions(slackService);
 
-        verify(meterRegistry, times(1)).counter(
-            "application_slack_command", "command_type", "random_joke", "team_name", "ACME"
-        );
-        verifyNoMoreInteractions(meterRegistry);
+        verify(slackMetrics, times(1)).commandCounter("random_joke", "ACME");
+        verifyNoMoreInteractions(slackMetrics);
 
         verify(counter, times(1)).increment();
         verifyNoMoreInteractions(counter);
@@ -282,10 +272,8 @@ public class SlackControllerTest {
         verify(slackService, times(1)).getWhitelistedCategories();
         verifyNoMoreInteractions(slackService);
 
-        verify(meterRegistry, times(1)).counter(
-            "application_slack_command", "command_type", "random_joke", "team_name", "ACME"
-        );
-        verifyNoMoreInteractions(meterRegistry);
+        verify(slackMetrics, times(1)).commandCounter("random_joke", "ACME");
+        verifyNoMoreInteractions(slackMetrics);
 
         verify(counter, times(1)).increment();
         verifyNoMoreInteractions(counter);
@@ -295,10 +283,9 @@ public class SlackControllerTest {
     public void testReturnRandomJokeFromACategoryIfTextContainsCategory() {
         String[] categories = new String[]{"dev"};
 
-        when(jokeRepository.findAllCategories()).thenReturn(categories);
+        when(categoryCatalog.contains("dev")).thenReturn(true);
         when(jokeService.randomJokeByCategory("dev")).thenReturn(joke);
         when(slackService.isWhitelistedCategory("dev")).thenReturn(true);
-        when(slackService.filterNonWhitelistedCategories(categories)).thenReturn(categories);
 
         Request request = new Request();
         request.setText("dev");
@@ -317,24 +304,57 @@ public class SlackControllerTest {
             .getTitleLink());
 
         verify(slackService, times(1)).isWhitelistedCategory("dev");
-        verify(slackService, times(1)).filterNonWhitelistedCategories(categories);
         verifyNoMoreInteractions(slackService);
 
-        verify(jokeRepository, times(1)).findAllCategories();
-        verifyNoMoreInteractions(jokeRepository);
+        verify(categoryCatalog, times(1)).contains("dev");
+        verifyNoMoreInteractions(categoryCatalog);
 
         verify(jokeService, times(1)).randomJokeByCategory("dev");
         verifyNoMoreInteractions(jokeService);
 
-        verify(meterRegistry, times(1)).counter(
-            "application_slack_command", "command_type", "random_joke_by_category", "team_name", "ACME"
-        );
-        verifyNoMoreInteractions(meterRegistry);
+        verify(slackMetrics, times(1)).commandCounter("random_joke_by_category", "ACME");
+        verifyNoMoreInteractions(slackMetrics);
 
         verify(counter, times(1)).increment();
         verifyNoMoreInteractions(counter);
     }
 
+    @Test
+    public void testResolveCommandHandlerMatchesWholeCommandsOnly() {
+        assertEquals(
+            slackController.resolveCommandHandler("dev"),
+            slackController.resolveCommandHandler("helpdesk")
+        );
+        assertEquals(
+            slackController.resolveCommandHandler("dev"),
+            slackController.resolveCommandHandler("-category")
+        );
+    }
+
+    @Test
+    public void testSearchAndPersonalizedJokeAreRunByTheCommandExecutor() {
+        when(slackCommandExecutor.execute(any(Request.class), any(SlackCommandHandler.class)))
+            .thenReturn(new CommandResponse());
+
+        Request searchRequest = new Request();
+        searchRequest.setText("? Kleenex");
+        slackController.command(searchRequest);
+
+        Request personalizedJokeRequest = new Request();
+        personalizedJokeRequest.setText("@Bob");
+        slackController.command(personalizedJokeRequest);
+
+        Request helpRequest = new Request();
+        helpRequest.setText("help");
+        slackController.command(helpRequest);
+
+        verify(slackCommandExecutor, times(1))
+            .execute(eq(searchRequest), any(SlackCommandHandler.class));
+        verify(slackCommandExecutor, times(1))
+            .execute(eq(personalizedJokeRequest), any(SlackCommandHandler.class));
+        verifyNoMoreInteractions(slackCommandExecutor);
+    }
+
     @Test
     public void testReturnErrorIfCategoryIsNotWhitelisted() {
         when(slackService.isWhitelistedCategory("explicit")).thenReturn(false);
@@ -354,11 +374,8 @@ public class SlackControllerTest {
 
     @Test
     public void testReturnErrorIfCategoryDoesNotExist() {
-        String[] categories = new String[]{"dev"};
-
         when(slackService.isWhitelistedCategory("does-not-exist")).thenReturn(true);
-        when(jokeRepository.findAllCategories()).thenReturn(categories);
-        when(slackService.filterNonWhitelistedCategories(categories)).thenReturn(categories);
+        when(categoryCatalog.contains("does-not-exist")).thenReturn(false);
 
         Request request = new Request();
         request.setText("does-not-exist");
@@ -369,40 +386,17 @@ public class SlackControllerTest {
         assertEquals("Sorry dude ¯\\_(ツ)_/¯ , we've found no jokes for the given category (\"does-not-exist\"). Type `/chuck -cat` to see available categories or search by query `/chuck ? {search_term}`", response.getText());
         assertEquals(ResponseType.EPHEMERAL, response.getResponseType());
 
-        verify(jokeRepository, times(1)).findAllCategories();
-        verifyNoMoreInteractions(jokeRepository);
+        verify(categoryCatalog, times(1)).contains("does-not-exist");
+        verifyNoMoreInteractions(categoryCatalog);
 
         verify(slackService, times(1)).isWhitelistedCategory("does-not-exist");
-        verify(slackService, times(1)).filterNonWhitelistedCategories(categories);
         verifyNoMoreInteractions(slackService);
     }
 
     @Test
     public void testReturnListOfCategories() {
-        when(jokeRepository.findAllCategories()).thenReturn(new String[]{"dev", "fashion", "food"});
-
-        Request request = new Request();
-        request.setText("-cat");
-        request.setTeamDomain("ACME");
-
-        SlackCommandResponse response = slackController.command(request);
-        assertEquals(null, response.getAttachments());
-        assertEquals(iconUrl, response.getIconUrl());
-        assertEquals("Available categories are: `dev`, `fashion`, `food`. Type `/chuck {category_name}` to retrieve a random joke from within the given category.", response.getText());
-        assertEquals(ResponseType.EPHEMERAL, response.getResponseType());
-
-        verify(meterRegistry, times(1)).counter(
-            "application_slack_command", "command_type", "find_all_categories", "team_name", "ACME"
-        );
-        verifyNoMoreInteractions(meterRegistry);
-
-        verify(counter, times(1)).increment();
-        verifyNoMoreInteractions(counter);
-    }
-
-    @Test
-    public void testReturnListOfCategoriesWhitelisted() {
-        when(jokeRepository.findAllCategories()).thenReturn(new String[]{"dev", "explicit", "fashion", "food"});
+        when(slackService.getWhitelistedCatalogCategories())
+            .thenReturn(new String[]{"dev", "fashion", "food"});
 
         Request request = new Request();
         request.setText("-cat");
@@ -414,10 +408,8 @@ public class SlackControllerTest {
         assertEquals("Available categories are: `dev`, `fashion`, `food`. Type `/chuck {category_name}` to retrieve a random joke from within the given category.", response.getText());
         assertEquals(ResponseType.EPHEMERAL, response.getResponseType());
 
-        verify(meterRegistry, times(1)).counter(
-            "application_slack_command", "command_type", "find_all_categories", "team_name", "ACME"
-        );
-        verifyNoMoreInteractions(meterRegistry);
+        verify(slackMetrics, times(1)).commandCounter("find_all_categories", "ACME");
+        verifyNoMoreInteractions(slackMetrics);
 
         verify(counter, times(1)).increment();
         verifyNoMoreInteractions(counter);
@@ -425,7 +417,7 @@ public class SlackControllerTest {
 
     @Test
     public void testReturnJokeByItsId() {
-        when(jokeRepository.findById(jokeId)).thenReturn(Optional.of(joke));
+        when(jokeCache.findById(jokeId)).thenReturn(Optional.of(joke));
 
         Request request = new Request();
         request.setText(": " + jokeId);
@@ -443,13 +435,11 @@ public class SlackControllerTest {
         assertEquals("https://localhost/jokes/bg_h3xursougaxzprcrl0q?utm_source=slack&utm_medium=api&utm_term=ACME&utm_campaign=joke+by+id", commandResponseAttachment
             .getTitleLink());
 
-        verify(jokeRepository, times(1)).findById(jokeId);
-        verifyNoMoreInteractions(jokeRepository);
+        verify(jokeCache, times(1)).findById(jokeId);
+        verifyNoMoreInteractions(jokeCache);
 
-        verify(meterRegistry, times(1)).counter(
-            "application_slack_command", "command_type", "find_joke_by_id", "team_name", "ACME"
-        );
-        verifyNoMoreInteractions(meterRegistry);
+        verify(slackMetrics, times(1)).commandCounter("find_joke_by_id", "ACME");
+        verifyNoMoreInteractions(slackMetrics);
 
         verify(counter, times(1)).increment();
         verifyNoMoreInteractions(counter);
@@ -457,7 +447,7 @@ public class SlackControllerTest {
 
     @Test
     public void testReturnErrorIfJokeDoesNotExist() {
-        when(jokeRepository.findById("does-not-exist")).thenReturn(Optional.empty());
+        when(jokeCache.findById("does-not-exist")).thenReturn(Optional.empty());
 
         Request request = new Request();
         request.setText(": does-not-exist");
@@ -468,20 +458,20 @@ public class SlackControllerTest {
         assertEquals("Sorry dude ¯\\_(ツ)_/¯ , no joke with id (\"does-not-exist\") found.", response.getText());
         assertEquals(ResponseType.EPHEMERAL, response.getResponseType());
 
-        verify(jokeRepository, times(1)).findById("does-not-exist");
-        verifyNoMoreInteractions(jokeRepository);
+        verify(jokeCache, times(1)).findById("does-not-exist");
+        verifyNoMoreInteractions(jokeCache);
     }
 
     @Test
     public void testReturnRandomPersonalizedJoke() {
         String substitute = "Bob";
-        String[] categories = new String[]{"dev", "explicit", "fashion", "food"};
+        String[] categories = new String[]{"dev", "fashion", "food"};
 
         joke = joke.toBuilder().value(
             joke.getValue().replace("Chuck Norris", "Bob")
         ).build();
 
-        when(jokeRepository.findAllCategories()).thenReturn(categories);
+        when(slackService.getWhitelistedCatalogCategories()).thenReturn(categories);
         when(jokeService.randomPersonalizedJokeByCategories(
             substitute,
             new String[]{"dev", "fashion", "food"}
@@ -503,12 +493,9 @@ public class SlackControllerTest {
         assertEquals("https://localhost/jokes/bg_h3xursougaxzprcrl0q?utm_source=slack&utm_medium=api&utm_term=ACME&utm_campaign=random+personalized+joke", commandResponseAttachment
             .getTitleLink());
 
-        verify(jokeRepository, times(1)).findAllCategories();
-        verifyNoMoreInteractions(jokeRepository);
+        verifyNoMoreInteractions(categoryCatalog);
 
-        verify(slackService, times(1)).filterNonWhitelistedCategories(
-            new String[]{"dev", "explicit", "fashion", "food"}
-        );
+        verify(slackService, times(1)).getWhitelistedCatalogCategories();
         verifyNoMoreInteractions(slackService);
 
         verify(jokeService, times(1)).randomPersonalizedJokeByCategories(
@@ -517,10 +504,8 @@ public class SlackControllerTest {
         );
         verifyNoMoreInteractions(jokeService);
 
-        verify(meterRegistry, times(1)).counter(
-            "application_slack_command", "command_type", "random_personalized_joke", "team_name", "ACME"
-        );
-        verifyNoMoreInteractions(meterRegistry);
+        verify(slackMetrics, times(1)).commandCounter("random_personalized_joke", "ACME");
+        verifyNoMoreInteractions(slackMetrics);
 
         verify(counter, times(1)).increment();
         verifyNoMoreInteractions(counter);
@@ -537,8 +522,7 @@ public class SlackControllerTest {
             Sort.unsorted()
         );
 
-        when(jokeRepository.findAllCategories()).thenReturn(categories);
-        when(slackService.filterNonWhitelistedCategories(categories)).thenReturn(categories);
+        when(slackService.getWhitelistedCatalogCategories()).thenReturn(categories);
         when(jokeService.searchWithCategoryFilter(query, categories, pageable)).thenReturn(
             new PageImpl<>(Arrays.asList(joke, joke, joke))
         );
@@ -561,10 +545,9 @@ public class SlackControllerTest {
                 .getTitleLink());
         }
 
-        verify(jokeRepository, times(1)).findAllCategories();
-        verifyNoMoreInteractions(jokeRepository);
+        verifyNoMoreInteractions(categoryCatalog);
 
-        verify(slackService, times(1)).filterNonWhitelistedCategories(categories);
+        verify(slackService, times(1)).getWhitelistedCatalogCategories();
         verifyNoMoreInteractions(slackService);
 
         verify(jokeService, times(1)).searchWithCategoryFilter(
@@ -574,10 +557,8 @@ public class SlackControllerTest {
         );
         verifyNoMoreInteractions(jokeService);
 
-        verify(meterRegistry, times(1)).counter(
-            "application_slack_command", "command_type", "search_joke", "team_name", "ACME"
-        );
-        verifyNoMoreInteractions(meterRegistry);
+        verify(slackMetrics, times(1)).commandCounter("search_joke", "ACME");
+        verifyNoMoreInteractions(slackMetrics);
 
         verify(counter, times(1)).increment();
         verifyNoMoreInteractions(counter);
@@ -594,8 +575,7 @@ public class SlackControllerTest {
             Sort.unsorted()
         );
 
-        when(jokeRepository.findAllCategories()).thenReturn(categories);
-        when(slackService.filterNonWhitelistedCategories(categories)).thenReturn(categories);
+        when(slackService.getWhitelistedCatalogCategories()).thenReturn(categories);
         when(jokeService.searchWithCategoryFilter(query, categories, pageable)).thenReturn(
             new PageImpl(
                 Arrays.asList(joke, joke, joke, joke, joke),
@@ -622,16 +602,14 @@ public class SlackControllerTest {
                 .getTitleLink());
         }
 
-        verify(slackService, times(1)).filterNonWhitelistedCategories(categories);
+        verify(slackService, times(1)).getWhitelistedCatalogCategories();
         verifyNoMoreInteractions(slackService);
 
         verify(jokeService, times(1)).searchWithCategoryFilter(query, categories, pageable);
         verifyNoMoreInteractions(jokeService);
 
-        verify(meterRegistry, times(1)).counter(
-            "application_slack_command", "command_type", "search_joke", "team_name", "ACME"
-        );
-        verifyNoMoreInteractions(meterRegistry);
+        verify(slackMetrics, times(1)).commandCounter("search_joke", "ACME");
+        verifyNoMoreInteractions(slackMetrics);
 
         verify(counter, times(1)).increment();
         verifyNoMoreInteractions(counter);
@@ -643,8 +621,7 @@ public class SlackControllerTest {
         String[] categories = new String[]{"dev", "movie"};
         Pageable pageable = PageRequest.of(1, 5, Sort.unsorted());
 
-        when(jokeRepository.findAllCategories()).thenReturn(categories);
-        when(slackService.filterNonWhitelistedCategories(categories)).thenReturn(categories);
+        when(slackService.getWhitelistedCatalogCategories()).thenReturn(categories);
         when(jokeService.searchWithCategoryFilter(query, categories, pageable)).thenReturn(
             new PageImpl(
                 Arrays.asList(joke, joke, joke, joke, joke),
@@ -671,19 +648,16 @@ public class SlackControllerTest {
                 .getTitleLink());
         }
 
-        verify(jokeRepository, times(1)).findAllCategories();
-        verifyNoMoreInteractions(jokeRepository);
+        verifyNoMoreInteractions(categoryCatalog);
 
-        verify(slackService, times(1)).filterNonWhitelistedCategories(categories);
+        verify(slackService, times(1)).getWhitelistedCatalogCategories();
         verifyNoMoreInteractions(slackService);
 
         verify(jokeService, times(1)).searchWithCategoryFilter(query, categories, pageable);
         verifyNoMoreInteractions(jokeService);
 
-        verify(meterRegistry, times(1)).counter(
-            "application_slack_command", "command_type", "search_joke", "team_name", "ACME"
-        );
-        verifyNoMoreInteractions(meterRegistry);
+        verify(slackMetrics, times(1)).commandCounter("search_joke", "ACME");
+        verifyNoMoreInteractions(slackMetrics);
 
         verify(counter, times(1)).increment();
         verifyNoMoreInteractions(counter);
@@ -700,8 +674,7 @@ public class SlackControllerTest {
             Sort.unsorted()
         );
 
-        when(jokeRepository.findAllCategories()).thenReturn(categories);
-        when(slackService.filterNonWhitelistedCategories(categories)).thenReturn(categories);
+        when(slackService.getWhitelistedCatalogCategories()).thenReturn(categories);
         when(jokeService.searchWithCategoryFilter(query, categories, pageable)).thenReturn(
             new PageImpl<>(new ArrayList<>())
         );
@@ -716,10 +689,9 @@ public class SlackControllerTest {
         assertEquals("Your search for *\"" + query + "\"* did not match any joke ¯\\_(ツ)_/¯. Make sure that all words are spelled correctly. Try different keywords. Try more general keywords.", response.getText());
         assertEquals(ResponseType.EPHEMERAL, response.getResponseType());
 
-        verify(jokeRepository, times(1)).findAllCategories();
-        verifyNoMoreInteractions(jokeRepository);
+        verifyNoMoreInteractions(categoryCatalog);
 
-        verify(slackService, times(1)).filterNonWhitelistedCategories(categories);
+        verify(slackService, times(1)).getWhitelistedCatalogCategories();
         verifyNoMoreInteractions(slackService);
 
         verify(jokeService, times(1)).searchWithCategoryFilter(
@@ -0,0 +1,93 @@
+package io.chucknorris.api.slack;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SlackMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private SlackMetrics slackMetrics;
+
+    @Before
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        slackMetrics = new SlackMetrics(meterRegistry, new SlackTeamTagFilter(1));
+    }
+
+    @Test
+    public void testCommandCounterIsCachedAndFoldsTeamsWithoutSlot() {
+        Counter counter = slackMetrics.commandCounter("random_joke", "ACME");
+        counter.increment();
+
+        assertSame(counter, slackMetrics.commandCounter("random_joke", "ACME"));
+        assertEquals("ACME", counter.getId().getTag("team_name"));
+
+        Counter other = slackMetrics.commandCounter("random_joke", "Globex");
+        assertSame(other, slackMetrics.commandCounter("random_joke", "Initech"));
+        assertEquals("other", other.getId().getTag("team_name"));
+
+        assertEquals(
+            "other",
+            slackMetrics.connectCounter("Globex").getId().getTag("team_name")
+        );
+    }
+
+    @Test
+    public void testRebalanceRemovesSeriesOfDemotedTeams() {
+        slackMetrics.commandCounter("random_joke", "ACME").increment();
+        for (int i = 0; i < 3; i++) {
+            slackMetrics.commandCounter("random_joke", "Globex").increment();
+        }
+
+        slackMetrics.rebalance();
+
+        assertNull(meterRegistry.find("application_slack_command").tag("team_name", "ACME").counter());
+        assertEquals(
+            "Globex",
+            slackMetrics.commandCounter("random_joke", "Globex").getId().getTag("team_name")
+        );
+        assertEquals(
+            "other",
+            slackMetrics.commandCounter("random_joke", "ACME").getId().getTag("team_name")
+        );
+    }
+
+    @Test
+    public void testCommandCounterDoesNotCacheSeriesOfTeamThatLostItsSlot() {
+        // Resolves every team as if it still had its slot, like a request racing a rebalance.
+        SlackTeamTagFilter slackTeamTagFilter = new SlackTeamTagFilter(1) {
+            @Override
+            public String record(final String teamName) {
+                super.record(teamName);
+                return teamName;
+            }
+        };
+        meterRegistry.config().meterFilter(slackTeamTagFilter);
+        slackMetrics = new SlackMetrics(meterRegistry, slackTeamTagFilter);
+
+        slackMetrics.commandCounter("random_joke", "ACME").increment();
+        for (int i = 0; i < 3; i++) {
+            Counter counter = slackMetrics.commandCounter("random_joke", "Globex");
+            assertEquals("other", counter.getId().getTag("team_name"));
+            counter.increment();
+        }
+
+        slackMetrics.rebalance();
+
+        assertEquals(
+            "Globex",
+            slackMetrics.commandCounter("random_joke", "Globex").getId().getTag("team_name")
+        );
+        assertNotNull(
+            meterRegistry.find("application_slack_command").tag("team_name", "other").counter()
+        );
+    }
+}
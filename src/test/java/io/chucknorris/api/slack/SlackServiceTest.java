@@ -9,6 +9,8 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
+import io.chucknorris.api.joke.CategoryCatalog;
+import io.chucknorris.api.joke.JokeRepository;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -33,12 +35,15 @@ public class SlackServiceTest {
     @InjectMocks
     private SlackService slackService = new SlackService();
 
+    @Mock
+    private JokeRepository jokeRepository;
+
     @Mock
     private RestTemplate restTemplate;
 
     @Before
     public void setUp() {
-        ReflectionTestUtils.setField(slackService, "whitelistedCategories", "career,celebrity,dev,fashion,food,money,movie,travel");
+        slackService.setWhitelistedCategories("career,celebrity,dev,fashion,food,money,movie,travel");
         ReflectionTestUtils.setField(slackService, "clientId", "slack.oauth.client_id");
         ReflectionTestUtils.setField(slackService, "clientSecret", "slack.oauth.client_secret");
         ReflectionTestUtils.setField(slackService, "redirectUrl", "slack.oauth.redirect_uri");
@@ -100,6 +105,37 @@ public class SlackServiceTest {
         );
     }
 
+    @Test
+    public void testGetWhitelistedCategoriesIgnoresBlankEntries() {
+        slackService.setWhitelistedCategories(" dev, ,movie,");
+
+        assertArrayEquals(new String[]{"dev", "movie"}, slackService.getWhitelistedCategories());
+        assertTrue(slackService.isWhitelistedCategory("movie"));
+    }
+
+    @Test
+    public void testGetWhitelistedCatalogCategoriesFollowsCatalogVersion() {
+        CategoryCatalog categoryCatalog = new CategoryCatalog(jokeRepository);
+        ReflectionTestUtils.setField(slackService, "categoryCatalog", categoryCatalog);
+
+        when(jokeRepository.findAllCategories()).thenReturn(
+            new String[]{"dev", "explicit", "fashion", "food"},
+            new String[]{"dev", "explicit", "religion"}
+        );
+
+        assertArrayEquals(
+            new String[]{"dev", "fashion", "food"},
+            slackService.getWhitelistedCatalogCategories()
+        );
+
+        categoryCatalog.refresh();
+
+        assertArrayEquals(
+            new String[]{"dev"},
+            slackService.getWhitelistedCatalogCategories()
+        );
+    }
+
     @Test
     public void testIfGivenCategoryIsWhitelisted() {
         assertFalse(slackService.isWhitelistedCategory("explicit"));
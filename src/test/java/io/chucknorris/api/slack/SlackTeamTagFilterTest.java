@@ -0,0 +1,74 @@
+package io.chucknorris.api.slack;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Collections;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SlackTeamTagFilterTest {
+
+    private SlackTeamTagFilter slackTeamTagFilter;
+
+    @Before
+    public void setUp() {
+        slackTeamTagFilter = new SlackTeamTagFilter(2);
+    }
+
+    @Test
+    public void testRecordAdmitsTeamsUntilAllSlotsAreTaken() {
+        assertEquals("ACME", slackTeamTagFilter.record("ACME"));
+        assertEquals("Globex", slackTeamTagFilter.record("Globex"));
+        assertEquals("other", slackTeamTagFilter.record("Initech"));
+        assertEquals("other", slackTeamTagFilter.record(null));
+
+        assertEquals("ACME", slackTeamTagFilter.resolve("ACME"));
+        assertEquals("other", slackTeamTagFilter.resolve("Initech"));
+    }
+
+    @Test
+    public void testRebalanceKeepsTopTeamsByVolume() {
+        slackTeamTagFilter.record("ACME");
+        slackTeamTagFilter.record("Globex");
+        slackTeamTagFilter.record("Globex");
+        for (int i = 0; i < 5; i++) {
+            assertEquals("other", slackTeamTagFilter.record("Initech"));
+        }
+
+        assertEquals(Collections.singleton("ACME"), slackTeamTagFilter.rebalance());
+
+        assertEquals("other", slackTeamTagFilter.resolve("ACME"));
+        assertEquals("Globex", slackTeamTagFilter.resolve("Globex"));
+        assertEquals("Initech", slackTeamTagFilter.resolve("Initech"));
+    }
+
+    @Test
+    public void testRecordReplacesSmallTeamIfSketchIsFull() {
+        slackTeamTagFilter = new SlackTeamTagFilter(1);
+        for (String teamName : new String[]{"ACME", "Globex", "Initech", "Umbrella", "Hooli"}) {
+            slackTeamTagFilter.record(teamName);
+        }
+
+        assertEquals(Collections.singleton("ACME"), slackTeamTagFilter.rebalance());
+        assertEquals("Hooli", slackTeamTagFilter.resolve("Hooli"));
+    }
+
+    @Test
+    public void testMapFoldsTeamTagOfSlackMetersOnly() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        meterRegistry.config().meterFilter(slackTeamTagFilter);
+        slackTeamTagFilter.record("ACME");
+
+        meterRegistry.counter("application_slack_command", "command_type", "help", "team_name", "ACME");
+        meterRegistry.counter("application_slack_command", "command_type", "help", "team_name", "Initech");
+        meterRegistry.counter("application_other", "team_name", "Initech");
+
+        assertNotNull(meterRegistry.find("application_slack_command").tag("team_name", "ACME").counter());
+        assertNotNull(meterRegistry.find("application_slack_command").tag("team_name", "other").counter());
+        assertNull(meterRegistry.find("application_slack_command").tag("team_name", "Initech").counter());
+        assertNotNull(meterRegistry.find("application_other").tag("team_name", "Initech").counter());
+    }
+}
@@ -1,17 +1,132 @@
 package io.chucknorris.lib.event;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.services.sns.AbstractAmazonSNS;
+import com.amazonaws.services.sns.model.PublishRequest;
+import com.amazonaws.services.sns.model.PublishResult;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
 import org.junit.Test;
-import org.junit.runner.RunWith;
-import org.mockito.InjectMocks;
-import org.mockito.junit.MockitoJUnitRunner;
 
-@RunWith(MockitoJUnitRunner.class)
 public class EventServiceTest {
 
-    @InjectMocks
+    private static final String topicArn = "arn:aws:sns:us-east-1:000000000000:chucknorris_sys";
+
+    private FakeAmazonSNS amazonSNS;
+
     private EventService eventService;
 
+    private MeterRegistry meterRegistry;
+
+    @Before
+    public void setUp() {
+        amazonSNS = new FakeAmazonSNS();
+        meterRegistry = new SimpleMeterRegistry();
+        eventService = new EventService(meterRegistry, amazonSNS, topicArn, 2, 10, 3, 1);
+    }
+
+    @Test
+    public void testPublishEventQueuesSerializedEvent() throws Exception {
+        assertTrue(eventService.publishEvent(new BaseEvent("JokeEvent", "payload")));
+        assertEquals(0, amazonSNS.publishRequests.size());
+        assertEquals(1, meterRegistry.get("application_event_queue_depth").gauge().value(), 0);
+
+        assertEquals(1, eventService.drain(0, TimeUnit.MILLISECONDS));
+
+        assertEquals(1, amazonSNS.publishRequests.size());
+        assertEquals(topicArn, amazonSNS.publishRequests.get(0).getTopicArn());
+        assertEquals(
+            "{\"name\":\"JokeEvent\",\"payload\":\"payload\"}",
+            amazonSNS.publishRequests.get(0).getMessage()
+        );
+        assertEquals(0, meterRegistry.get("application_event_queue_depth").gauge().value(), 0);
+        assertEquals(
+            1,
+            meterRegistry.get("application_event_publish_latency").tag("event_name", "JokeEvent")
+                .timer().count()
+        );
+    }
+
+    @Test
+    public void testPublishEventDropsEventIfQueueIsFull() throws Exception {
+        assertTrue(eventService.publishEvent(new BaseEvent("JokeEvent", "1")));
+        assertTrue(eventService.publishEvent(new BaseEvent("JokeEvent", "2")));
+        assertFalse(eventService.publishEvent(new BaseEvent("JokeEvent", "3")));
+
+        assertEquals(
+            1,
+            meterRegistry.get("application_event_dropped").tag("reason", "queue_full")
+                .counter().count(),
+            0
+        );
+
+        assertEquals(2, eventService.drain(0, TimeUnit.MILLISECONDS));
+        assertEquals(2, amazonSNS.publishRequests.size());
+    }
+
+    @Test
+    public void testDrainRetriesFailedPublishes() throws Exception {
+        amazonSNS.failures = 2;
+
+        eventService.publishEvent(new BaseEvent("JokeEvent", "payload"));
+        eventService.drain(0, TimeUnit.MILLISECONDS);
+
+        assertEquals(3, amazonSNS.attempts);
+        assertEquals(1, amazonSNS.publishRequests.size());
+    }
+
+    @Test
+    public void testDrainDropsEventAfterLastAttempt() throws Exception {
+        amazonSNS.failures = 3;
+
+        eventService.publishEvent(new BaseEvent("JokeEvent", "payload"));
+        eventService.drain(0, TimeUnit.MILLISECONDS);
+
+        assertEquals(3, amazonSNS.attempts);
+        assertEquals(0, amazonSNS.publishRequests.size());
+        assertEquals(
+            1,
+            meterRegistry.get("application_event_dropped").tag("reason", "publish_failed")
+                .counter().count(),
+            0
+        );
+    }
+
     @Test
-    public void testPublish() {
+    public void testWorkerPublishesQueuedEventsBeforeStopping() throws Exception {
+        eventService.start();
+        eventService.publishEvent(new BaseEvent("JokeEvent", "payload"));
+        eventService.stop();
+
+        assertEquals(1, amazonSNS.publishRequests.size());
+    }
+
+    private static class FakeAmazonSNS extends AbstractAmazonSNS {
+
+        private final List<PublishRequest> publishRequests = new ArrayList<>();
+
+        private int attempts;
+
+        private int failures;
+
+        @Override
+        public synchronized PublishResult publish(PublishRequest request) {
+            attempts++;
+            if (failures > 0) {
+                failures--;
+                throw new AmazonClientException("Unable to execute HTTP request");
+            }
+
+            publishRequests.add(request);
+            return new PublishResult().withMessageId("message-" + publishRequests.size());
+        }
     }
-}
\ No newline at end of file
+}